@@ -0,0 +1,125 @@
+package com.box.sdk.example;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.box.sdk.ConcurrentAccessTokenCache;
+import com.box.sdk.IAccessTokenCache;
+import com.box.sdk.InMemoryLRUAccessTokenCache;
+import com.eclipsesource.json.JsonObject;
+
+/**
+ * Compares the throughput of {@link InMemoryLRUAccessTokenCache} and {@link ConcurrentAccessTokenCache} when many
+ * threads read and write tokens at once.
+ *
+ * <p>Each key has its own token, as it would for app users. The keys and tokens are created before the measurement and
+ * the threads pick keys with a cheap random number generator and only check the time every few thousand operations,
+ * so that the measurement is dominated by the caches rather than by the benchmark itself. Each cache is measured
+ * twice, alternating between them, so that neither benefits from running last.</p>
+ */
+public final class AccessTokenCacheBenchmark {
+    private static final int THREADS = 32;
+    private static final int KEYS = 10000;
+    private static final int WRITE_PERCENTAGE = 5;
+    private static final long WARMUP_MILLIS = 2000;
+    private static final long MEASURE_MILLIS = 5000;
+    private static final int OPERATIONS_PER_CLOCK_CHECK = 4096;
+    private static final String[] KEY_NAMES = createKeys();
+
+    private AccessTokenCacheBenchmark() { }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.format("%d threads, %d keys, %d%% writes%n", THREADS, KEYS, WRITE_PERCENTAGE);
+
+        IAccessTokenCache lruCache = new InMemoryLRUAccessTokenCache(KEYS);
+        IAccessTokenCache concurrentCache = new ConcurrentAccessTokenCache(KEYS);
+        String[] values = createValues();
+        fill(lruCache, values);
+        fill(concurrentCache, values);
+
+        measure(lruCache, values, WARMUP_MILLIS);
+        measure(concurrentCache, values, WARMUP_MILLIS);
+        for (int i = 0; i < 2; i++) {
+            System.out.println("InMemoryLRUAccessTokenCache:");
+            report(measure(lruCache, values, MEASURE_MILLIS));
+
+            System.out.println("ConcurrentAccessTokenCache:");
+            report(measure(concurrentCache, values, MEASURE_MILLIS));
+        }
+    }
+
+    private static String[] createKeys() {
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "/Box Java SDK/client-id/user/" + i;
+        }
+        return keys;
+    }
+
+    private static String[] createValues() {
+        String[] values = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            values[i] = new JsonObject()
+                .add("accessToken", "token" + i)
+                .add("lastRefresh", System.currentTimeMillis())
+                .add("expires", 3600000)
+                .toString();
+        }
+        return values;
+    }
+
+    private static void fill(IAccessTokenCache cache, String[] values) {
+        for (int i = 0; i < KEYS; i++) {
+            cache.put(KEY_NAMES[i], values[i]);
+        }
+    }
+
+    private static void report(long operations) {
+        System.out.format("    %.0f operations/s%n", operations * 1000.0 / MEASURE_MILLIS);
+    }
+
+    private static long measure(final IAccessTokenCache cache, final String[] values, final long millis)
+        throws InterruptedException {
+
+        final AtomicLong operations = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            final int seed = i * 7919 + 1;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    long count = 0;
+                    int random = seed;
+                    long end = System.currentTimeMillis() + millis;
+                    while (System.currentTimeMillis() < end) {
+                        for (int j = 0; j < OPERATIONS_PER_CLOCK_CHECK; j++) {
+                            // A linear congruential generator, which is much cheaper than java.util.Random.
+                            random = random * 1103515245 + 12345;
+                            int key = (random >>> 8) % KEYS;
+                            if ((random >>> 1) % 100 < WRITE_PERCENTAGE) {
+                                cache.put(KEY_NAMES[key], values[key]);
+                            } else {
+                                cache.get(KEY_NAMES[key]);
+                            }
+                        }
+                        count += OPERATIONS_PER_CLOCK_CHECK;
+                    }
+
+                    operations.addAndGet(count);
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        start.countDown();
+        done.await();
+        return operations.get();
+    }
+}
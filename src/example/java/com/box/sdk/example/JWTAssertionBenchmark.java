@@ -0,0 +1,78 @@
+package com.box.sdk.example;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+import org.bouncycastle.openssl.PEMEncryptor;
+import org.bouncycastle.openssl.jcajce.JcaMiscPEMGenerator;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.openssl.jcajce.JcePEMEncryptorBuilder;
+
+import com.box.sdk.DeveloperEditionEntityType;
+import com.box.sdk.EncryptionAlgorithm;
+import com.box.sdk.JWTAssertionBuilder;
+import com.box.sdk.JWTEncryptionPreferences;
+
+/**
+ * Measures how many JWT assertions per second can be signed when the private key is parsed for every assertion
+ * compared to when a single {@link JWTAssertionBuilder} is reused.
+ */
+public final class JWTAssertionBenchmark {
+    private static final int KEY_SIZE = 2048;
+    private static final String KEY_PASSWORD = "benchmark";
+    private static final long WARMUP_MILLIS = 2000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    private JWTAssertionBenchmark() { }
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        JWTEncryptionPreferences encryptionPref = new JWTEncryptionPreferences();
+        encryptionPref.setPublicKeyID("benchmark-key");
+        encryptionPref.setPrivateKey(generateEncryptedPrivateKey());
+        encryptionPref.setPrivateKeyPassword(KEY_PASSWORD);
+        encryptionPref.setEncryptionAlgorithm(EncryptionAlgorithm.RSA_SHA_256);
+
+        System.out.println("Parsing the key for every assertion:");
+        run(encryptionPref, false);
+
+        System.out.println("Reusing a JWTAssertionBuilder:");
+        run(encryptionPref, true);
+    }
+
+    private static void run(JWTEncryptionPreferences encryptionPref, boolean reuseBuilder) {
+        measure(encryptionPref, reuseBuilder, WARMUP_MILLIS);
+        long count = measure(encryptionPref, reuseBuilder, MEASURE_MILLIS);
+        System.out.format("    %.1f assertions/s%n", count * 1000.0 / MEASURE_MILLIS);
+    }
+
+    private static long measure(JWTEncryptionPreferences encryptionPref, boolean reuseBuilder, long millis) {
+        JWTAssertionBuilder sharedBuilder = new JWTAssertionBuilder(encryptionPref);
+        long count = 0;
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            JWTAssertionBuilder builder = reuseBuilder ? sharedBuilder : new JWTAssertionBuilder(encryptionPref);
+            builder.buildAssertion("client-id", Long.toString(count), DeveloperEditionEntityType.USER);
+            count++;
+        }
+
+        return count;
+    }
+
+    private static String generateEncryptedPrivateKey() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE, new SecureRandom());
+        KeyPair keyPair = generator.generateKeyPair();
+
+        PEMEncryptor encryptor = new JcePEMEncryptorBuilder("AES-128-CBC").build(KEY_PASSWORD.toCharArray());
+        StringWriter pem = new StringWriter();
+        JcaPEMWriter writer = new JcaPEMWriter(pem);
+        writer.writeObject(new JcaMiscPEMGenerator(keyPair, encryptor));
+        writer.close();
+
+        return pem.toString();
+    }
+}
@@ -0,0 +1,229 @@
+package com.box.sdk;
+
+/**
+ * Limits the number of requests that are in flight at once, and adapts the limit to how the Box API responds.
+ *
+ * <p>A fixed rate limit is either too conservative or too aggressive depending on the current load on Box and on the
+ * enterprise's quota. An adaptive limiter instead follows an additive increase, multiplicative decrease (AIMD) scheme.
+ * The limit shrinks by the backoff ratio whenever a request is rejected with 429 Too Many Requests or 503 Service
+ * Unavailable, or when latency rises above its long-term average by more than the latency tolerance. While responses
+ * are healthy and the limit is actually being used, it grows by about one request per round trip.</p>
+ *
+ * <pre>AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter();
+ *api.setConcurrencyLimiter(limiter);
+ *otherApi.setConcurrencyLimiter(limiter);</pre>
+ *
+ * <p>A limiter can be shared by any number of connections in order to limit their combined concurrency. Each attempt
+ * to send a request holds one slot from when it's sent until its response status is received, so retries hold a slot
+ * but reading a response body doesn't. When every slot is in use, requests wait for one to be released, for no longer
+ * than their total timeout.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+    /**
+     * The default number of requests allowed in flight when a limiter is created.
+     */
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * The default minimum limit.
+     */
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * The default maximum limit.
+     */
+    public static final int DEFAULT_MAX_LIMIT = 200;
+
+    /**
+     * The default ratio by which the limit is multiplied when requests are being rejected or latency is rising.
+     */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.75;
+
+    /**
+     * The default ratio of recent latency to long-term latency above which latency is considered to be rising.
+     */
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    /**
+     * The weight of each latency sample in the recent average.
+     */
+    private static final double RECENT_LATENCY_WEIGHT = 0.2;
+
+    /**
+     * The weight of each latency sample in the long-term average.
+     */
+    private static final double LONG_TERM_LATENCY_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double recentLatency;
+    private double longTermLatency;
+
+    /**
+     * Constructs an AdaptiveConcurrencyLimiter with the default limits, backoff ratio and latency tolerance.
+     */
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_BACKOFF_RATIO,
+            DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    /**
+     * Constructs an AdaptiveConcurrencyLimiter.
+     * @param initialLimit     the number of requests allowed in flight when the limiter is created.
+     * @param minLimit         the minimum limit.
+     * @param maxLimit         the maximum limit.
+     * @param backoffRatio     the ratio, between 0 and 1, by which the limit is multiplied when requests are being
+     *                         rejected or latency is rising.
+     * @param latencyTolerance the ratio of recent latency to long-term latency above which latency is considered to
+     *                         be rising.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+        double latencyTolerance) {
+
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must be at least 1 and the initial limit must be between "
+                + "the minimum and maximum limits.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1 and the latency tolerance "
+                + "must be greater than 1.");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot, waiting until one is available. Every slot that's taken must be released by calling exactly one
+     * of {@link #onSuccess}, {@link #onDropped} or {@link #onIgnored}.
+     * @throws BoxAPIException if the thread is interrupted while waiting.
+     */
+    public synchronized void acquire() {
+        this.waiting++;
+        try {
+            while (this.inFlight >= this.getLimit()) {
+                this.wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for the concurrency limiter.", e);
+        } finally {
+            this.waiting--;
+        }
+
+        this.inFlight++;
+    }
+
+    /**
+     * Takes a slot if one becomes available within a timeout. A slot that's taken must be released like one taken with
+     * {@link #acquire}.
+     * @param  timeout the maximum amount of time to wait, in milliseconds.
+     * @return         true if a slot was taken; false if no slot became available in time.
+     * @throws BoxAPIException if the thread is interrupted while waiting.
+     */
+    public synchronized boolean tryAcquire(long timeout) {
+        long start = System.currentTimeMillis();
+        this.waiting++;
+        try {
+            long remaining = timeout;
+            while (this.inFlight >= this.getLimit()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                this.wait(remaining);
+                remaining = timeout - (System.currentTimeMillis() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for the concurrency limiter.", e);
+        } finally {
+            this.waiting--;
+        }
+
+        this.inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a slot after a request received a response that wasn't rejected due to load, including error responses
+     * such as 404 Not Found.
+     * @param latency the time it took to receive the response, in milliseconds.
+     */
+    public synchronized void onSuccess(long latency) {
+        boolean limitUsed = this.inFlight * 2 >= this.limit;
+        this.release();
+
+        if (this.longTermLatency == 0) {
+            this.recentLatency = latency;
+            this.longTermLatency = latency;
+        } else {
+            this.recentLatency += (latency - this.recentLatency) * RECENT_LATENCY_WEIGHT;
+            this.longTermLatency += (latency - this.longTermLatency) * LONG_TERM_LATENCY_WEIGHT;
+        }
+
+        if (this.recentLatency > this.longTermLatency * this.latencyTolerance) {
+            this.decrease();
+            // Start measuring recent latency again so that a single slow period only decreases the limit once.
+            this.recentLatency = this.longTermLatency;
+        } else if (limitUsed) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+        }
+    }
+
+    /**
+     * Releases a slot after a request was rejected because the server is overloaded or the client is rate limited.
+     */
+    public synchronized void onDropped() {
+        this.release();
+        this.decrease();
+    }
+
+    /**
+     * Releases a slot after a request failed without a response, such as when a network error occurred.
+     */
+    public synchronized void onIgnored() {
+        this.release();
+    }
+
+    /**
+     * Gets the number of requests currently allowed in flight.
+     * @return the current limit.
+     */
+    public synchronized int getLimit() {
+        return (int) this.limit;
+    }
+
+    /**
+     * Gets the number of requests currently in flight.
+     * @return the number of requests in flight.
+     */
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * Gets the number of requests currently waiting for a slot.
+     * @return the number of waiting requests.
+     */
+    public synchronized int getWaiting() {
+        return this.waiting;
+    }
+
+    private void release() {
+        this.inFlight--;
+        this.notifyAll();
+    }
+
+    private void decrease() {
+        this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+    }
+}
@@ -0,0 +1,314 @@
+package com.box.sdk;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Manages a bounded set of shared Box Developer Edition connections for app users.
+ *
+ * <p>Creating a connection with {@link BoxDeveloperEditionAPIConnection#getAppUserConnection} for every request means
+ * restoring or minting a token each time. A connection manager instead keeps one connection per user and hands the
+ * same connection to every caller. If several threads ask for a user that doesn't have a connection yet, only one of
+ * them obtains a token while the others wait for it.</p>
+ *
+ * <pre>AppUserConnectionManager manager = new AppUserConnectionManager(clientID, clientSecret, encryptionPref,
+ *    accessTokenCache);
+ *manager.setTokenRefreshScheduler(new TokenRefreshScheduler());
+ *
+ *BoxAPIConnection api = manager.getConnection(userID);</pre>
+ *
+ * <p>The manager holds at most {@link #getMaxConnections} connections. When it's full, the least recently used
+ * connection is evicted. Connections that haven't been used for longer than the idle timeout are also evicted. If a
+ * {@link TokenRefreshScheduler} is set, every connection held by the manager is registered with it so that users who
+ * are actively making requests always have a fresh token, and evicted connections are unregistered.</p>
+ */
+public class AppUserConnectionManager {
+    /**
+     * The default maximum number of connections held by a manager.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 1000;
+
+    /**
+     * The default amount of time, in milliseconds, after which a connection that hasn't been used is evicted.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 1800000;
+
+    private final String clientID;
+    private final String clientSecret;
+    private final JWTEncryptionPreferences encryptionPref;
+    private final IAccessTokenCache accessTokenCache;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private volatile int maxConnections;
+    private volatile long idleTimeout;
+    private volatile TokenRefreshScheduler tokenRefreshScheduler;
+
+    /**
+     * Constructs an AppUserConnectionManager.
+     * @param clientID         the client ID to use when exchanging the JWT assertion for an access token.
+     * @param clientSecret     the client secret to use when exchanging the JWT assertion for an access token.
+     * @param encryptionPref   the encryption preferences for signing the JWT.
+     * @param accessTokenCache an optional cache for storing access token information, or null.
+     */
+    public AppUserConnectionManager(String clientID, String clientSecret, JWTEncryptionPreferences encryptionPref,
+        IAccessTokenCache accessTokenCache) {
+
+        this.clientID = clientID;
+        this.clientSecret = clientSecret;
+        this.encryptionPref = encryptionPref;
+        this.accessTokenCache = accessTokenCache;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+        this.maxConnections = DEFAULT_MAX_CONNECTIONS;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    }
+
+    /**
+     * Gets the shared connection for an app user, creating it if the manager doesn't already have one.
+     * @param  userID the ID of the app user.
+     * @return        the app user's connection.
+     * @throws BoxAPIException if a token couldn't be obtained for the user.
+     */
+    public BoxDeveloperEditionAPIConnection getConnection(String userID) {
+        long now = System.currentTimeMillis();
+        List<Entry> evicted = new ArrayList<Entry>();
+        Entry entry;
+        boolean created = false;
+        synchronized (this.entries) {
+            this.removeIdleEntries(now, evicted);
+
+            entry = this.entries.get(userID);
+            if (entry == null) {
+                entry = new Entry(userID);
+                this.entries.put(userID, entry);
+                created = true;
+                this.removeOverflowEntries(evicted);
+            }
+            entry.lastAccess = now;
+        }
+
+        this.unregister(evicted);
+
+        if (created) {
+            entry.future.run();
+        }
+
+        BoxDeveloperEditionAPIConnection api;
+        try {
+            api = entry.future.join();
+        } catch (RuntimeException e) {
+            // Forget the failed connection so that the next caller tries again.
+            synchronized (this.entries) {
+                if (this.entries.get(userID) == entry) {
+                    this.entries.remove(userID);
+                }
+            }
+            throw e;
+        }
+
+        if (created) {
+            this.register(userID, entry, api);
+        }
+
+        return api;
+    }
+
+    /**
+     * Evicts the connection for an app user, if the manager has one.
+     * @param userID the ID of the app user.
+     */
+    public void evict(String userID) {
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.remove(userID);
+        }
+
+        if (entry != null) {
+            List<Entry> evicted = new ArrayList<Entry>();
+            evicted.add(entry);
+            this.unregister(evicted);
+        }
+    }
+
+    /**
+     * Evicts every connection that hasn't been used for longer than the idle timeout. This also happens automatically
+     * whenever a connection is requested.
+     */
+    public void evictIdleConnections() {
+        List<Entry> evicted = new ArrayList<Entry>();
+        synchronized (this.entries) {
+            this.removeIdleEntries(System.currentTimeMillis(), evicted);
+        }
+        this.unregister(evicted);
+    }
+
+    /**
+     * Gets the number of connections currently held by this manager.
+     * @return the number of connections.
+     */
+    public int getConnectionCount() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Gets the maximum number of connections held by this manager.
+     * @return the maximum number of connections.
+     */
+    public int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    /**
+     * Sets the maximum number of connections held by this manager. When the manager is full, the least recently used
+     * connection is evicted to make room for a new one.
+     * @param maxConnections the maximum number of connections.
+     */
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be at least 1.");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Gets the amount of time after which a connection that hasn't been used is evicted.
+     * @return the idle timeout in milliseconds.
+     */
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Sets the amount of time after which a connection that hasn't been used is evicted.
+     * @param idleTimeout the idle timeout in milliseconds.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Gets the scheduler that refreshes the tokens of connections held by this manager.
+     * @return the token refresh scheduler, or null if tokens are only refreshed when requests need them.
+     */
+    public TokenRefreshScheduler getTokenRefreshScheduler() {
+        return this.tokenRefreshScheduler;
+    }
+
+    /**
+     * Sets a scheduler that refreshes the tokens of connections held by this manager in the background. Only
+     * connections created after the scheduler is set are registered with it.
+     * @param tokenRefreshScheduler the token refresh scheduler, or null to only refresh tokens when requests need them.
+     */
+    public void setTokenRefreshScheduler(TokenRefreshScheduler tokenRefreshScheduler) {
+        this.tokenRefreshScheduler = tokenRefreshScheduler;
+    }
+
+    /**
+     * Configures a new connection before it obtains its first token. Subclasses can override this method in order to
+     * set a proxy, a request interceptor or other connection settings. This method does nothing by default.
+     * @param api the new connection.
+     */
+    protected void configureConnection(BoxDeveloperEditionAPIConnection api) {
+    }
+
+    private BoxDeveloperEditionAPIConnection createConnection(String userID) {
+        BoxDeveloperEditionAPIConnection api = new BoxDeveloperEditionAPIConnection(userID,
+            DeveloperEditionEntityType.USER, this.clientID, this.clientSecret, this.encryptionPref,
+            this.accessTokenCache);
+        this.configureConnection(api);
+        api.tryRestoreUsingAccessTokenCache();
+        return api;
+    }
+
+    private void register(String userID, Entry entry, BoxDeveloperEditionAPIConnection api) {
+        TokenRefreshScheduler scheduler = this.tokenRefreshScheduler;
+        if (scheduler == null) {
+            return;
+        }
+
+        scheduler.register(api);
+
+        // The connection may have been evicted before it was registered, in which case it must not stay registered.
+        boolean held;
+        synchronized (this.entries) {
+            held = this.entries.get(userID) == entry;
+        }
+        if (!held) {
+            scheduler.unregister(api);
+        }
+    }
+
+    private void removeIdleEntries(long now, List<Entry> evicted) {
+        // The map is in access order, so idle entries are always at the beginning.
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (now - entry.lastAccess <= this.idleTimeout) {
+                break;
+            }
+
+            iterator.remove();
+            evicted.add(entry);
+        }
+    }
+
+    private void removeOverflowEntries(List<Entry> evicted) {
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maxConnections && iterator.hasNext()) {
+            evicted.add(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private void unregister(List<Entry> evicted) {
+        TokenRefreshScheduler scheduler = this.tokenRefreshScheduler;
+        if (scheduler == null) {
+            return;
+        }
+
+        // Connections that are still being created are unregistered by the thread that creates them.
+        for (Entry entry : evicted) {
+            if (entry.future.isDone() && !entry.failed()) {
+                scheduler.unregister(entry.future.join());
+            }
+        }
+    }
+
+    /**
+     * A connection that's held by the manager. The connection is created by the first thread that requests it, and
+     * every other thread waits on the same future.
+     */
+    private final class Entry {
+        private final BoxFuture<BoxDeveloperEditionAPIConnection> future;
+
+        private long lastAccess;
+
+        Entry(final String userID) {
+            this.future = new BoxFuture<BoxDeveloperEditionAPIConnection>(
+                new Callable<BoxDeveloperEditionAPIConnection>() {
+                    @Override
+                    public BoxDeveloperEditionAPIConnection call() {
+                        return AppUserConnectionManager.this.createConnection(userID);
+                    }
+                });
+        }
+
+        boolean failed() {
+            try {
+                this.future.get();
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+    }
+}
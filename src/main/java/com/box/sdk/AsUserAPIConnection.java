@@ -0,0 +1,342 @@
+package com.box.sdk;
+
+import java.net.Proxy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * This API connection wraps a preexisting BoxAPIConnection in order to act on behalf of another user in the same
+ * enterprise. Every request sent with it includes an As-User header, but it otherwise shares all of its state,
+ * including its tokens and transport, with the wrapped connection.
+ */
+class AsUserAPIConnection extends BoxAPIConnection {
+    private final BoxAPIConnection wrappedConnection;
+    private final String userID;
+
+    AsUserAPIConnection(BoxAPIConnection connection, String userID) {
+        super(null);
+
+        this.wrappedConnection = connection;
+        this.userID = userID;
+    }
+
+    @Override
+    public String getClientID() {
+        return this.wrappedConnection.getClientID();
+    }
+
+    @Override
+    public String getClientSecret() {
+        return this.wrappedConnection.getClientSecret();
+    }
+
+    @Override
+    public void authenticate(String authCode) {
+        this.wrappedConnection.authenticate(authCode);
+    }
+
+    @Override
+    public long getExpires() {
+        return this.wrappedConnection.getExpires();
+    }
+
+    @Override
+    public void setExpires(long milliseconds) {
+        this.wrappedConnection.setExpires(milliseconds);
+    }
+
+    @Override
+    public String getTokenURL() {
+        return this.wrappedConnection.getTokenURL();
+    }
+
+    @Override
+    public void setTokenURL(String tokenURL) {
+        this.wrappedConnection.setTokenURL(tokenURL);
+    }
+
+    @Override
+    public String getBaseURL() {
+        return this.wrappedConnection.getBaseURL();
+    }
+
+    @Override
+    public void setBaseURL(String baseURL) {
+        this.wrappedConnection.setBaseURL(baseURL);
+    }
+
+    @Override
+    public String getBaseUploadURL() {
+        return this.wrappedConnection.getBaseUploadURL();
+    }
+
+    @Override
+    public void setBaseUploadURL(String baseUploadURL) {
+        this.wrappedConnection.setBaseUploadURL(baseUploadURL);
+    }
+
+    @Override
+    public String getUserAgent() {
+        return this.wrappedConnection.getUserAgent();
+    }
+
+    @Override
+    public void setUserAgent(String userAgent) {
+        this.wrappedConnection.setUserAgent(userAgent);
+    }
+
+    @Override
+    public String getAccessToken() {
+        return this.wrappedConnection.getAccessToken();
+    }
+
+    @Override
+    public void setAccessToken(String accessToken) {
+        this.wrappedConnection.setAccessToken(accessToken);
+    }
+
+    @Override
+    protected ReadWriteLock getRefreshLock() {
+        return this.wrappedConnection.getRefreshLock();
+    }
+
+    @Override
+    public String getRefreshToken() {
+        return this.wrappedConnection.getRefreshToken();
+    }
+
+    @Override
+    public void setRefreshToken(String refreshToken) {
+        this.wrappedConnection.setRefreshToken(refreshToken);
+    }
+
+    @Override
+    public long getLastRefresh() {
+        return this.wrappedConnection.getLastRefresh();
+    }
+
+    @Override
+    public void setLastRefresh(long lastRefresh) {
+        this.wrappedConnection.setLastRefresh(lastRefresh);
+    }
+
+    @Override
+    public boolean getAutoRefresh() {
+        return this.wrappedConnection.getAutoRefresh();
+    }
+
+    @Override
+    public void setAutoRefresh(boolean autoRefresh) {
+        this.wrappedConnection.setAutoRefresh(autoRefresh);
+    }
+
+    @Override
+    public int getMaxRequestAttempts() {
+        return this.wrappedConnection.getMaxRequestAttempts();
+    }
+
+    @Override
+    public void setMaxRequestAttempts(int attempts) {
+        this.wrappedConnection.setMaxRequestAttempts(attempts);
+    }
+
+    @Override
+    public Proxy getProxy() {
+        return this.wrappedConnection.getProxy();
+    }
+
+    @Override
+    public void setProxy(Proxy proxy) {
+        this.wrappedConnection.setProxy(proxy);
+    }
+
+    @Override
+    public String getProxyUsername() {
+        return this.wrappedConnection.getProxyUsername();
+    }
+
+    @Override
+    public void setProxyUsername(String proxyUsername) {
+        this.wrappedConnection.setProxyUsername(proxyUsername);
+    }
+
+    @Override
+    public String getProxyPassword() {
+        return this.wrappedConnection.getProxyPassword();
+    }
+
+    @Override
+    public void setProxyPassword(String proxyPassword) {
+        this.wrappedConnection.setProxyPassword(proxyPassword);
+    }
+
+    @Override
+    public boolean canRefresh() {
+        return this.wrappedConnection.canRefresh();
+    }
+
+    @Override
+    public boolean needsRefresh() {
+        return this.wrappedConnection.needsRefresh();
+    }
+
+    @Override
+    public void refresh() {
+        this.wrappedConnection.refresh();
+    }
+
+    @Override
+    public void restore(String state) {
+        this.wrappedConnection.restore(state);
+    }
+
+    @Override
+    public String save() {
+        return this.wrappedConnection.save();
+    }
+
+    @Override
+    public void addListener(BoxAPIConnectionListener listener) {
+        this.wrappedConnection.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(BoxAPIConnectionListener listener) {
+        this.wrappedConnection.removeListener(listener);
+    }
+
+    @Override
+    public RequestInterceptor getRequestInterceptor() {
+        return this.wrappedConnection.getRequestInterceptor();
+    }
+
+    @Override
+    public void setRequestInterceptor(RequestInterceptor interceptor) {
+        this.wrappedConnection.setRequestInterceptor(interceptor);
+    }
+
+    @Override
+    public HttpTransport getTransport() {
+        return this.wrappedConnection.getTransport();
+    }
+
+    @Override
+    public void setTransport(HttpTransport transport) {
+        this.wrappedConnection.setTransport(transport);
+    }
+
+    @Override
+    public RateLimiter getRateLimiter() {
+        return this.wrappedConnection.getRateLimiter();
+    }
+
+    @Override
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.wrappedConnection.setRateLimiter(rateLimiter);
+    }
+
+    @Override
+    public RateLimiter getUploadRateLimiter() {
+        return this.wrappedConnection.getUploadRateLimiter();
+    }
+
+    @Override
+    public void setUploadRateLimiter(RateLimiter uploadRateLimiter) {
+        this.wrappedConnection.setUploadRateLimiter(uploadRateLimiter);
+    }
+
+    @Override
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return this.wrappedConnection.getConcurrencyLimiter();
+    }
+
+    @Override
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.wrappedConnection.setConcurrencyLimiter(concurrencyLimiter);
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.wrappedConnection.getCircuitBreaker();
+    }
+
+    @Override
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.wrappedConnection.setCircuitBreaker(circuitBreaker);
+    }
+
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return this.wrappedConnection.getHedgingPolicy();
+    }
+
+    @Override
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.wrappedConnection.setHedgingPolicy(hedgingPolicy);
+    }
+
+    @Override
+    public RequestCoalescer getRequestCoalescer() {
+        return this.wrappedConnection.getRequestCoalescer();
+    }
+
+    @Override
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.wrappedConnection.setRequestCoalescer(requestCoalescer);
+    }
+
+    @Override
+    public ETagCache getETagCache() {
+        return this.wrappedConnection.getETagCache();
+    }
+
+    @Override
+    public void setETagCache(ETagCache etagCache) {
+        this.wrappedConnection.setETagCache(etagCache);
+    }
+
+    @Override
+    public long getTotalTimeout() {
+        return this.wrappedConnection.getTotalTimeout();
+    }
+
+    @Override
+    public void setTotalTimeout(long totalTimeout) {
+        this.wrappedConnection.setTotalTimeout(totalTimeout);
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return this.wrappedConnection.getRetryPolicy();
+    }
+
+    @Override
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.wrappedConnection.setRetryPolicy(retryPolicy);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return this.wrappedConnection.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.wrappedConnection.setAsyncExecutor(asyncExecutor);
+    }
+
+    @Override
+    void setTokens(String accessToken, String refreshToken, long lastRefresh, long expires) {
+        this.wrappedConnection.setTokens(accessToken, refreshToken, lastRefresh, expires);
+    }
+
+    @Override
+    public String getAsUserID() {
+        return this.userID;
+    }
+
+    @Override
+    public BoxAPIConnection asUser(String asUserID) {
+        return this.wrappedConnection.asUser(asUserID);
+    }
+}
@@ -5,12 +5,9 @@ import java.util.logging.Logger;
 
 class BackoffCounter {
     private static final Logger LOGGER = Logger.getLogger(BackoffCounter.class.getName());
-    private static final int MIN_EXPONENT = 10;
-    private static final int MAX_EXPONENT = 16;
 
     private final Time time;
 
-    private int maxAttempts;
     private int attemptsRemaining;
 
     public BackoffCounter() {
@@ -25,14 +22,13 @@ class BackoffCounter {
         return this.attemptsRemaining;
     }
 
-    public void waitBackoff() throws InterruptedException {
-        int delay = this.calculateDelay();
+    public void waitBackoff(long delay) throws InterruptedException {
         if (this.attemptsRemaining > 1) {
-            LOGGER.log(Level.WARNING, String.format("Backing off for %d seconds before retrying %d more times.",
-                (delay / 1000), this.attemptsRemaining));
+            LOGGER.log(Level.WARNING, String.format("Backing off for %d milliseconds before retrying %d more times.",
+                delay, this.attemptsRemaining));
         } else {
-            LOGGER.log(Level.WARNING, String.format("Backing off for %d seconds before retrying %d more time.",
-                (delay / 1000), this.attemptsRemaining));
+            LOGGER.log(Level.WARNING, String.format("Backing off for %d milliseconds before retrying %d more time.",
+                delay, this.attemptsRemaining));
         }
 
         this.time.waitDuration(delay);
@@ -44,16 +40,10 @@ class BackoffCounter {
     }
 
     public void reset(int maxAttempts) {
-        this.maxAttempts = maxAttempts;
         this.attemptsRemaining = maxAttempts;
     }
 
-    private int calculateDelay() {
-        int exponent = (MIN_EXPONENT + (this.maxAttempts - (this.attemptsRemaining + 1)));
-        if (exponent > MAX_EXPONENT) {
-            exponent = MAX_EXPONENT;
-        }
-
-        return (2 << exponent);
+    Time getTime() {
+        return this.time;
     }
 }
@@ -1,10 +1,20 @@
 package com.box.sdk;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -23,6 +33,11 @@ public class BoxAPIConnection {
      */
     public static final int DEFAULT_MAX_ATTEMPTS = 3;
 
+    /**
+     * The number of threads used to run asynchronous requests for connections that don't have their own executor.
+     */
+    public static final int DEFAULT_ASYNC_THREADS = 16;
+
     private static final String TOKEN_URL_STRING = "https://api.box.com/oauth2/token";
     private static final String DEFAULT_BASE_URL = "https://api.box.com/2.0/";
     private static final String DEFAULT_BASE_UPLOAD_URL = "https://upload.box.com/api/2.0/";
@@ -33,22 +48,22 @@ public class BoxAPIConnection {
      */
     private static final long REFRESH_EPSILON = 60000;
 
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = createDefaultAsyncExecutor();
+
     private final String clientID;
     private final String clientSecret;
     private final ReadWriteLock refreshLock;
 
-    // These volatile fields are used when determining if the access token needs to be refreshed. Since they are used in
-    // the double-checked lock in getAccessToken(), they must be atomic.
-    private volatile long lastRefresh;
-    private volatile long expires;
+    // The access token, refresh token and expiration are replaced together whenever any of them changes so that
+    // requests can read a consistent snapshot of them without locking. Requests never hold refreshLock while they're in
+    // flight, so a refresh never has to wait for I/O on other threads.
+    private final AtomicReference<TokenState> tokenState;
 
     private Proxy proxy;
     private String proxyUsername;
     private String proxyPassword;
 
     private String userAgent;
-    private String accessToken;
-    private String refreshToken;
     private String tokenURL;
     private String baseURL;
     private String baseUploadURL;
@@ -56,6 +71,17 @@ public class BoxAPIConnection {
     private int maxRequestAttempts;
     private List<BoxAPIConnectionListener> listeners;
     private RequestInterceptor interceptor;
+    private HttpTransport transport;
+    private RetryPolicy retryPolicy;
+    private RateLimiter rateLimiter;
+    private RateLimiter uploadRateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private HedgingPolicy hedgingPolicy;
+    private RequestCoalescer requestCoalescer;
+    private ETagCache etagCache;
+    private long totalTimeout;
+    private Executor asyncExecutor;
 
     /**
      * Constructs a new BoxAPIConnection that authenticates with a developer or access token.
@@ -75,8 +101,7 @@ public class BoxAPIConnection {
     public BoxAPIConnection(String clientID, String clientSecret, String accessToken, String refreshToken) {
         this.clientID = clientID;
         this.clientSecret = clientSecret;
-        this.accessToken = accessToken;
-        this.refreshToken = refreshToken;
+        this.tokenState = new AtomicReference<TokenState>(new TokenState(accessToken, refreshToken, 0, 0));
         this.tokenURL = TOKEN_URL_STRING;
         this.baseURL = DEFAULT_BASE_URL;
         this.baseUploadURL = DEFAULT_BASE_UPLOAD_URL;
@@ -85,6 +110,9 @@ public class BoxAPIConnection {
         this.refreshLock = new ReentrantReadWriteLock();
         this.userAgent = "Box Java SDK v2.2.0-SNAPSHOT";
         this.listeners = new ArrayList<BoxAPIConnectionListener>();
+        this.transport = DefaultHttpTransport.getInstance();
+        this.retryPolicy = new DefaultRetryPolicy();
+        this.asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
     }
 
     /**
@@ -147,10 +175,8 @@ public class BoxAPIConnection {
         String json = response.getJSON();
 
         JsonObject jsonObject = JsonObject.readFrom(json);
-        this.accessToken = jsonObject.get("access_token").asString();
-        this.refreshToken = jsonObject.get("refresh_token").asString();
-        this.lastRefresh = System.currentTimeMillis();
-        this.expires = jsonObject.get("expires_in").asLong() * 1000;
+        this.setTokens(jsonObject.get("access_token").asString(), jsonObject.get("refresh_token").asString(),
+            System.currentTimeMillis(), jsonObject.get("expires_in").asLong() * 1000);
     }
 
     /**
@@ -174,7 +200,10 @@ public class BoxAPIConnection {
      * @param milliseconds the number of milliseconds for which the access token is valid.
      */
     public void setExpires(long milliseconds) {
-        this.expires = milliseconds;
+        TokenState current;
+        do {
+            current = this.tokenState.get();
+        } while (!this.tokenState.compareAndSet(current, current.withExpires(milliseconds)));
     }
 
     /**
@@ -182,7 +211,7 @@ public class BoxAPIConnection {
      * @return the amount of time in milliseconds.
      */
     public long getExpires() {
-        return this.expires;
+        return this.tokenState.get().expires;
     }
 
     /**
@@ -256,21 +285,32 @@ public class BoxAPIConnection {
     /**
      * Gets an access token that can be used to authenticate an API request. This method will automatically refresh the
      * access token if it has expired since the last call to <code>getAccessToken()</code>.
+     *
+     * <p>Only one thread refreshes the access token at a time. If the access token is about to expire but is still
+     * valid while another thread is refreshing it, then the current access token is returned instead of waiting for
+     * the refresh to finish.</p>
+     *
      * @return a valid access token that can be used to authenticate an API request.
      */
     public String getAccessToken() {
         if (this.autoRefresh && this.canRefresh() && this.needsRefresh()) {
-            this.refreshLock.writeLock().lock();
+            Lock writeLock = this.refreshLock.writeLock();
+            if (this.hasExpired()) {
+                writeLock.lock();
+            } else if (!writeLock.tryLock()) {
+                return this.tokenState.get().accessToken;
+            }
+
             try {
                 if (this.needsRefresh()) {
                     this.refresh();
                 }
             } finally {
-                this.refreshLock.writeLock().unlock();
+                writeLock.unlock();
             }
         }
 
-        return this.accessToken;
+        return this.tokenState.get().accessToken;
     }
 
     /**
@@ -278,11 +318,18 @@ public class BoxAPIConnection {
      * @param accessToken a valid access token to use when authenticating API requests.
      */
     public void setAccessToken(String accessToken) {
-        this.accessToken = accessToken;
+        TokenState current;
+        do {
+            current = this.tokenState.get();
+        } while (!this.tokenState.compareAndSet(current, current.withAccessToken(accessToken)));
     }
 
     /**
      * Gets the refresh lock to be used when refreshing an access token.
+     *
+     * <p>Refreshes hold the write lock so that only one refresh happens at a time. Requests don't hold the read lock
+     * while they're being sent, so subclasses shouldn't rely on it to wait for in-flight requests.</p>
+     *
      * @return the refresh lock.
      */
     protected ReadWriteLock getRefreshLock() {
@@ -293,7 +340,7 @@ public class BoxAPIConnection {
      * @return a valid refresh token.
      */
     public String getRefreshToken() {
-        return this.refreshToken;
+        return this.tokenState.get().refreshToken;
     }
 
     /**
@@ -301,7 +348,10 @@ public class BoxAPIConnection {
      * @param refreshToken a valid refresh token.
      */
     public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
+        TokenState current;
+        do {
+            current = this.tokenState.get();
+        } while (!this.tokenState.compareAndSet(current, current.withRefreshToken(refreshToken)));
     }
 
     /**
@@ -310,7 +360,7 @@ public class BoxAPIConnection {
      * @return the last refresh time in milliseconds.
      */
     public long getLastRefresh() {
-        return this.lastRefresh;
+        return this.tokenState.get().lastRefresh;
     }
 
     /**
@@ -322,7 +372,10 @@ public class BoxAPIConnection {
      * @param lastRefresh the new last refresh time in milliseconds.
      */
     public void setLastRefresh(long lastRefresh) {
-        this.lastRefresh = lastRefresh;
+        TokenState current;
+        do {
+            current = this.tokenState.get();
+        } while (!this.tokenState.compareAndSet(current, current.withLastRefresh(lastRefresh)));
     }
 
     /**
@@ -411,7 +464,7 @@ public class BoxAPIConnection {
      * @return true if the access token can be refreshed; otherwise false.
      */
     public boolean canRefresh() {
-        return this.refreshToken != null;
+        return this.getRefreshToken() != null;
     }
 
     /**
@@ -419,15 +472,9 @@ public class BoxAPIConnection {
      * @return true if the access token needs to be refreshed; otherwise false.
      */
     public boolean needsRefresh() {
-        boolean needsRefresh;
-
-        this.refreshLock.readLock().lock();
-        long now = System.currentTimeMillis();
-        long tokenDuration = (now - this.lastRefresh);
-        needsRefresh = (tokenDuration >= this.expires - REFRESH_EPSILON);
-        this.refreshLock.readLock().unlock();
-
-        return needsRefresh;
+        TokenState state = this.tokenState.get();
+        long tokenDuration = System.currentTimeMillis() - state.lastRefresh;
+        return tokenDuration >= state.expires - REFRESH_EPSILON;
     }
 
     /**
@@ -436,48 +483,45 @@ public class BoxAPIConnection {
      */
     public void refresh() {
         this.refreshLock.writeLock().lock();
-
-        if (!this.canRefresh()) {
-            this.refreshLock.writeLock().unlock();
-            throw new IllegalStateException("The BoxAPIConnection cannot be refreshed because it doesn't have a "
-                + "refresh token.");
-        }
-
-        URL url = null;
         try {
-            url = new URL(this.tokenURL);
-        } catch (MalformedURLException e) {
-            this.refreshLock.writeLock().unlock();
-            assert false : "An invalid refresh URL indicates a bug in the SDK.";
-            throw new RuntimeException("An invalid refresh URL indicates a bug in the SDK.", e);
-        }
+            if (!this.canRefresh()) {
+                throw new IllegalStateException("The BoxAPIConnection cannot be refreshed because it doesn't have a "
+                    + "refresh token.");
+            }
 
-        String urlParameters = String.format("grant_type=refresh_token&refresh_token=%s&client_id=%s&client_secret=%s",
-            this.refreshToken, this.clientID, this.clientSecret);
+            URL url = null;
+            try {
+                url = new URL(this.tokenURL);
+            } catch (MalformedURLException e) {
+                assert false : "An invalid refresh URL indicates a bug in the SDK.";
+                throw new RuntimeException("An invalid refresh URL indicates a bug in the SDK.", e);
+            }
 
-        BoxAPIRequest request = new BoxAPIRequest(this, url, "POST");
-        request.shouldAuthenticate(false);
-        request.setBody(urlParameters);
+            String urlParameters = String.format(
+                "grant_type=refresh_token&refresh_token=%s&client_id=%s&client_secret=%s", this.getRefreshToken(),
+                this.clientID, this.clientSecret);
 
-        String json;
-        try {
-            BoxJSONResponse response = (BoxJSONResponse) request.send();
-            json = response.getJSON();
-        } catch (BoxAPIException e) {
-            this.notifyError(e);
-            this.refreshLock.writeLock().unlock();
-            throw e;
-        }
+            BoxAPIRequest request = new BoxAPIRequest(this, url, "POST");
+            request.shouldAuthenticate(false);
+            request.setBody(urlParameters);
 
-        JsonObject jsonObject = JsonObject.readFrom(json);
-        this.accessToken = jsonObject.get("access_token").asString();
-        this.refreshToken = jsonObject.get("refresh_token").asString();
-        this.lastRefresh = System.currentTimeMillis();
-        this.expires = jsonObject.get("expires_in").asLong() * 1000;
+            String json;
+            try {
+                BoxJSONResponse response = (BoxJSONResponse) request.send();
+                json = response.getJSON();
+            } catch (BoxAPIException e) {
+                this.notifyError(e);
+                throw e;
+            }
 
-        this.notifyRefresh();
+            JsonObject jsonObject = JsonObject.readFrom(json);
+            this.setTokens(jsonObject.get("access_token").asString(), jsonObject.get("refresh_token").asString(),
+                System.currentTimeMillis(), jsonObject.get("expires_in").asLong() * 1000);
 
-        this.refreshLock.writeLock().unlock();
+            this.notifyRefresh();
+        } finally {
+            this.refreshLock.writeLock().unlock();
+        }
     }
 
     /**
@@ -499,10 +543,7 @@ public class BoxAPIConnection {
         boolean autoRefresh = json.get("autoRefresh").asBoolean();
         int maxRequestAttempts = json.get("maxRequestAttempts").asInt();
 
-        this.accessToken = accessToken;
-        this.refreshToken = refreshToken;
-        this.lastRefresh = lastRefresh;
-        this.expires = expires;
+        this.setTokens(accessToken, refreshToken, lastRefresh, expires);
         this.userAgent = userAgent;
         this.tokenURL = tokenURL;
         this.baseURL = baseURL;
@@ -562,6 +603,289 @@ public class BoxAPIConnection {
         this.interceptor = interceptor;
     }
 
+    /**
+     * Gets the transport used to open HTTP connections to the Box API.
+     * @return the HTTP transport.
+     */
+    public HttpTransport getTransport() {
+        return this.transport;
+    }
+
+    /**
+     * Sets the transport used to open HTTP connections to the Box API. Defaults to {@link DefaultHttpTransport}.
+     *
+     * <p>Like proxy settings, the transport isn't saved or restored along with the rest of the connection's state.</p>
+     *
+     * @param transport the HTTP transport.
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the policy that decides whether and when failed requests made with this connection are retried.
+     * @return the retry policy.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * Sets the policy that decides whether and when failed requests made with this connection are retried. Each
+     * connection has its own {@link DefaultRetryPolicy} by default. A policy can be shared by several connections in
+     * order to give them a common retry budget.
+     *
+     * <p>Like the transport, the retry policy isn't saved or restored along with the rest of the connection's
+     * state.</p>
+     *
+     * @param retryPolicy the retry policy.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Gets the limiter that paces requests made with this connection to the base URL.
+     * @return the rate limiter, or null if requests to the base URL aren't paced.
+     */
+    public RateLimiter getRateLimiter() {
+        return this.rateLimiter;
+    }
+
+    /**
+     * Sets a limiter that paces requests made with this connection to the base URL. Requests to the base upload URL
+     * are paced separately by the upload rate limiter.
+     * @param rateLimiter the rate limiter, or null to send requests to the base URL without pacing them.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Gets the limiter that paces requests made with this connection to the base upload URL.
+     * @return the upload rate limiter, or null if requests to the base upload URL aren't paced.
+     */
+    public RateLimiter getUploadRateLimiter() {
+        return this.uploadRateLimiter;
+    }
+
+    /**
+     * Sets a limiter that paces requests made with this connection to the base upload URL.
+     * @param uploadRateLimiter the upload rate limiter, or null to send requests to the base upload URL without
+     *                          pacing them.
+     */
+    public void setUploadRateLimiter(RateLimiter uploadRateLimiter) {
+        this.uploadRateLimiter = uploadRateLimiter;
+    }
+
+    /**
+     * Gets the limiter that adapts the number of requests made with this connection that can be in flight at once.
+     * @return the concurrency limiter, or null if the number of requests in flight isn't limited.
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * Sets a limiter that adapts the number of requests made with this connection that can be in flight at once. The
+     * same limiter can be set on several connections in order to limit their combined concurrency.
+     * @param concurrencyLimiter the concurrency limiter, or null to not limit the number of requests in flight.
+     */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Gets the circuit breaker that stops requests made with this connection to endpoints that keep failing.
+     * @return the circuit breaker, or null if requests are always sent.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Sets a circuit breaker that stops requests made with this connection to endpoints that keep failing. The same
+     * circuit breaker can be set on several connections so that they share what they know about failing endpoints.
+     * @param circuitBreaker the circuit breaker, or null to always send requests.
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Gets the policy that hedges slow GET requests made with this connection.
+     * @return the hedging policy, or null if requests aren't hedged.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return this.hedgingPolicy;
+    }
+
+    /**
+     * Sets a policy that hedges slow GET requests made with this connection by sending a second copy of them and using
+     * whichever response arrives first. Hedges are sent on the connection's {@link #getAsyncExecutor asynchronous
+     * executor}.
+     * @param hedgingPolicy the hedging policy, or null to never hedge requests.
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Gets the coalescer that combines identical GET requests made with this connection at the same time.
+     * @return the request coalescer, or null if requests aren't combined.
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return this.requestCoalescer;
+    }
+
+    /**
+     * Sets a coalescer that combines identical GET requests made with this connection at the same time into a single
+     * request. The same coalescer can be set on several connections, since requests with different authentication are
+     * never combined.
+     * @param requestCoalescer the request coalescer, or null to send every request.
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Gets the cache that revalidates the responses of GET requests made with this connection using their ETags.
+     * @return the ETag cache, or null if responses aren't cached.
+     */
+    public ETagCache getETagCache() {
+        return this.etagCache;
+    }
+
+    /**
+     * Sets a cache that remembers the JSON responses of GET requests made with this connection along with their ETags,
+     * so that requests for items that haven't changed are answered by Box with 304 Not Modified and return the cached
+     * response.
+     * @param etagCache the ETag cache, or null to always download responses.
+     */
+    public void setETagCache(ETagCache etagCache) {
+        this.etagCache = etagCache;
+    }
+
+    /**
+     * Gets the maximum amount of time that sending a request made with this connection can take in total.
+     * @return the total timeout in milliseconds, or 0 if requests don't have a total timeout.
+     */
+    public long getTotalTimeout() {
+        return this.totalTimeout;
+    }
+
+    /**
+     * Sets the maximum amount of time that sending a request made with this connection can take in total, including
+     * every retry and the delays between them. A request that doesn't complete in time is aborted and throws a {@link
+     * BoxAPIException}. Individual requests can override it with {@link BoxAPIRequest#setTotalTimeout}.
+     * @param totalTimeout the total timeout in milliseconds, or 0 for no total timeout.
+     */
+    public void setTotalTimeout(long totalTimeout) {
+        if (totalTimeout < 0) {
+            throw new IllegalArgumentException("The total timeout can't be negative.");
+        }
+        this.totalTimeout = totalTimeout;
+    }
+
+    /**
+     * Gets the executor that runs asynchronous requests made with this connection.
+     * @return the executor for asynchronous requests.
+     */
+    public Executor getAsyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    /**
+     * Sets the executor that runs asynchronous requests made with this connection, such as {@link
+     * BoxAPIRequest#sendAsync} and {@link BoxFile#getInfoAsync}.
+     *
+     * <p>By default, asynchronous requests share a pool of {@link #DEFAULT_ASYNC_THREADS} daemon threads with every
+     * other connection. Since each request occupies a thread for its entire round trip, the size of the executor
+     * bounds the number of requests that can be in flight at once.</p>
+     *
+     * @param asyncExecutor the executor for asynchronous requests.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Opens connections to the API and upload hosts ahead of traffic, so that the first requests made with this
+     * connection don't pay for DNS lookups and TCP and TLS handshakes. This is useful right after an application starts
+     * or after it has been idle.
+     *
+     * <p>Connections can only be opened ahead of time when this connection uses a {@link PooledHttpTransport} without a
+     * proxy. The hosts are warmed up in parallel on the {@link #getAsyncExecutor asynchronous executor}, and each
+     * connection has to be established within the {@link #getTotalTimeout total timeout}, if there is one.</p>
+     *
+     * @param  connectionsPerHost the number of connections to have open to each host.
+     * @return                    the number of connections that were opened, or 0 if the transport doesn't support
+     *                            opening connections ahead of time.
+     * @throws BoxAPIException if a connection couldn't be opened.
+     */
+    public int warmUp(final int connectionsPerHost) {
+        HttpTransport transport = this.getTransport();
+        if (!(transport instanceof PooledHttpTransport) || this.getProxy() != null) {
+            return 0;
+        }
+
+        final PooledHttpTransport pooledTransport = (PooledHttpTransport) transport;
+        final int connectTimeout = (int) Math.min(this.getTotalTimeout(), Integer.MAX_VALUE);
+        List<BoxFuture<Integer>> futures = new ArrayList<BoxFuture<Integer>>();
+        for (final String baseURL : new String[] {this.getBaseURL(), this.getBaseUploadURL()}) {
+            futures.add(this.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    try {
+                        return pooledTransport.warmUp(new URL(baseURL), connectionsPerHost, connectTimeout);
+                    } catch (MalformedURLException e) {
+                        throw new BoxAPIException("Couldn't warm up connections because a base URL is invalid.", e);
+                    } catch (IOException e) {
+                        throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
+                    }
+                }
+            }));
+        }
+
+        int opened = 0;
+        for (BoxFuture<Integer> future : futures) {
+            opened += future.join();
+        }
+        return opened;
+    }
+
+    /**
+     * Gets a connection that acts on behalf of another user in the same enterprise.
+     *
+     * <p>Requests sent with the returned connection include an As-User header, so an enterprise connection with the
+     * "Perform actions as users" permission can work with any number of users without obtaining a token for each of
+     * them. The returned connection shares its tokens, transport and all other settings with this connection, and it's
+     * cheap to create, so a new one can be created for each operation:</p>
+     *
+     * <pre>BoxFolder userRoot = BoxFolder.getRootFolder(api.asUser(userID));</pre>
+     *
+     * <p>Items and other resources created with the returned connection also act on behalf of the user. The As-User
+     * header isn't saved along with the connection's state.</p>
+     *
+     * @param  userID the ID of the user to act on behalf of.
+     * @return        a connection that acts on behalf of the user.
+     */
+    public BoxAPIConnection asUser(String userID) {
+        if (userID == null) {
+            throw new IllegalArgumentException("The user ID can't be null.");
+        }
+
+        return new AsUserAPIConnection(this, userID);
+    }
+
+    /**
+     * Gets the ID of the user that this connection acts on behalf of.
+     * @return the ID of the user in this connection's As-User header, or null if it acts as its own user.
+     */
+    public String getAsUserID() {
+        return null;
+    }
+
     /**
      * Saves the state of this connection to a string so that it can be persisted and restored at a later time.
      *
@@ -573,11 +897,12 @@ public class BoxAPIConnection {
      * @return the state of this connection.
      */
     public String save() {
+        TokenState tokens = this.tokenState.get();
         JsonObject state = new JsonObject()
-            .add("accessToken", this.accessToken)
-            .add("refreshToken", this.refreshToken)
-            .add("lastRefresh", this.lastRefresh)
-            .add("expires", this.expires)
+            .add("accessToken", tokens.accessToken)
+            .add("refreshToken", tokens.refreshToken)
+            .add("lastRefresh", tokens.lastRefresh)
+            .add("expires", tokens.expires)
             .add("userAgent", this.userAgent)
             .add("tokenURL", this.tokenURL)
             .add("baseURL", this.baseURL)
@@ -587,25 +912,81 @@ public class BoxAPIConnection {
         return state.toString();
     }
 
-    String lockAccessToken() {
-        if (this.autoRefresh && this.canRefresh() && this.needsRefresh()) {
-            this.refreshLock.writeLock().lock();
-            try {
-                if (this.needsRefresh()) {
-                    this.refresh();
-                }
-                this.refreshLock.readLock().lock();
-            } finally {
-                this.refreshLock.writeLock().unlock();
+    <V> BoxFuture<V> submit(Callable<V> task) {
+        return submit(this.getAsyncExecutor(), task);
+    }
+
+    static <V> BoxFuture<V> submit(Executor executor, Callable<V> task) {
+        BoxFuture<V> future = new BoxFuture<V>(task);
+        executor.execute(future);
+        return future;
+    }
+
+    static Executor getDefaultAsyncExecutor() {
+        return DEFAULT_ASYNC_EXECUTOR;
+    }
+
+    private static Executor createDefaultAsyncExecutor() {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "box-async-" + this.count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
             }
-        } else {
-            this.refreshLock.readLock().lock();
-        }
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_ASYNC_THREADS, DEFAULT_ASYNC_THREADS, 60,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Atomically replaces all of this connection's token information so that concurrent requests never see an access
+     * token paired with another token's expiration.
+     */
+    void setTokens(String accessToken, String refreshToken, long lastRefresh, long expires) {
+        this.tokenState.set(new TokenState(accessToken, refreshToken, lastRefresh, expires));
+    }
 
-        return this.accessToken;
+    private boolean hasExpired() {
+        TokenState state = this.tokenState.get();
+        return System.currentTimeMillis() - state.lastRefresh >= state.expires;
     }
 
-    void unlockAccessToken() {
-        this.refreshLock.readLock().unlock();
+    /**
+     * An immutable snapshot of a connection's tokens.
+     */
+    private static final class TokenState {
+        private final String accessToken;
+        private final String refreshToken;
+        private final long lastRefresh;
+        private final long expires;
+
+        TokenState(String accessToken, String refreshToken, long lastRefresh, long expires) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.lastRefresh = lastRefresh;
+            this.expires = expires;
+        }
+
+        TokenState withAccessToken(String newAccessToken) {
+            return new TokenState(newAccessToken, this.refreshToken, this.lastRefresh, this.expires);
+        }
+
+        TokenState withRefreshToken(String newRefreshToken) {
+            return new TokenState(this.accessToken, newRefreshToken, this.lastRefresh, this.expires);
+        }
+
+        TokenState withLastRefresh(long newLastRefresh) {
+            return new TokenState(this.accessToken, this.refreshToken, newLastRefresh, this.expires);
+        }
+
+        TokenState withExpires(long newExpires) {
+            return new TokenState(this.accessToken, this.refreshToken, this.lastRefresh, newExpires);
+        }
     }
 }
@@ -1,5 +1,10 @@
 package com.box.sdk;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * Thrown to indicate that an error occurred while communicating with the Box API.
  */
@@ -9,6 +14,8 @@ public class BoxAPIException extends RuntimeException {
     private final int responseCode;
     private final String response;
 
+    private Map<String, List<String>> headers;
+
     /**
      * Constructs a BoxAPIException with a specified message.
      * @param  message a message explaining why the exception occurred.
@@ -74,4 +81,29 @@ public class BoxAPIException extends RuntimeException {
     public String getResponse() {
         return this.response;
     }
+
+    /**
+     * Gets the headers of the response returned by the server when this exception was thrown. Header names are
+     * case-insensitive.
+     * @return the headers of the response returned by the server, or an empty map if there wasn't a response.
+     */
+    public Map<String, List<String>> getHeaders() {
+        if (this.headers == null) {
+            return Collections.emptyMap();
+        }
+
+        return this.headers;
+    }
+
+    void setHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> caseInsensitiveHeaders =
+            new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            // HttpURLConnection includes the status line as a header without a name.
+            if (header.getKey() != null) {
+                caseInsensitiveHeaders.put(header.getKey(), header.getValue());
+            }
+        }
+        this.headers = Collections.unmodifiableMap(caseInsensitiveHeaders);
+    }
 }
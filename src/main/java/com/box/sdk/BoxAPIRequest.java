@@ -9,8 +9,16 @@ import java.net.MalformedURLException;
 import java.net.ProtocolException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,6 +32,9 @@ import java.util.logging.Logger;
  * an error occurs while sending a request, it will be automatically retried (with a back off delay) up to the maximum
  * number of times set in the BoxAPIConnection.</p>
  *
+ * <p>Connections are opened by the {@link HttpTransport} configured on the BoxAPIConnection, which controls how they're
+ * pooled and reused. Requests without a BoxAPIConnection use {@link DefaultHttpTransport}.</p>
+ *
  * <p>Specifying a body for a BoxAPIRequest is done differently than it is with HttpURLConnection. Instead of writing to
  * an OutputStream, the request is provided an {@link InputStream} which will be read when the {@link #send} method is
  * called. This makes it easy to retry requests since the stream can automatically reset and reread with each attempt.
@@ -34,10 +45,12 @@ public class BoxAPIRequest {
     private static final Logger LOGGER = Logger.getLogger(BoxAPIRequest.class.getName());
     private static final int BUFFER_SIZE = 8192;
     private static final int MAX_REDIRECTS = 3;
+    private static final RetryPolicy DEFAULT_RETRY_POLICY = new DefaultRetryPolicy();
 
     private final BoxAPIConnection api;
     private final List<RequestHeader> headers;
     private final String method;
+    private final Object stateLock;
 
     private URL url;
     private BackoffCounter backoffCounter;
@@ -48,6 +61,15 @@ public class BoxAPIRequest {
     private int numRedirects;
     private boolean followRedirects = true;
     private boolean shouldAuthenticate;
+    private String sentAccessToken;
+    private volatile HttpURLConnection activeConnection;
+    private volatile boolean aborted;
+    private volatile boolean cancelled;
+    private volatile boolean deadlineExceeded;
+    private long totalTimeout;
+    private volatile long deadline;
+    private boolean sending;
+    private Thread waitingThread;
 
     /**
      * Constructs an unauthenticated BoxAPIRequest.
@@ -71,6 +93,7 @@ public class BoxAPIRequest {
         this.headers = new ArrayList<RequestHeader>();
         this.backoffCounter = new BackoffCounter(new Time());
         this.shouldAuthenticate = true;
+        this.stateLock = new Object();
 
         this.addHeader("Accept-Encoding", "gzip");
         this.addHeader("Accept-Charset", "utf-8");
@@ -93,6 +116,53 @@ public class BoxAPIRequest {
         this.timeout = timeout;
     }
 
+    /**
+     * Sets the maximum amount of time that sending this request can take in total, including every retry and the
+     * delays between them. This overrides the total timeout of the API connection.
+     *
+     * <p>The timeout of each attempt set with {@link #setTimeout} is shortened so that no attempt goes past the total
+     * timeout, a retry isn't attempted if its delay would end after the total timeout, and an attempt that's still in
+     * flight when the total timeout expires is aborted. Waiting for a rate limiter permit, a concurrency limiter slot
+     * or an identical request that's being coalesced also counts towards the total timeout. When the total timeout
+     * expires, {@link #send} throws a {@link BoxAPIException}.</p>
+     *
+     * @param totalTimeout the total timeout in milliseconds, or 0 to use the total timeout of the API connection.
+     */
+    public void setTotalTimeout(long totalTimeout) {
+        if (totalTimeout < 0) {
+            throw new IllegalArgumentException("The total timeout can't be negative.");
+        }
+        this.totalTimeout = totalTimeout;
+    }
+
+    /**
+     * Cancels this request. If the request is being sent, the attempt in flight is aborted by disconnecting it and
+     * any delay before a retry or wait for a rate limiter permit, a concurrency limiter slot or an identical request
+     * is interrupted, so that {@link #send} throws a {@link BoxAPIException} right away.
+     * Sending a request that has been cancelled fails immediately.
+     *
+     * <p>This method can be called from any thread. Cancelling a request after {@link #send} has returned disconnects
+     * the response, so its body can no longer be read.</p>
+     */
+    public void cancel() {
+        synchronized (this.stateLock) {
+            this.cancelled = true;
+            if (this.waitingThread != null) {
+                this.waitingThread.interrupt();
+            }
+        }
+
+        this.abort();
+    }
+
+    /**
+     * Gets whether this request has been cancelled.
+     * @return true if {@link #cancel} has been called; otherwise false.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
     /**
      * Sets whether or not to follow redirects (i.e. Location header)
      * @param followRedirects true to follow, false to not follow
@@ -164,6 +234,15 @@ public class BoxAPIRequest {
         return this.url;
     }
 
+    /**
+     * Gets the HTTP method of the request.
+     *
+     * @return the HTTP method of the request.
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
     /**
      * Sends this request and returns a BoxAPIResponse containing the server's response.
      *
@@ -173,9 +252,9 @@ public class BoxAPIRequest {
      *
      * <pre>BoxJSONResponse response = (BoxJSONResponse) request.send();</pre>
      *
-     * <p>If the server returns an error code or if a network error occurs, then the request will be automatically
-     * retried. If the maximum number of retries is reached and an error still occurs, then a {@link BoxAPIException}
-     * will be thrown.</p>
+     * <p>If the server returns an error code, then the request may be automatically retried as decided by the API
+     * connection's {@link RetryPolicy}. If the request isn't retried or the maximum number of attempts is reached and
+     * an error still occurs, then a {@link BoxAPIException} will be thrown.</p>
      *
      * @throws BoxAPIException if the server returns an error code or if a network error occurs.
      * @return a {@link BoxAPIResponse} containing the server's response.
@@ -198,38 +277,192 @@ public class BoxAPIRequest {
      * @return a {@link BoxAPIResponse} containing the server's response.
      */
     public BoxAPIResponse send(ProgressListener listener) {
+        long requestTotalTimeout = this.totalTimeout;
+        if (requestTotalTimeout == 0 && this.api != null) {
+            requestTotalTimeout = this.api.getTotalTimeout();
+        }
+
+        ScheduledFuture<?> watchdog = null;
+        synchronized (this.stateLock) {
+            this.aborted = false;
+            this.deadlineExceeded = false;
+            this.sending = true;
+            if (requestTotalTimeout > 0) {
+                this.deadline = System.currentTimeMillis() + requestTotalTimeout;
+                watchdog = RequestTimer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        BoxAPIRequest.this.expireDeadline();
+                    }
+                }, requestTotalTimeout);
+            } else {
+                this.deadline = 0;
+            }
+        }
+
+        try {
+            return this.sendWithCoalescer(listener);
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            synchronized (this.stateLock) {
+                this.sending = false;
+                this.deadline = 0;
+            }
+        }
+    }
+
+    private BoxAPIResponse sendWithCoalescer(ProgressListener listener) {
+        RequestCoalescer coalescer = null;
+        if (this.api != null) {
+            coalescer = this.api.getRequestCoalescer();
+        }
+        if (coalescer != null && this.method.equals("GET") && this.body == null) {
+            return coalescer.send(this, listener);
+        }
+
+        return this.sendWithCache(listener);
+    }
+
+    /**
+     * Sends this request, revalidating a cached response instead if the API connection has an {@link ETagCache}.
+     * @param  listener a listener for monitoring the progress of the request.
+     * @return          the server's response.
+     */
+    BoxAPIResponse sendWithCache(ProgressListener listener) {
+        ETagCache cache = null;
+        if (this.api != null) {
+            cache = this.api.getETagCache();
+        }
+        if (cache != null && this.method.equals("GET") && this.body == null) {
+            return cache.send(this, listener);
+        }
+
+        return this.sendWithRetries(listener);
+    }
+
+    /**
+     * Sends this request, retrying it as decided by the API connection's {@link RetryPolicy}.
+     * @param  listener a listener for monitoring the progress of the request.
+     * @return          the server's response.
+     */
+    BoxAPIResponse sendWithRetries(ProgressListener listener) {
+        int maxAttempts;
+        RetryPolicy retryPolicy;
         if (this.api == null) {
-            this.backoffCounter.reset(BoxAPIConnection.DEFAULT_MAX_ATTEMPTS);
+            maxAttempts = BoxAPIConnection.DEFAULT_MAX_ATTEMPTS;
+            retryPolicy = DEFAULT_RETRY_POLICY;
         } else {
-            this.backoffCounter.reset(this.api.getMaxRequestAttempts());
+            maxAttempts = this.api.getMaxRequestAttempts();
+            retryPolicy = this.api.getRetryPolicy();
         }
 
+        this.backoffCounter.reset(maxAttempts);
+        RetryContext retryContext = new RetryContext(this, maxAttempts, this.backoffCounter.getTime());
+        retryPolicy.onRequest(retryContext);
+
+        boolean retriedUnauthorized = false;
         while (this.backoffCounter.getAttemptsRemaining() > 0) {
+            this.checkStopped(null);
             try {
-                return this.trySend(listener);
+                return this.trySendWithHedging(listener);
             } catch (BoxAPIException apiException) {
-                if (!this.backoffCounter.decrement() || !isResponseRetryable(apiException.getResponseCode())) {
+                this.checkStopped(apiException);
+                if (!retriedUnauthorized && this.wasAccessTokenReplaced(apiException.getResponseCode())) {
+                    // The access token was refreshed while this request was in flight, so it's retried once with the
+                    // new token without counting it as a failed attempt.
+                    retriedUnauthorized = true;
+                    try {
+                        this.resetBody();
+                    } catch (IOException ioException) {
+                        throw apiException;
+                    }
+                    continue;
+                }
+
+                retryContext.recordFailure(apiException);
+                if (!this.backoffCounter.decrement()) {
                     throw apiException;
                 }
 
-                try {
-                    this.resetBody();
-                } catch (IOException ioException) {
+                long delay = retryPolicy.getRetryDelay(retryContext);
+                if (delay < 0) {
                     throw apiException;
                 }
+                long currentDeadline = this.deadline;
+                if (currentDeadline > 0 && System.currentTimeMillis() + delay >= currentDeadline) {
+                    // Waiting for the retry would already use up the rest of the total timeout.
+                    throw new BoxAPIException("The request didn't complete within its total timeout.", apiException);
+                }
 
                 try {
-                    this.backoffCounter.waitBackoff();
-                } catch (InterruptedException interruptedException) {
-                    Thread.currentThread().interrupt();
+                    this.resetBody();
+                } catch (IOException ioException) {
                     throw apiException;
                 }
+
+                this.waitBeforeRetry(delay, apiException);
+                retryContext.recordDelay(delay);
             }
         }
 
         throw new RuntimeException();
     }
 
+    /**
+     * Sends this request asynchronously and returns a BoxFuture that will contain the server's response.
+     *
+     * <p>The request is sent on the executor configured with {@link BoxAPIConnection#setAsyncExecutor}, or on a shared
+     * default executor if this request doesn't have an API connection. Other than running on a different thread, the
+     * request is sent exactly as it would be by {@link #send}, including automatic retries. The request shouldn't be
+     * modified until the returned future has completed. Cancelling the future also {@link #cancel cancels} the
+     * request.</p>
+     *
+     * @return a {@link BoxFuture} that will contain the server's response, or the {@link BoxAPIException} that
+     *         {@link #send} would have thrown.
+     */
+    public BoxFuture<BoxAPIResponse> sendAsync() {
+        return this.sendAsync(null);
+    }
+
+    /**
+     * Sends this request asynchronously while monitoring its progress and returns a BoxFuture that will contain the
+     * server's response.
+     *
+     * <p> See {@link #sendAsync()} for more information on sending requests asynchronously.</p>
+     *
+     * @param  listener a listener for monitoring the progress of the request.
+     * @return          a {@link BoxFuture} that will contain the server's response.
+     */
+    public BoxFuture<BoxAPIResponse> sendAsync(final ProgressListener listener) {
+        Executor executor;
+        if (this.api == null) {
+            executor = BoxAPIConnection.getDefaultAsyncExecutor();
+        } else {
+            executor = this.api.getAsyncExecutor();
+        }
+
+        BoxFuture<BoxAPIResponse> future = new BoxFuture<BoxAPIResponse>(new Callable<BoxAPIResponse>() {
+            @Override
+            public BoxAPIResponse call() {
+                return BoxAPIRequest.this.send(listener);
+            }
+        }) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelledFuture = super.cancel(mayInterruptIfRunning);
+                if (cancelledFuture) {
+                    BoxAPIRequest.this.cancel();
+                }
+                return cancelledFuture;
+            }
+        };
+
+        executor.execute(future);
+        return future;
+    }
+
     /**
      * Returns a String containing the URL, HTTP method, headers and body of this request.
      * @return a String containing information about this request.
@@ -339,6 +572,330 @@ public class BoxAPIRequest {
         this.backoffCounter = counter;
     }
 
+    BoxAPIConnection getAPI() {
+        return this.api;
+    }
+
+    /**
+     * Gets the size of this request's body.
+     * @return the size of the body in bytes, or -1 if the size isn't known before the body is written.
+     */
+    long getBodySize() {
+        if (this.body != null && this.bodyLength == 0) {
+            return -1;
+        }
+
+        return this.bodyLength;
+    }
+
+    /**
+     * Sends this request once, without going through the connection's circuit breaker and without retrying it.
+     * @return the server's response.
+     */
+    BoxAPIResponse sendWithoutRetries() {
+        return this.trySendWithLimiter(null);
+    }
+
+    /**
+     * Gets the headers that were added to this request, not including the headers that are added when it's sent, such
+     * as Authorization.
+     * @return a map of header keys to values.
+     */
+    Map<String, String> getHeaders() {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        for (RequestHeader header : this.headers) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        return headers;
+    }
+
+    boolean hasHeader(String key) {
+        for (RequestHeader header : this.headers) {
+            if (header.getKey().equalsIgnoreCase(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void removeHeader(String key) {
+        Iterator<RequestHeader> iterator = this.headers.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().equalsIgnoreCase(key)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets a key that identifies the method, URL, headers and authentication of this request, so that requests with the
+     * same key would get the same response.
+     * @return the key of this request.
+     */
+    String getCoalescingKey() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.method).append(' ').append(this.url).append('\n');
+        for (RequestHeader header : this.headers) {
+            builder.append(header.getKey()).append(": ").append(header.getValue()).append('\n');
+        }
+
+        if (this.api != null) {
+            if (this.shouldAuthenticate) {
+                builder.append("Authorization: ").append(this.api.getAccessToken()).append('\n');
+            }
+            builder.append("As-User: ").append(this.api.getAsUserID()).append('\n');
+            if (this.api instanceof SharedLinkAPIConnection) {
+                SharedLinkAPIConnection sharedItemAPI = (SharedLinkAPIConnection) this.api;
+                builder.append("BoxApi: ").append(sharedItemAPI.getSharedLink()).append(' ')
+                    .append(sharedItemAPI.getSharedLinkPassword()).append('\n');
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Creates a copy of this GET request that can be sent at the same time as this request.
+     * @return a copy of this request.
+     */
+    BoxAPIRequest copyForHedging() {
+        BoxAPIRequest copy = new BoxAPIRequest(this.api, this.url, this.method);
+        copy.headers.clear();
+        copy.headers.addAll(this.headers);
+        copy.timeout = this.timeout;
+        copy.followRedirects = this.followRedirects;
+        copy.shouldAuthenticate = this.shouldAuthenticate;
+        copy.deadline = this.deadline;
+        return copy;
+    }
+
+    /**
+     * Aborts the attempt that's currently being sent by disconnecting it. This method can be called from any thread.
+     */
+    void abort() {
+        this.aborted = true;
+        HttpURLConnection connection = this.activeConnection;
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    private void expireDeadline() {
+        synchronized (this.stateLock) {
+            if (!this.sending) {
+                return;
+            }
+            this.deadlineExceeded = true;
+        }
+
+        this.abort();
+    }
+
+    private void checkStopped(BoxAPIException cause) {
+        if (this.cancelled) {
+            throw new BoxAPIException("The request was cancelled.", cause);
+        }
+
+        long currentDeadline = this.deadline;
+        if (this.deadlineExceeded || (currentDeadline > 0 && System.currentTimeMillis() >= currentDeadline)) {
+            throw new BoxAPIException("The request didn't complete within its total timeout.", cause);
+        }
+    }
+
+    /**
+     * Marks the total timeout as expired when a wait can't end before it, so that the request isn't retried.
+     */
+    private BoxAPIException exceedDeadline(Exception cause) {
+        this.deadlineExceeded = true;
+        return new BoxAPIException("The request didn't complete within its total timeout.", cause);
+    }
+
+    /**
+     * Checks whether this request was stopped by {@link #cancel} or by its total timeout, rather than failing because
+     * of the Box API or the network.
+     * @return true if the request was cancelled or its total timeout expired; otherwise false.
+     */
+    boolean isStopped() {
+        long currentDeadline = this.deadline;
+        return this.cancelled || this.deadlineExceeded
+            || (currentDeadline > 0 && System.currentTimeMillis() >= currentDeadline);
+    }
+
+    /**
+     * Gets how much longer this request can wait before its total timeout expires.
+     * @return the remaining time in milliseconds, or -1 if the request doesn't have a total timeout.
+     */
+    long getRemainingTime() {
+        long currentDeadline = this.deadline;
+        if (currentDeadline == 0) {
+            return -1;
+        }
+
+        return Math.max(0, currentDeadline - System.currentTimeMillis());
+    }
+
+    /**
+     * Lets {@link #cancel} interrupt the current thread until {@link #stopWaiting} is called.
+     */
+    private void startWaiting(BoxAPIException cause) {
+        synchronized (this.stateLock) {
+            if (this.cancelled) {
+                throw new BoxAPIException("The request was cancelled.", cause);
+            }
+            this.waitingThread = Thread.currentThread();
+        }
+    }
+
+    private void stopWaiting() {
+        synchronized (this.stateLock) {
+            this.waitingThread = null;
+        }
+        if (this.cancelled) {
+            // Clear the interrupt that cancel() may have used to stop the wait.
+            Thread.interrupted();
+        }
+    }
+
+    private void waitBeforeRetry(long delay, BoxAPIException cause) {
+        this.startWaiting(cause);
+        try {
+            this.backoffCounter.waitBackoff(delay);
+        } catch (InterruptedException interruptedException) {
+            if (!this.cancelled) {
+                Thread.currentThread().interrupt();
+                throw cause;
+            }
+        } finally {
+            this.stopWaiting();
+        }
+
+        if (this.cancelled) {
+            throw new BoxAPIException("The request was cancelled.", cause);
+        }
+    }
+
+    /**
+     * Waits for an identical request that another thread is sending, for no longer than the rest of this request's
+     * total timeout. The wait is interrupted if this request is cancelled.
+     * @param  future the identical request.
+     * @return        the response to the identical request.
+     */
+    BoxAPIResponse awaitIdenticalRequest(BoxFuture<BoxAPIResponse> future) {
+        long remaining = this.getRemainingTime();
+        this.startWaiting(null);
+        try {
+            if (remaining < 0) {
+                return future.get();
+            }
+            return future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw this.exceedDeadline(e);
+        } catch (InterruptedException e) {
+            if (this.cancelled) {
+                throw new BoxAPIException("The request was cancelled.", e);
+            }
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for an identical request to complete.", e);
+        } catch (ExecutionException e) {
+            // The identical request is done, so join() rethrows its error without waiting.
+            return future.join();
+        } finally {
+            this.stopWaiting();
+        }
+    }
+
+    private BoxAPIResponse trySendWithHedging(ProgressListener listener) {
+        HedgingPolicy hedgingPolicy = null;
+        if (this.api != null) {
+            hedgingPolicy = this.api.getHedgingPolicy();
+        }
+        if (hedgingPolicy == null || !this.method.equals("GET") || this.body != null) {
+            return this.trySendWithCircuitBreaker(listener);
+        }
+
+        return hedgingPolicy.send(this, listener);
+    }
+
+    BoxAPIResponse trySendWithCircuitBreaker(ProgressListener listener) {
+        CircuitBreaker circuitBreaker = null;
+        if (this.api != null) {
+            circuitBreaker = this.api.getCircuitBreaker();
+        }
+        if (circuitBreaker == null) {
+            return this.trySendWithLimiter(listener);
+        }
+
+        String circuit = circuitBreaker.acquire(this);
+        BoxAPIResponse response;
+        try {
+            response = this.trySendWithLimiter(listener);
+        } catch (BoxAPIException e) {
+            if (this.aborted || this.cancelled) {
+                circuitBreaker.onIgnored(circuit);
+            } else {
+                circuitBreaker.onError(circuit, e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onIgnored(circuit);
+            throw e;
+        }
+
+        circuitBreaker.onSuccess(circuit);
+        return response;
+    }
+
+    private BoxAPIResponse trySendWithLimiter(ProgressListener listener) {
+        AdaptiveConcurrencyLimiter limiter = null;
+        if (this.api != null) {
+            limiter = this.api.getConcurrencyLimiter();
+        }
+        if (limiter == null) {
+            return this.trySend(listener);
+        }
+
+        long remaining = this.getRemainingTime();
+        boolean acquired;
+        this.startWaiting(null);
+        try {
+            if (remaining < 0) {
+                limiter.acquire();
+                acquired = true;
+            } else {
+                acquired = limiter.tryAcquire(remaining);
+            }
+        } finally {
+            this.stopWaiting();
+        }
+        if (!acquired) {
+            throw this.exceedDeadline(null);
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            BoxAPIResponse response = this.trySend(listener);
+            released = true;
+            limiter.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return response;
+        } catch (BoxAPIException e) {
+            int responseCode = e.getResponseCode();
+            released = true;
+            if (responseCode == 429 || responseCode == 503) {
+                limiter.onDropped();
+            } else if (responseCode == 0) {
+                limiter.onIgnored();
+            } else {
+                limiter.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            throw e;
+        } finally {
+            if (!released) {
+                limiter.onIgnored();
+            }
+        }
+    }
+
     private BoxAPIResponse trySend(ProgressListener listener) {
         if (this.api != null) {
             RequestInterceptor interceptor = this.api.getRequestInterceptor();
@@ -350,7 +907,27 @@ public class BoxAPIRequest {
             }
         }
 
+        this.acquireRatePermit();
         HttpURLConnection connection = this.createConnection();
+        this.activeConnection = connection;
+        boolean responded = false;
+        try {
+            BoxAPIResponse response = this.trySend(connection, listener);
+            responded = true;
+            return response;
+        } finally {
+            // Nothing else releases a connection that failed before it returned a response, and a pooled connection
+            // would otherwise keep its host's slot for good.
+            if (!responded) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private BoxAPIResponse trySend(HttpURLConnection connection, ProgressListener listener) {
+        if (this.aborted || this.cancelled) {
+            throw new BoxAPIException("The request was aborted.");
+        }
 
         if (this.bodyLength > 0) {
             connection.setFixedLengthStreamingMode((int) this.bodyLength);
@@ -359,7 +936,8 @@ public class BoxAPIRequest {
 
         if (this.api != null) {
             if (this.shouldAuthenticate) {
-                connection.addRequestProperty("Authorization", "Bearer " + this.api.lockAccessToken());
+                this.sentAccessToken = this.api.getAccessToken();
+                connection.addRequestProperty("Authorization", "Bearer " + this.sentAccessToken);
             }
             connection.setRequestProperty("User-Agent", this.api.getUserAgent());
             if (this.api.getProxy() != null) {
@@ -380,35 +958,34 @@ public class BoxAPIRequest {
                 }
                 connection.addRequestProperty("BoxApi", boxAPIValue);
             }
+
+            String asUserID = this.api.getAsUserID();
+            if (asUserID != null) {
+                connection.addRequestProperty("As-User", asUserID);
+            }
         }
 
         this.requestProperties = connection.getRequestProperties();
 
-        int responseCode;
-        try {
-            this.writeBody(connection, listener);
+        this.writeBody(connection, listener);
 
-            // Ensure that we're connected in case writeBody() didn't write anything.
-            try {
-                connection.connect();
-            } catch (IOException e) {
-                throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
-            }
+        // Ensure that we're connected in case writeBody() didn't write anything.
+        try {
+            connection.connect();
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
+        }
 
-            this.logRequest(connection);
+        this.logRequest(connection);
 
-            // We need to manually handle redirects by creating a new HttpURLConnection so that connection pooling
-            // happens correctly. There seems to be a bug in Oracle's Java implementation where automatically handled
-            // redirects will not keep the connection alive.
-            try {
-                responseCode = connection.getResponseCode();
-            } catch (IOException e) {
-                throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
-            }
-        } finally {
-            if (this.api != null && this.shouldAuthenticate) {
-                this.api.unlockAccessToken();
-            }
+        // We need to manually handle redirects by creating a new HttpURLConnection so that connection pooling
+        // happens correctly. There seems to be a bug in Oracle's Java implementation where automatically handled
+        // redirects will not keep the connection alive.
+        int responseCode;
+        try {
+            responseCode = connection.getResponseCode();
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
         }
 
         if (isResponseRedirect(responseCode)) {
@@ -428,6 +1005,41 @@ public class BoxAPIRequest {
         return response;
     }
 
+    private void acquireRatePermit() {
+        if (this.api == null) {
+            return;
+        }
+
+        RateLimiter rateLimiter;
+        if (this.url.toString().startsWith(this.api.getBaseUploadURL())) {
+            rateLimiter = this.api.getUploadRateLimiter();
+        } else {
+            rateLimiter = this.api.getRateLimiter();
+        }
+
+        if (rateLimiter == null) {
+            return;
+        }
+
+        long remaining = this.getRemainingTime();
+        boolean acquired;
+        this.startWaiting(null);
+        try {
+            if (remaining < 0 || remaining >= rateLimiter.getMaxWait()) {
+                rateLimiter.acquire();
+                acquired = true;
+            } else {
+                acquired = rateLimiter.tryAcquire(remaining);
+            }
+        } finally {
+            this.stopWaiting();
+        }
+        if (!acquired) {
+            // The permit wouldn't be available until after the total timeout, so there's no point in waiting for it.
+            throw this.exceedDeadline(null);
+        }
+    }
+
     private BoxAPIResponse handleRedirect(HttpURLConnection connection, ProgressListener listener) {
         if (this.numRedirects >= MAX_REDIRECTS) {
             throw new BoxAPIException("The Box API responded with too many redirects.");
@@ -474,10 +1086,10 @@ public class BoxAPIRequest {
         HttpURLConnection connection = null;
 
         try {
-            if (this.api == null || this.api.getProxy() == null) {
-                connection = (HttpURLConnection) this.url.openConnection();
+            if (this.api == null) {
+                connection = DefaultHttpTransport.getInstance().openConnection(this.url, null);
             } else {
-                connection = (HttpURLConnection) this.url.openConnection(this.api.getProxy());
+                connection = this.api.getTransport().openConnection(this.url, this.api.getProxy());
             }
         } catch (IOException e) {
             throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
@@ -486,11 +1098,13 @@ public class BoxAPIRequest {
         try {
             connection.setRequestMethod(this.method);
         } catch (ProtocolException e) {
+            connection.disconnect();
             throw new BoxAPIException("Couldn't connect to the Box API because the request's method was invalid.", e);
         }
 
-        connection.setConnectTimeout(this.timeout);
-        connection.setReadTimeout(this.timeout);
+        int attemptTimeout = this.getAttemptTimeout();
+        connection.setConnectTimeout(attemptTimeout);
+        connection.setReadTimeout(attemptTimeout);
 
         // Don't allow HttpURLConnection to automatically redirect because it messes up the connection pool. See the
         // trySend(ProgressListener) method for how we handle redirects.
@@ -503,12 +1117,30 @@ public class BoxAPIRequest {
         return connection;
     }
 
+    private int getAttemptTimeout() {
+        long currentDeadline = this.deadline;
+        if (currentDeadline == 0) {
+            return this.timeout;
+        }
+
+        long remaining = Math.max(1, currentDeadline - System.currentTimeMillis());
+        if (this.timeout > 0 && this.timeout < remaining) {
+            return this.timeout;
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
     void shouldAuthenticate(boolean shouldAuthenticate) {
         this.shouldAuthenticate = shouldAuthenticate;
     }
 
-    private static boolean isResponseRetryable(int responseCode) {
-        return (responseCode >= 500 || responseCode == 429);
+    private boolean wasAccessTokenReplaced(int responseCode) {
+        if (responseCode != 401 || this.api == null || !this.shouldAuthenticate
+            || this.sentAccessToken == null) {
+            return false;
+        }
+
+        return !this.sentAccessToken.equals(this.api.getAccessToken());
     }
 
     private static boolean isResponseRedirect(int responseCode) {
@@ -1,5 +1,6 @@
 package com.box.sdk;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -27,6 +28,7 @@ public class BoxAPIResponse {
     private static final int BUFFER_SIZE = 8192;
 
     private final HttpURLConnection connection;
+    private final byte[] body;
 
     private int responseCode;
     private String bodyString;
@@ -48,6 +50,27 @@ public class BoxAPIResponse {
      */
     public BoxAPIResponse() {
         this.connection = null;
+        this.body = new byte[0];
+    }
+
+    /**
+     * Constructs a BoxAPIResponse without an associated HttpURLConnection for a response that has already been read.
+     * @param responseCode the response code returned by the API.
+     */
+    BoxAPIResponse(int responseCode) {
+        this(responseCode, new byte[0]);
+    }
+
+    /**
+     * Constructs a BoxAPIResponse without an associated HttpURLConnection for a response whose body has already been
+     * read.
+     * @param responseCode the response code returned by the API.
+     * @param body         the body of the response.
+     */
+    BoxAPIResponse(int responseCode, byte[] body) {
+        this.connection = null;
+        this.body = body;
+        this.responseCode = responseCode;
     }
 
     /**
@@ -56,6 +79,7 @@ public class BoxAPIResponse {
      */
     public BoxAPIResponse(HttpURLConnection connection) {
         this.connection = connection;
+        this.body = null;
         this.inputStream = null;
 
         try {
@@ -66,8 +90,10 @@ public class BoxAPIResponse {
 
         if (!isSuccess(this.responseCode)) {
             this.logResponse();
-            throw new BoxAPIException("The API returned an error code: " + this.responseCode, this.responseCode,
-                this.bodyToString());
+            BoxAPIException exception = new BoxAPIException("The API returned an error code: " + this.responseCode,
+                this.responseCode, this.bodyToString());
+            exception.setHeaders(this.connection.getHeaderFields());
+            throw exception;
         }
 
         this.logResponse();
@@ -86,9 +112,26 @@ public class BoxAPIResponse {
      * @return the length of the response's body.
      */
     public long getContentLength() {
+        if (this.connection == null) {
+            return this.body.length;
+        }
+
         return this.connection.getContentLength();
     }
 
+    /**
+     * Gets the value of a header returned by the API.
+     * @param  name the name of the header.
+     * @return      the value of the header, or null if the response doesn't have the header.
+     */
+    public String getHeaderField(String name) {
+        if (this.connection == null) {
+            return null;
+        }
+
+        return this.connection.getHeaderField(name);
+    }
+
     /**
      * Gets an InputStream for reading this response's body.
      * @return an InputStream for reading the response's body.
@@ -103,7 +146,12 @@ public class BoxAPIResponse {
      * @return an InputStream for reading the response's body.
      */
     public InputStream getBody(ProgressListener listener) {
-        if (this.inputStream == null) {
+        if (this.inputStream == null && this.connection == null) {
+            this.inputStream = new ByteArrayInputStream(this.body);
+            if (listener != null) {
+                this.inputStream = new ProgressInputStream(this.inputStream, listener, this.body.length);
+            }
+        } else if (this.inputStream == null) {
             String contentEncoding = this.connection.getContentEncoding();
             try {
                 if (this.rawInputStream == null) {
@@ -164,10 +212,27 @@ public class BoxAPIResponse {
     @Override
     public String toString() {
         String lineSeparator = System.getProperty("line.separator");
-        Map<String, List<String>> headers = this.connection.getHeaderFields();
         StringBuilder builder = new StringBuilder();
         builder.append("Response");
         builder.append(lineSeparator);
+        if (this.connection == null) {
+            builder.append(this.responseCode);
+            builder.append(lineSeparator);
+        } else {
+            this.appendStatusAndHeaders(builder, lineSeparator);
+        }
+
+        String bodyString = this.bodyToString();
+        if (bodyString != null && bodyString != "") {
+            builder.append(lineSeparator);
+            builder.append(bodyString);
+        }
+
+        return builder.toString().trim();
+    }
+
+    private void appendStatusAndHeaders(StringBuilder builder, String lineSeparator) {
+        Map<String, List<String>> headers = this.connection.getHeaderFields();
         builder.append(this.connection.getRequestMethod());
         builder.append(' ');
         builder.append(this.connection.getURL().toString());
@@ -202,14 +267,6 @@ public class BoxAPIResponse {
             builder.delete(builder.length() - 2, builder.length());
             builder.append(lineSeparator);
         }
-
-        String bodyString = this.bodyToString();
-        if (bodyString != null && bodyString != "") {
-            builder.append(lineSeparator);
-            builder.append(bodyString);
-        }
-
-        return builder.toString().trim();
     }
 
     /**
@@ -231,6 +288,10 @@ public class BoxAPIResponse {
      * @return gzip decoded (if needed) error stream or null
      */
     private InputStream getErrorStream() {
+        if (this.connection == null) {
+            return null;
+        }
+
         InputStream errorStream = this.connection.getErrorStream();
         if (errorStream != null) {
             final String contentEncoding = this.connection.getContentEncoding();
@@ -0,0 +1,38 @@
+package com.box.sdk;
+
+/**
+ * Thrown by {@link BoxBatchRequest#send} when a POST to the batch endpoint fails after earlier POSTs of the same batch
+ * have already been applied.
+ *
+ * <p>A large batch is sent in several POSTs, and the requests in the POSTs that succeeded have already been applied by
+ * the time a later POST fails. Their responses are kept in the {@link #getPartialResponse partial response}, so that
+ * they aren't sent again when the rest of the batch is retried. The response code and response body are those of the
+ * POST that failed.</p>
+ */
+public class BoxBatchException extends BoxAPIException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient BoxBatchResponse partialResponse;
+
+    /**
+     * Constructs a BoxBatchException for a POST that failed.
+     * @param cause           the error of the POST that failed.
+     * @param partialResponse the responses to the requests that were sent before the POST that failed.
+     */
+    BoxBatchException(BoxAPIException cause, BoxBatchResponse partialResponse) {
+        super("The batch failed after " + partialResponse.size() + " of its requests were sent: " + cause.getMessage(),
+            cause.getResponseCode(), cause.getResponse(), cause);
+
+        this.setHeaders(cause.getHeaders());
+        this.partialResponse = partialResponse;
+    }
+
+    /**
+     * Gets the responses to the requests that were sent before the POST that failed. They're the responses to the
+     * first {@link BoxBatchResponse#size} requests of the batch, in the order the requests were added.
+     * @return the responses to the requests that were sent.
+     */
+    public BoxBatchResponse getPartialResponse() {
+        return this.partialResponse;
+    }
+}
@@ -0,0 +1,230 @@
+package com.box.sdk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * Sends many API requests to Box's batch endpoint so that they share HTTP round trips.
+ *
+ * <p>Applying small changes to many items, such as updating the info or metadata of thousands of files, normally
+ * costs one round trip per item. A batch request collects requests that would otherwise be sent one by one and sends
+ * them together in a single POST to the batch endpoint, with at most {@link #getMaxRequestsPerBatch} requests per
+ * POST. The batch response is split back into one response per request, in the order the requests were added.</p>
+ *
+ * <pre>BoxBatchRequest batch = new BoxBatchRequest(api);
+ *for (String fileID : fileIDs) {
+ *    BoxJSONRequest request = new BoxJSONRequest(api, new URL(api.getBaseURL() + "files/" + fileID), "PUT");
+ *    request.setBody("{\"description\": \"Reviewed\"}");
+ *    batch.addRequest(request);
+ *}
+ *
+ *BoxBatchResponse responses = batch.send();
+ *for (int i = 0; i < responses.size(); i++) {
+ *    if (!responses.isSuccess(i)) {
+ *        System.err.println(responses.getError(i).getResponse());
+ *    }
+ *}</pre>
+ *
+ * <p>Requests in a batch must be sent to the connection's base URL, and their bodies, if any, must be JSON. Their
+ * headers, such as the Content-Type of metadata updates, are sent along with them. Each
+ * request succeeds or fails on its own, so a failed request doesn't prevent the other requests from being applied. If
+ * a batch POST itself fails, a {@link BoxBatchException} is thrown with the responses to the requests in the POSTs that
+ * were already applied, and none of the remaining requests are sent.</p>
+ */
+public class BoxBatchRequest {
+    /**
+     * The default maximum number of requests sent in a single POST to the batch endpoint.
+     */
+    public static final int DEFAULT_MAX_REQUESTS_PER_BATCH = 20;
+
+    private static final URLTemplate BATCH_URL_TEMPLATE = new URLTemplate("batch");
+
+    private final BoxAPIConnection api;
+    private final List<BoxAPIRequest> requests;
+    private final List<JsonValue> bodies;
+
+    private int maxRequestsPerBatch;
+
+    /**
+     * Constructs an empty BoxBatchRequest.
+     * @param api the API connection used to send the batch.
+     */
+    public BoxBatchRequest(BoxAPIConnection api) {
+        this.api = api;
+        this.requests = new ArrayList<BoxAPIRequest>();
+        this.bodies = new ArrayList<JsonValue>();
+        this.maxRequestsPerBatch = DEFAULT_MAX_REQUESTS_PER_BATCH;
+    }
+
+    /**
+     * Adds a request to this batch.
+     * @param request the request to add.
+     * @throws IllegalArgumentException if the request isn't sent to the connection's base URL or has a body that
+     *                                  isn't JSON.
+     */
+    public void addRequest(BoxAPIRequest request) {
+        this.getRelativeURL(request);
+        JsonValue body = readBody(request);
+        this.requests.add(request);
+        this.bodies.add(body);
+    }
+
+    /**
+     * Gets the requests in this batch.
+     * @return an unmodifiable list of the requests in this batch.
+     */
+    public List<BoxAPIRequest> getRequests() {
+        return Collections.unmodifiableList(this.requests);
+    }
+
+    /**
+     * Gets the maximum number of requests sent in a single POST to the batch endpoint.
+     * @return the maximum number of requests per batch.
+     */
+    public int getMaxRequestsPerBatch() {
+        return this.maxRequestsPerBatch;
+    }
+
+    /**
+     * Sets the maximum number of requests sent in a single POST to the batch endpoint. Larger batches are split into
+     * several POSTs.
+     * @param maxRequestsPerBatch the maximum number of requests per batch.
+     */
+    public void setMaxRequestsPerBatch(int maxRequestsPerBatch) {
+        if (maxRequestsPerBatch < 1) {
+            throw new IllegalArgumentException("The maximum number of requests per batch must be at least 1.");
+        }
+        this.maxRequestsPerBatch = maxRequestsPerBatch;
+    }
+
+    /**
+     * Sends the requests in this batch and returns their responses.
+     * @return the responses to the requests, in the order the requests were added.
+     * @throws BoxBatchException if a POST to the batch endpoint fails or returns an invalid response.
+     */
+    public BoxBatchResponse send() {
+        List<Object> results = new ArrayList<Object>(this.requests.size());
+        for (int start = 0; start < this.requests.size(); start += this.maxRequestsPerBatch) {
+            int end = Math.min(this.requests.size(), start + this.maxRequestsPerBatch);
+            try {
+                results.addAll(this.sendBatch(this.requests.subList(start, end), this.bodies.subList(start, end)));
+            } catch (BoxAPIException e) {
+                throw new BoxBatchException(e, new BoxBatchResponse(results));
+            }
+        }
+
+        return new BoxBatchResponse(results);
+    }
+
+    private List<Object> sendBatch(List<BoxAPIRequest> batch, List<JsonValue> batchBodies) {
+        JsonArray requestsJSON = new JsonArray();
+        for (int i = 0; i < batch.size(); i++) {
+            BoxAPIRequest request = batch.get(i);
+            JsonObject requestJSON = new JsonObject()
+                .add("method", request.getMethod())
+                .add("relative_url", this.getRelativeURL(request));
+
+            JsonObject headersJSON = new JsonObject();
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                String key = header.getKey();
+                if (!key.equalsIgnoreCase("Accept-Encoding") && !key.equalsIgnoreCase("Accept-Charset")) {
+                    headersJSON.add(key, header.getValue());
+                }
+            }
+            if (!headersJSON.isEmpty()) {
+                requestJSON.add("headers", headersJSON);
+            }
+
+            JsonValue body = batchBodies.get(i);
+            if (body != null) {
+                requestJSON.add("body", body);
+            }
+            requestsJSON.add(requestJSON);
+        }
+
+        BoxJSONRequest batchRequest = new BoxJSONRequest(this.api, BATCH_URL_TEMPLATE.build(this.api.getBaseURL()),
+            "POST");
+        batchRequest.setBody(new JsonObject().add("requests", requestsJSON).toString());
+        BoxJSONResponse batchResponse = (BoxJSONResponse) batchRequest.send();
+
+        JsonValue responsesValue = JsonObject.readFrom(batchResponse.getJSON()).get("responses");
+        if (responsesValue == null || !responsesValue.isArray() || responsesValue.asArray().size() != batch.size()) {
+            throw new BoxAPIException("The batch response didn't contain a response for every request.");
+        }
+
+        List<Object> results = new ArrayList<Object>(batch.size());
+        for (JsonValue value : responsesValue.asArray()) {
+            JsonObject responseJSON = value.asObject();
+            int status = responseJSON.get("status").asInt();
+            JsonValue body = responseJSON.get("response");
+            String bodyString = (body == null || body.isNull()) ? null : body.toString();
+
+            if (status >= 200 && status < 300) {
+                if (bodyString == null) {
+                    results.add(new BoxAPIResponse(status));
+                } else {
+                    results.add(new BoxJSONResponse(status, bodyString));
+                }
+            } else {
+                results.add(new BoxAPIException("The API returned an error code: " + status, status, bodyString));
+            }
+        }
+
+        return results;
+    }
+
+    private String getRelativeURL(BoxAPIRequest request) {
+        String base = this.api.getBaseURL();
+        String url = request.getUrl().toString();
+        if (!url.startsWith(base)) {
+            throw new IllegalArgumentException("Only requests sent to " + base + " can be added to a batch.");
+        }
+
+        String relativeURL = url.substring(base.length());
+        if (relativeURL.startsWith("/")) {
+            return relativeURL;
+        }
+        return "/" + relativeURL;
+    }
+
+    private static JsonValue readBody(BoxAPIRequest request) {
+        if (request instanceof BoxMultipartRequest) {
+            throw new IllegalArgumentException("Multipart requests can't be added to a batch.");
+        }
+
+        InputStream body = request.getBody();
+        if (body == null) {
+            return null;
+        }
+
+        String json;
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n = body.read(buffer);
+            while (n != -1) {
+                output.write(buffer, 0, n);
+                n = body.read(buffer);
+            }
+            request.resetBody();
+            json = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The body of a request added to a batch must be able to be reset.", e);
+        }
+
+        try {
+            return JsonValue.readFrom(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Only requests with JSON bodies can be added to a batch.", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.box.sdk;
+
+import java.util.List;
+
+/**
+ * The responses to the requests in a {@link BoxBatchRequest}.
+ *
+ * <p>Each request in a batch succeeds or fails on its own. The response to a successful request can be read like the
+ * response to a request sent by itself, and is a {@link BoxJSONResponse} when the request returned a body. A failed
+ * request has the {@link BoxAPIException} that it would have thrown if it had been sent by itself.</p>
+ */
+public class BoxBatchResponse {
+    private final List<Object> results;
+
+    BoxBatchResponse(List<Object> results) {
+        this.results = results;
+    }
+
+    /**
+     * Gets the number of responses, which is the same as the number of requests in the batch.
+     * @return the number of responses.
+     */
+    public int size() {
+        return this.results.size();
+    }
+
+    /**
+     * Gets whether the request at an index succeeded.
+     * @param  index the index of the request in the batch.
+     * @return       true if the request succeeded; otherwise false.
+     */
+    public boolean isSuccess(int index) {
+        return this.results.get(index) instanceof BoxAPIResponse;
+    }
+
+    /**
+     * Gets the response to the request at an index.
+     * @param  index the index of the request in the batch.
+     * @return       the response to the request.
+     * @throws BoxAPIException if the request failed.
+     */
+    public BoxAPIResponse getResponse(int index) {
+        Object result = this.results.get(index);
+        if (result instanceof BoxAPIException) {
+            throw (BoxAPIException) result;
+        }
+
+        return (BoxAPIResponse) result;
+    }
+
+    /**
+     * Gets the error returned for the request at an index.
+     * @param  index the index of the request in the batch.
+     * @return       the error returned for the request, or null if the request succeeded.
+     */
+    public BoxAPIException getError(int index) {
+        Object result = this.results.get(index);
+        if (result instanceof BoxAPIException) {
+            return (BoxAPIException) result;
+        }
+
+        return null;
+    }
+}
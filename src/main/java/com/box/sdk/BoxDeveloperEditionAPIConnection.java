@@ -1,22 +1,7 @@
 package com.box.sdk;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.security.PrivateKey;
-
-import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
-import org.bouncycastle.openssl.PEMDecryptorProvider;
-import org.bouncycastle.openssl.PEMEncryptedKeyPair;
-import org.bouncycastle.openssl.PEMKeyPair;
-import org.bouncycastle.openssl.PEMParser;
-import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
-import org.bouncycastle.openssl.jcajce.JcePEMDecryptorProviderBuilder;
-import org.jose4j.jws.AlgorithmIdentifiers;
-import org.jose4j.jws.JsonWebSignature;
-import org.jose4j.jwt.JwtClaims;
-import org.jose4j.lang.JoseException;
 
 import com.eclipsesource.json.JsonObject;
 
@@ -27,16 +12,12 @@ import com.eclipsesource.json.JsonObject;
  */
 public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
 
-    private static final String JWT_AUDIENCE = "https://api.box.com/oauth2/token";
     private static final String JWT_GRANT_TYPE =
             "grant_type=urn:ietf:params:oauth:grant-type:jwt-bearer&client_id=%s&client_secret=%s&assertion=%s";
 
     private final String entityID;
     private final DeveloperEditionEntityType entityType;
-    private final EncryptionAlgorithm encryptionAlgorithm;
-    private final String publicKeyID;
-    private final String privateKey;
-    private final String privateKeyPassword;
+    private final JWTAssertionBuilder assertionBuilder;
 
     private IAccessTokenCache accessTokenCache;
 
@@ -121,10 +102,7 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
 
         this.entityID = entityId;
         this.entityType = entityType;
-        this.publicKeyID = encryptionPref.getPublicKeyID();
-        this.privateKey = encryptionPref.getPrivateKey();
-        this.privateKeyPassword = encryptionPref.getPrivateKeyPassword();
-        this.encryptionAlgorithm = encryptionPref.getEncryptionAlgorithm();
+        this.assertionBuilder = encryptionPref.getAssertionBuilder();
         this.accessTokenCache = accessTokenCache;
     }
 
@@ -234,7 +212,8 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
             throw new RuntimeException("An invalid token URL indicates a bug in the SDK.", e);
         }
 
-        String jwtAssertion = this.constructJWTAssertion();
+        String jwtAssertion = this.assertionBuilder.buildAssertion(this.getClientID(), this.entityID,
+            this.entityType);
 
         String urlParameters = String.format(JWT_GRANT_TYPE, this.getClientID(), this.getClientSecret(), jwtAssertion);
 
@@ -246,9 +225,8 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
         String json = response.getJSON();
 
         JsonObject jsonObject = JsonObject.readFrom(json);
-        this.setAccessToken(jsonObject.get("access_token").asString());
-        this.setLastRefresh(System.currentTimeMillis());
-        this.setExpires(jsonObject.get("expires_in").asLong() * 1000);
+        this.setTokens(jsonObject.get("access_token").asString(), this.getRefreshToken(), System.currentTimeMillis(),
+            jsonObject.get("expires_in").asLong() * 1000);
 
         //if token cache is specified, save to cache
         if (this.accessTokenCache != null) {
@@ -276,17 +254,18 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
      */
     public void refresh() {
         this.getRefreshLock().writeLock().lock();
-
         try {
-            this.authenticate();
-        } catch (BoxAPIException e) {
-            this.notifyError(e);
+            try {
+                this.authenticate();
+            } catch (BoxAPIException e) {
+                this.notifyError(e);
+                throw e;
+            }
+
+            this.notifyRefresh();
+        } finally {
             this.getRefreshLock().writeLock().unlock();
-            throw e;
         }
-
-        this.notifyRefresh();
-        this.getRefreshLock().writeLock().unlock();
     }
 
     private String getAccessTokenCacheKey() {
@@ -294,7 +273,7 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
                 this.entityType.toString(), this.entityID);
     }
 
-    private void tryRestoreUsingAccessTokenCache() {
+    void tryRestoreUsingAccessTokenCache() {
         if (this.accessTokenCache == null) {
             //no cache specified so force authentication
             this.authenticate();
@@ -306,80 +285,9 @@ public class BoxDeveloperEditionAPIConnection extends BoxAPIConnection {
             } else {
                 //pull access token cache info; authentication will occur as needed (if token is expired)
                 JsonObject json = JsonObject.readFrom(cachedTokenInfo);
-                this.setAccessToken(json.get("accessToken").asString());
-                this.setLastRefresh(json.get("lastRefresh").asLong());
-                this.setExpires(json.get("expires").asLong());
+                this.setTokens(json.get("accessToken").asString(), this.getRefreshToken(),
+                    json.get("lastRefresh").asLong(), json.get("expires").asLong());
             }
         }
     }
-
-    private String constructJWTAssertion() {
-        JwtClaims claims = new JwtClaims();
-        claims.setIssuer(this.getClientID());
-        claims.setAudience(JWT_AUDIENCE);
-        claims.setExpirationTimeMinutesInTheFuture(1.0f);
-        claims.setSubject(this.entityID);
-        claims.setClaim("box_sub_type", this.entityType.toString());
-        claims.setGeneratedJwtId(64);
-
-        JsonWebSignature jws = new JsonWebSignature();
-        jws.setPayload(claims.toJson());
-        jws.setKey(this.decryptPrivateKey());
-        jws.setAlgorithmHeaderValue(this.getAlgorithmIdentifier());
-        jws.setHeader("typ", "JWT");
-        if ((this.publicKeyID != null) && !this.publicKeyID.isEmpty()) {
-            jws.setHeader("kid", this.publicKeyID);
-        }
-
-        String assertion;
-
-        try {
-            assertion = jws.getCompactSerialization();
-        } catch (JoseException e) {
-            throw new BoxAPIException("Error serializing JSON Web Token assertion.", e);
-        }
-
-        return assertion;
-    }
-
-    private String getAlgorithmIdentifier() {
-        String algorithmId = AlgorithmIdentifiers.RSA_USING_SHA256;
-        switch (this.encryptionAlgorithm) {
-            case RSA_SHA_384:
-                algorithmId = AlgorithmIdentifiers.RSA_USING_SHA384;
-                break;
-            case RSA_SHA_512:
-                algorithmId = AlgorithmIdentifiers.RSA_USING_SHA512;
-                break;
-            case RSA_SHA_256:
-            default:
-                break;
-        }
-
-        return algorithmId;
-    }
-
-    private PrivateKey decryptPrivateKey() {
-        PrivateKey decryptedPrivateKey;
-
-        try {
-            PEMParser keyReader = new PEMParser(new StringReader(this.privateKey));
-            Object keyPair = keyReader.readObject();
-            keyReader.close();
-
-            if (keyPair instanceof PEMEncryptedKeyPair) {
-                JcePEMDecryptorProviderBuilder builder = new JcePEMDecryptorProviderBuilder();
-                PEMDecryptorProvider decryptionProvider = builder.build(this.privateKeyPassword.toCharArray());
-                keyPair = ((PEMEncryptedKeyPair) keyPair).decryptKeyPair(decryptionProvider);
-            }
-
-            PrivateKeyInfo keyInfo = ((PEMKeyPair) keyPair).getPrivateKeyInfo();
-            decryptedPrivateKey = (new JcaPEMKeyConverter()).getPrivateKey(keyInfo);
-        } catch (IOException e) {
-            throw new BoxAPIException("Error parsing private key for Box Developer Edition.", e);
-        }
-
-        return decryptedPrivateKey;
-    }
-
 }
@@ -1,16 +1,22 @@
 package com.box.sdk;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
@@ -268,6 +274,54 @@ public class BoxFile extends BoxItem {
         }
     }
 
+    /**
+     * Downloads the contents of this file to a file on the local file system in segments that are downloaded in
+     * parallel. Large files are downloaded faster this way, and a network error only affects the segment being
+     * downloaded. The downloaded contents are verified with the file's SHA-1.
+     * @param  target the file to write the contents to, which is created or replaced.
+     * @return        the downloaded file's info, with its size and SHA-1.
+     */
+    public BoxFile.Info downloadLargeFile(File target) {
+        RandomAccessFile file;
+        try {
+            file = new RandomAccessFile(target, "rw");
+        } catch (FileNotFoundException e) {
+            throw new BoxAPIException("Couldn't open the file to download to.", e);
+        }
+
+        BoxFile.Info info;
+        try {
+            info = this.downloadLargeFile(file.getChannel(), new LargeFileDownload());
+        } catch (RuntimeException e) {
+            try {
+                file.close();
+            } catch (IOException closeException) {
+                // The error that failed the download is the one worth reporting.
+            }
+            throw e;
+        }
+
+        try {
+            file.close();
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't close the downloaded file.", e);
+        }
+        return info;
+    }
+
+    /**
+     * Downloads the contents of this file to a file channel in segments that are downloaded in parallel, using a custom
+     * number of parallel segments, segment size or timeout. The channel's contents are replaced, and the segments are
+     * written with positional writes, which leave the channel's position alone. The downloaded contents are verified
+     * with the file's SHA-1.
+     * @param  channel  a writable channel for the downloaded contents.
+     * @param  download the configuration of the download.
+     * @return          the downloaded file's info, with its size and SHA-1.
+     */
+    public BoxFile.Info downloadLargeFile(FileChannel channel, LargeFileDownload download) {
+        return download.download(this, channel);
+    }
+
     @Override
     public BoxFile.Info copy(BoxFolder destination) {
         return this.copy(destination, null);
@@ -364,6 +418,23 @@ public class BoxFile extends BoxItem {
         return new Info(response.getJSON());
     }
 
+    /**
+     * Asynchronously gets information about this file on the connection's async executor.
+     * @param  fields the fields to retrieve, or none to retrieve the default fields.
+     * @return        a future that will contain info about this file.
+     */
+    public BoxFuture<BoxFile.Info> getInfoAsync(final String... fields) {
+        return this.getAPI().submit(new Callable<BoxFile.Info>() {
+            @Override
+            public BoxFile.Info call() {
+                if (fields.length == 0) {
+                    return BoxFile.this.getInfo();
+                }
+                return BoxFile.this.getInfo(fields);
+            }
+        });
+    }
+
     /**
      * Updates the information about this file with any info fields that have been modified locally.
      *
@@ -468,7 +539,53 @@ public class BoxFile extends BoxItem {
         } else {
             request.setFile(fileContent, "");
         }
+        this.sendVersion(request, modified, listener);
+    }
+
+    /**
+     * Uploads a new version of this file from the local file system, replacing the current version. The upload is sent
+     * with an exact Content-Length, and the file is read again from its first byte if the upload is retried.
+     * @param file the file containing the new file contents.
+     */
+    public void uploadVersion(File file) {
+        FileInputStream stream;
+        try {
+            stream = new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            throw new BoxAPIException("Couldn't open the file to upload.", e);
+        }
+
+        try {
+            this.uploadVersion(stream.getChannel(), null, null);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // The file was only read, so there's nothing to lose by ignoring an error while closing it.
+            }
+        }
+    }
 
+    /**
+     * Uploads a new version of this file from a file channel, replacing the current version, while reporting the
+     * progress to a ProgressListener. The whole file is uploaded regardless of the channel's position, the upload is
+     * sent with an exact Content-Length, and the file is read again from its first byte if the upload is retried.
+     * @param fileChannel a channel for reading the new file contents.
+     * @param modified    the date that the new version was modified, or null.
+     * @param listener    a listener for monitoring the upload's progress, or null.
+     */
+    public void uploadVersion(FileChannel fileChannel, Date modified, ProgressListener listener) {
+        URL uploadURL = CONTENT_URL_TEMPLATE.build(this.getAPI().getBaseUploadURL(), this.getID());
+        BoxMultipartRequest request = new BoxMultipartRequest(getAPI(), uploadURL);
+        try {
+            request.setFile(fileChannel, "");
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't read the size of the file to upload.", e);
+        }
+        this.sendVersion(request, modified, listener);
+    }
+
+    private void sendVersion(BoxMultipartRequest request, Date modified, ProgressListener listener) {
         if (modified != null) {
             request.putField("content_modified_at", modified);
         }
@@ -482,6 +599,46 @@ public class BoxFile extends BoxItem {
         response.disconnect();
     }
 
+    /**
+     * Uploads a new version of this file in parts that are uploaded in parallel through an upload session. Large files
+     * are uploaded faster this way, and a network error only affects the part being uploaded.
+     * @param  fileContent a stream containing the new file contents.
+     * @param  fileSize    the size of the new version in bytes.
+     * @return             the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, long fileSize) {
+        return this.uploadLargeFile(fileContent, fileSize, new LargeFileUpload());
+    }
+
+    /**
+     * Uploads a new version of this file in parts that are uploaded in parallel through an upload session, using a
+     * custom number of parallel parts or timeout.
+     * @param  fileContent a stream containing the new file contents.
+     * @param  fileSize    the size of the new version in bytes.
+     * @param  upload      the configuration of the upload.
+     * @return             the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, long fileSize, LargeFileUpload upload) {
+        return upload.uploadVersion(this.getAPI(), this.getID(), fileContent, fileSize, null);
+    }
+
+    /**
+     * Uploads a new version of this file in parts through an upload session, saving the upload's progress to a
+     * checkpoint file. If the upload fails, such as because the process is restarted, it can be finished later with
+     * {@link LargeFileUpload#resume}, which only uploads the parts that are missing. The checkpoint file is deleted
+     * once the upload succeeds.
+     * @param  fileContent    a stream containing the new file contents.
+     * @param  fileSize       the size of the new version in bytes.
+     * @param  upload         the configuration of the upload.
+     * @param  checkpointFile the file to save the upload's progress to.
+     * @return                the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, long fileSize, LargeFileUpload upload,
+        File checkpointFile) {
+
+        return upload.uploadVersion(this.getAPI(), this.getID(), fileContent, fileSize, checkpointFile);
+    }
+
     /**
      * Gets an expiring URL for creating an embedded preview session. The URL will expire after 60 seconds and the
      * preview session will expire after 60 minutes.
@@ -709,6 +866,21 @@ public class BoxFile extends BoxItem {
         return new Metadata(JsonObject.readFrom(response.getJSON()));
     }
 
+    /**
+     * Asynchronously gets the file metadata of specified template type on the connection's async executor.
+     * @param typeName the metadata template type name.
+     * @param scope the metadata scope (global or enterprise).
+     * @return a future that will contain the metadata returned from the server.
+     */
+    public BoxFuture<Metadata> getMetadataAsync(final String typeName, final String scope) {
+        return this.getAPI().submit(new Callable<Metadata>() {
+            @Override
+            public Metadata call() {
+                return BoxFile.this.getMetadata(typeName, scope);
+            }
+        });
+    }
+
     /**
      * Updates the file metadata.
      * @param metadata the new metadata values.
@@ -731,6 +903,20 @@ public class BoxFile extends BoxItem {
         return new Metadata(JsonObject.readFrom(response.getJSON()));
     }
 
+    /**
+     * Asynchronously updates the file metadata on the connection's async executor.
+     * @param metadata the new metadata values.
+     * @return a future that will contain the metadata returned from the server.
+     */
+    public BoxFuture<Metadata> updateMetadataAsync(final Metadata metadata) {
+        return this.getAPI().submit(new Callable<Metadata>() {
+            @Override
+            public Metadata call() {
+                return BoxFile.this.updateMetadata(metadata);
+            }
+        });
+    }
+
     /**
      * Deletes the file properties metadata.
      */
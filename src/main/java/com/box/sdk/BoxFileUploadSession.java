@@ -0,0 +1,325 @@
+package com.box.sdk;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * Represents an upload session, which uploads a large file in parts that are committed together at the end.
+ *
+ * <p>An upload session is created with a fixed part size. Every part except the last one must be exactly that size,
+ * and parts can be uploaded in any order and at the same time. Once every part has been uploaded, the session is
+ * committed with the list of parts and the SHA-1 digest of the whole file, which creates the file or its new version.
+ * Most applications should use {@link BoxFolder#uploadLargeFile} or {@link BoxFile#uploadLargeFile}, which split a
+ * stream into parts and upload them with a {@link LargeFileUpload}.</p>
+ *
+ * <p>Unless otherwise noted, the methods in this class can throw an unchecked {@link BoxAPIException} (unchecked
+ * meaning that the compiler won't force you to handle it) if an error occurs. If you wish to implement custom error
+ * handling for errors related to the Box REST API, you should capture this exception explicitly.</p>
+ */
+@BoxResourceType("upload_session")
+public class BoxFileUploadSession extends BoxResource {
+    private static final URLTemplate UPLOAD_SESSION_URL_TEMPLATE = new URLTemplate("files/upload_sessions/%s");
+    private static final URLTemplate LIST_PARTS_URL_TEMPLATE = new URLTemplate("files/upload_sessions/%s/parts");
+    private static final URLTemplate COMMIT_URL_TEMPLATE = new URLTemplate("files/upload_sessions/%s/commit");
+    private static final URLTemplate CREATE_SESSION_URL_TEMPLATE = new URLTemplate("files/upload_sessions");
+    private static final URLTemplate CREATE_VERSION_SESSION_URL_TEMPLATE = new URLTemplate(
+        "files/%s/upload_sessions");
+
+    /**
+     * The maximum number of parts returned per page when listing the parts of a session.
+     */
+    private static final int LIST_PARTS_LIMIT = 1000;
+
+    /**
+     * The number of times to check whether a commit has finished processing before giving up.
+     */
+    private static final int MAX_COMMIT_ATTEMPTS = 10;
+
+    /**
+     * The amount of time, in seconds, to wait before checking a commit again if the server doesn't say how long.
+     */
+    private static final int DEFAULT_COMMIT_RETRY_AFTER = 1;
+
+    /**
+     * Constructs a BoxFileUploadSession for an upload session with a given ID.
+     * @param api the API connection to be used by the upload session.
+     * @param id  the ID of the upload session.
+     */
+    public BoxFileUploadSession(BoxAPIConnection api, String id) {
+        super(api, id);
+    }
+
+    /**
+     * Creates an upload session for a new file.
+     * @param  api      the API connection to use.
+     * @param  folderID the ID of the folder to upload the file to.
+     * @param  fileName the name of the new file.
+     * @param  fileSize the size of the file in bytes.
+     * @return          info about the created upload session.
+     */
+    public static BoxFileUploadSession.Info createForNewFile(BoxAPIConnection api, String folderID, String fileName,
+        long fileSize) {
+
+        URL url = CREATE_SESSION_URL_TEMPLATE.build(api.getBaseUploadURL());
+        JsonObject body = new JsonObject()
+            .add("folder_id", folderID)
+            .add("file_name", fileName)
+            .add("file_size", fileSize);
+        return create(api, url, body);
+    }
+
+    /**
+     * Creates an upload session for a new version of an existing file.
+     * @param  api      the API connection to use.
+     * @param  fileID   the ID of the file to upload a new version of.
+     * @param  fileSize the size of the new version in bytes.
+     * @return          info about the created upload session.
+     */
+    public static BoxFileUploadSession.Info createForNewVersion(BoxAPIConnection api, String fileID, long fileSize) {
+        URL url = CREATE_VERSION_SESSION_URL_TEMPLATE.build(api.getBaseUploadURL(), fileID);
+        JsonObject body = new JsonObject()
+            .add("file_size", fileSize);
+        return create(api, url, body);
+    }
+
+    private static BoxFileUploadSession.Info create(BoxAPIConnection api, URL url, JsonObject body) {
+        BoxJSONRequest request = new BoxJSONRequest(api, url, "POST");
+        request.setBody(body.toString());
+        BoxJSONResponse response = (BoxJSONResponse) request.send();
+        JsonObject responseJSON = JsonObject.readFrom(response.getJSON());
+        BoxFileUploadSession session = new BoxFileUploadSession(api, responseJSON.get("id").asString());
+        return session.new Info(responseJSON);
+    }
+
+    /**
+     * Gets information about this upload session, such as how many of its parts have been processed.
+     * @return info about this upload session.
+     */
+    public BoxFileUploadSession.Info getInfo() {
+        URL url = UPLOAD_SESSION_URL_TEMPLATE.build(this.getAPI().getBaseUploadURL(), this.getID());
+        BoxAPIRequest request = new BoxAPIRequest(this.getAPI(), url, "GET");
+        BoxJSONResponse response = (BoxJSONResponse) request.send();
+        return new Info(JsonObject.readFrom(response.getJSON()));
+    }
+
+    /**
+     * Uploads a part of the file to this upload session.
+     * @param  data       an array containing the contents of the part.
+     * @param  length     the number of bytes of the array that make up the part.
+     * @param  offset     the offset of the part within the file.
+     * @param  totalSize  the size of the whole file.
+     * @param  sha1Digest the Base64 encoded SHA-1 digest of the part, which the server uses to verify the part.
+     * @return            the uploaded part.
+     */
+    public BoxFileUploadSessionPart uploadPart(byte[] data, int length, long offset, long totalSize,
+        String sha1Digest) {
+
+        URL url = UPLOAD_SESSION_URL_TEMPLATE.build(this.getAPI().getBaseUploadURL(), this.getID());
+        BoxAPIRequest request = new BoxAPIRequest(this.getAPI(), url, "PUT");
+        request.addHeader("Content-Type", "application/octet-stream");
+        request.addHeader("Content-Range", "bytes " + offset + "-" + (offset + length - 1) + "/" + totalSize);
+        request.addHeader("Digest", "sha=" + sha1Digest);
+        request.setBody(new ByteArrayInputStream(data, 0, length), length);
+
+        BoxJSONResponse response = (BoxJSONResponse) request.send();
+        JsonObject responseJSON = JsonObject.readFrom(response.getJSON());
+        return new BoxFileUploadSessionPart(responseJSON.get("part").asObject());
+    }
+
+    /**
+     * Lists the parts that have been uploaded to this upload session.
+     * @return the uploaded parts, ordered by their offset.
+     */
+    public List<BoxFileUploadSessionPart> listParts() {
+        List<BoxFileUploadSessionPart> parts = new ArrayList<BoxFileUploadSessionPart>();
+        long offset = 0;
+        while (true) {
+            QueryStringBuilder builder = new QueryStringBuilder()
+                .appendParam("offset", offset)
+                .appendParam("limit", LIST_PARTS_LIMIT);
+            URL url = LIST_PARTS_URL_TEMPLATE.buildWithQuery(this.getAPI().getBaseUploadURL(), builder.toString(),
+                this.getID());
+            BoxAPIRequest request = new BoxAPIRequest(this.getAPI(), url, "GET");
+            BoxJSONResponse response = (BoxJSONResponse) request.send();
+            JsonObject responseJSON = JsonObject.readFrom(response.getJSON());
+
+            JsonArray entries = responseJSON.get("entries").asArray();
+            for (JsonValue entry : entries) {
+                parts.add(new BoxFileUploadSessionPart(entry.asObject()));
+            }
+
+            offset += entries.size();
+            JsonValue totalCount = responseJSON.get("total_count");
+            if (entries.isEmpty() || totalCount == null || offset >= totalCount.asLong()) {
+                return parts;
+            }
+        }
+    }
+
+    /**
+     * Commits this upload session, which creates the file or its new version from the uploaded parts.
+     * @param  sha1Digest the Base64 encoded SHA-1 digest of the whole file.
+     * @param  parts      the parts that make up the file, ordered by their offset.
+     * @return            info about the uploaded file.
+     */
+    public BoxFile.Info commit(String sha1Digest, List<BoxFileUploadSessionPart> parts) {
+        JsonArray partsJSON = new JsonArray();
+        for (BoxFileUploadSessionPart part : parts) {
+            partsJSON.add(part.toCommitJSON());
+        }
+        String body = new JsonObject().add("parts", partsJSON).toString();
+        URL url = COMMIT_URL_TEMPLATE.build(this.getAPI().getBaseUploadURL(), this.getID());
+
+        for (int attempt = 1; true; attempt++) {
+            BoxJSONRequest request = new BoxJSONRequest(this.getAPI(), url, "POST");
+            request.addHeader("Digest", "sha=" + sha1Digest);
+            request.setBody(body);
+            BoxAPIResponse response = request.send();
+
+            // The server responds with 202 Accepted and no JSON body while it's still assembling the parts.
+            if (response.getResponseCode() != 202) {
+                String json = ((BoxJSONResponse) response).getJSON();
+                JsonObject fileInfoJSON = JsonObject.readFrom(json).get("entries").asArray().get(0).asObject();
+                BoxFile file = new BoxFile(this.getAPI(), fileInfoJSON.get("id").asString());
+                return file.new Info(fileInfoJSON);
+            }
+
+            int retryAfter = DEFAULT_COMMIT_RETRY_AFTER;
+            String retryAfterHeader = response.getHeaderField("Retry-After");
+            if (retryAfterHeader != null) {
+                try {
+                    retryAfter = Integer.parseInt(retryAfterHeader.trim());
+                } catch (NumberFormatException e) {
+                    retryAfter = DEFAULT_COMMIT_RETRY_AFTER;
+                }
+            }
+            response.disconnect();
+
+            if (attempt >= MAX_COMMIT_ATTEMPTS) {
+                throw new BoxAPIException("The upload session's parts weren't processed in time to commit it.");
+            }
+
+            try {
+                Thread.sleep(retryAfter * 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BoxAPIException("Interrupted while waiting to commit an upload session.", e);
+            }
+        }
+    }
+
+    /**
+     * Aborts this upload session and discards the parts that have been uploaded to it.
+     */
+    public void abort() {
+        URL url = UPLOAD_SESSION_URL_TEMPLATE.build(this.getAPI().getBaseUploadURL(), this.getID());
+        BoxAPIRequest request = new BoxAPIRequest(this.getAPI(), url, "DELETE");
+        BoxAPIResponse response = request.send();
+        response.disconnect();
+    }
+
+    /**
+     * Contains information about an upload session.
+     */
+    public class Info extends BoxResource.Info {
+        private int partSize;
+        private int totalParts;
+        private int numPartsProcessed;
+        private Date sessionExpiresAt;
+
+        /**
+         * Constructs an empty Info object.
+         */
+        public Info() {
+            super();
+        }
+
+        /**
+         * Constructs an Info object by parsing information from a JSON string.
+         * @param  json the JSON string to parse.
+         */
+        public Info(String json) {
+            super(json);
+        }
+
+        /**
+         * Constructs an Info object using an already parsed JSON object.
+         * @param  jsonObject the parsed JSON object.
+         */
+        Info(JsonObject jsonObject) {
+            super(jsonObject);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public BoxFileUploadSession getResource() {
+            return BoxFileUploadSession.this;
+        }
+
+        /**
+         * Gets the size of every part except the last one.
+         * @return the part size in bytes.
+         */
+        public int getPartSize() {
+            return this.partSize;
+        }
+
+        /**
+         * Gets the number of parts that the file must be split into.
+         * @return the total number of parts.
+         */
+        public int getTotalParts() {
+            return this.totalParts;
+        }
+
+        /**
+         * Gets the number of parts that have been uploaded and processed by the server.
+         * @return the number of processed parts.
+         */
+        public int getNumPartsProcessed() {
+            return this.numPartsProcessed;
+        }
+
+        /**
+         * Gets the time after which the upload session can no longer be used.
+         * @return the time the upload session expires.
+         */
+        public Date getSessionExpiresAt() {
+            return this.sessionExpiresAt;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void parseJSONMember(JsonObject.Member member) {
+            super.parseJSONMember(member);
+
+            String memberName = member.getName();
+            JsonValue value = member.getValue();
+            try {
+                if (memberName.equals("part_size")) {
+                    this.partSize = value.asInt();
+                } else if (memberName.equals("total_parts")) {
+                    this.totalParts = value.asInt();
+                } else if (memberName.equals("num_parts_processed")) {
+                    this.numPartsProcessed = value.asInt();
+                } else if (memberName.equals("session_expires_at")) {
+                    this.sessionExpiresAt = BoxDateFormat.parse(value.asString());
+                }
+            } catch (ParseException e) {
+                assert false : "A ParseException indicates a bug in the SDK.";
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.box.sdk;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * Represents a part of a file that has been uploaded to an upload session.
+ */
+public class BoxFileUploadSessionPart extends BoxJSONObject {
+    private String partID;
+    private long offset;
+    private long size;
+    private String sha1;
+
+    /**
+     * Constructs an empty BoxFileUploadSessionPart.
+     */
+    public BoxFileUploadSessionPart() { }
+
+    /**
+     * Constructs a BoxFileUploadSessionPart from a JSON string.
+     * @param  json the JSON encoded part.
+     */
+    public BoxFileUploadSessionPart(String json) {
+        super(json);
+    }
+
+    BoxFileUploadSessionPart(JsonObject jsonObject) {
+        super(jsonObject);
+    }
+
+    /**
+     * Gets the ID of this part.
+     * @return the ID of this part.
+     */
+    public String getPartID() {
+        return this.partID;
+    }
+
+    /**
+     * Gets the offset of this part within the file.
+     * @return the offset of this part in bytes.
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Gets the size of this part.
+     * @return the size of this part in bytes.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the SHA-1 hash of this part's contents.
+     * @return the hex encoded SHA-1 hash of this part.
+     */
+    public String getSha1() {
+        return this.sha1;
+    }
+
+    /**
+     * Gets the JSON that describes this part when an upload session is committed.
+     * @return the JSON describing this part.
+     */
+    JsonObject toCommitJSON() {
+        JsonObject partJSON = new JsonObject()
+            .add("part_id", this.partID)
+            .add("offset", this.offset)
+            .add("size", this.size);
+        if (this.sha1 != null) {
+            partJSON.add("sha1", this.sha1);
+        }
+        return partJSON;
+    }
+
+    @Override
+    void parseJSONMember(JsonObject.Member member) {
+        JsonValue value = member.getValue();
+        String memberName = member.getName();
+        if (memberName.equals("part_id")) {
+            this.partID = value.asString();
+        } else if (memberName.equals("offset")) {
+            this.offset = value.asLong();
+        } else if (memberName.equals("size")) {
+            this.size = value.asLong();
+        } else if (memberName.equals("sha1")) {
+            this.sha1 = value.asString();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.box.sdk;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
@@ -7,6 +11,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
 
 import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
@@ -175,6 +180,23 @@ public class BoxFolder extends BoxItem implements Iterable<BoxItem.Info> {
         return new Info(response.getJSON());
     }
 
+    /**
+     * Asynchronously gets information about this folder on the connection's async executor.
+     * @param  fields the fields to retrieve, or none to retrieve the default fields.
+     * @return        a future that will contain info about this folder.
+     */
+    public BoxFuture<BoxFolder.Info> getInfoAsync(final String... fields) {
+        return this.getAPI().submit(new Callable<BoxFolder.Info>() {
+            @Override
+            public BoxFolder.Info call() {
+                if (fields.length == 0) {
+                    return BoxFolder.this.getInfo();
+                }
+                return BoxFolder.this.getInfo(fields);
+            }
+        });
+    }
+
     /**
      * Updates the information about this folder with any info fields that have been modified locally.
      * @param info the updated info.
@@ -343,6 +365,49 @@ public class BoxFolder extends BoxItem implements Iterable<BoxItem.Info> {
         return this.uploadFile(uploadInfo);
     }
 
+    /**
+     * Uploads a file from the local file system to this folder. The upload is sent with an exact Content-Length, and
+     * the file is read again from its first byte if the upload is retried.
+     * @param  file the file to upload.
+     * @param  name the name to give the uploaded file.
+     * @return      the uploaded file's info.
+     */
+    public BoxFile.Info uploadFile(File file, String name) {
+        return this.uploadFile(file, name, null);
+    }
+
+    /**
+     * Uploads a file from the local file system to this folder while reporting the progress to a ProgressListener.
+     * The upload is sent with an exact Content-Length, and the file is read again from its first byte if the upload is
+     * retried.
+     * @param  file     the file to upload.
+     * @param  name     the name to give the uploaded file.
+     * @param  listener a listener for monitoring the upload's progress, or null.
+     * @return          the uploaded file's info.
+     */
+    public BoxFile.Info uploadFile(File file, String name, ProgressListener listener) {
+        FileInputStream stream;
+        try {
+            stream = new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            throw new BoxAPIException("Couldn't open the file to upload.", e);
+        }
+
+        try {
+            FileUploadParams uploadParams = new FileUploadParams()
+                .setFileChannel(stream.getChannel())
+                .setName(name)
+                .setProgressListener(listener);
+            return this.uploadFile(uploadParams);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // The file was only read, so there's nothing to lose by ignoring an error while closing it.
+            }
+        }
+    }
+
     /**
      * Uploads a new file to this folder with custom upload parameters.
      * @param  uploadParams the custom upload parameters.
@@ -368,11 +433,18 @@ public class BoxFolder extends BoxItem implements Iterable<BoxItem.Info> {
 
         request.putField("attributes", fieldJSON.toString());
 
-        if (uploadParams.getSize() > 0) {
+        if (uploadParams.getFileChannel() != null) {
+            try {
+                request.setFile(uploadParams.getFileChannel(), uploadParams.getName());
+            } catch (IOException e) {
+                throw new BoxAPIException("Couldn't read the size of the file to upload.", e);
+            }
+        } else if (uploadParams.getSize() > 0) {
             request.setFile(uploadParams.getContent(), uploadParams.getName(), uploadParams.getSize());
         } else {
             request.setFile(uploadParams.getContent(), uploadParams.getName());
         }
+        request.setComputeSha1(uploadParams.getVerifySha1());
 
         BoxJSONResponse response;
         if (uploadParams.getProgressListener() == null) {
@@ -386,7 +458,71 @@ public class BoxFolder extends BoxItem implements Iterable<BoxItem.Info> {
         String uploadedFileID = fileInfoJSON.get("id").asString();
 
         BoxFile uploadedFile = new BoxFile(getAPI(), uploadedFileID);
-        return uploadedFile.new Info(fileInfoJSON);
+        BoxFile.Info uploadedFileInfo = uploadedFile.new Info(fileInfoJSON);
+        if (uploadParams.getVerifySha1() && uploadedFileInfo.getSha1() != null
+            && !uploadedFileInfo.getSha1().equalsIgnoreCase(request.getSha1())) {
+            throw new BoxAPIException("The SHA-1 of the uploaded file " + uploadedFileID
+                + " doesn't match the SHA-1 of the content that was sent.");
+        }
+        return uploadedFileInfo;
+    }
+
+    /**
+     * Asynchronously uploads a new file to this folder with custom upload parameters on the connection's async
+     * executor. The content stream must not be used by anything else until the upload completes.
+     * @param  uploadParams the custom upload parameters.
+     * @return              a future that will contain the uploaded file's info.
+     */
+    public BoxFuture<BoxFile.Info> uploadFileAsync(final FileUploadParams uploadParams) {
+        return this.getAPI().submit(new Callable<BoxFile.Info>() {
+            @Override
+            public BoxFile.Info call() {
+                return BoxFolder.this.uploadFile(uploadParams);
+            }
+        });
+    }
+
+    /**
+     * Uploads a large file to this folder in parts that are uploaded in parallel through an upload session. Large files
+     * are uploaded faster this way, and a network error only affects the part being uploaded.
+     * @param  fileContent a stream containing the contents of the file to upload.
+     * @param  name        the name to give the uploaded file.
+     * @param  fileSize    the size of the file in bytes.
+     * @return             the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, String name, long fileSize) {
+        return this.uploadLargeFile(fileContent, name, fileSize, new LargeFileUpload());
+    }
+
+    /**
+     * Uploads a large file to this folder in parts that are uploaded in parallel through an upload session, using a
+     * custom number of parallel parts or timeout.
+     * @param  fileContent a stream containing the contents of the file to upload.
+     * @param  name        the name to give the uploaded file.
+     * @param  fileSize    the size of the file in bytes.
+     * @param  upload      the configuration of the upload.
+     * @return             the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, String name, long fileSize, LargeFileUpload upload) {
+        return upload.upload(this.getAPI(), this.getID(), fileContent, name, fileSize, null);
+    }
+
+    /**
+     * Uploads a large file to this folder in parts through an upload session, saving the upload's progress to a
+     * checkpoint file. If the upload fails, such as because the process is restarted, it can be finished later with
+     * {@link LargeFileUpload#resume}, which only uploads the parts that are missing. The checkpoint file is deleted
+     * once the upload succeeds.
+     * @param  fileContent    a stream containing the contents of the file to upload.
+     * @param  name           the name to give the uploaded file.
+     * @param  fileSize       the size of the file in bytes.
+     * @param  upload         the configuration of the upload.
+     * @param  checkpointFile the file to save the upload's progress to.
+     * @return                the uploaded file's info.
+     */
+    public BoxFile.Info uploadLargeFile(InputStream fileContent, String name, long fileSize, LargeFileUpload upload,
+        File checkpointFile) {
+
+        return upload.upload(this.getAPI(), this.getID(), fileContent, name, fileSize, checkpointFile);
     }
 
     /**
@@ -509,6 +645,24 @@ public class BoxFolder extends BoxItem implements Iterable<BoxItem.Info> {
         return children;
     }
 
+    /**
+     * Asynchronously retrieves a specific range of child items in this folder on the connection's async executor.
+     * @param  offset the index of the first child item to retrieve.
+     * @param  limit  the maximum number of children to retrieve after the offset.
+     * @param  fields the fields to retrieve.
+     * @return        a future that will contain the specified range of child items.
+     */
+    public BoxFuture<PartialCollection<BoxItem.Info>> getChildrenRangeAsync(final long offset, final long limit,
+        final String... fields) {
+
+        return this.getAPI().submit(new Callable<PartialCollection<BoxItem.Info>>() {
+            @Override
+            public PartialCollection<BoxItem.Info> call() {
+                return BoxFolder.this.getChildrenRange(offset, limit, fields);
+            }
+        });
+    }
+
     /**
      * Returns an iterator over the items in this folder.
      * @return an iterator over the items in this folder.
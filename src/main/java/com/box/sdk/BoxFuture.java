@@ -0,0 +1,123 @@
+package com.box.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The pending result of an asynchronous request to the Box API.
+ *
+ * <p>A BoxFuture is returned by {@link BoxAPIRequest#sendAsync} and by the {@code Async} variants of resource methods
+ * such as {@link BoxFile#getInfoAsync}. In addition to the standard {@link java.util.concurrent.Future} methods, it
+ * supports registering callbacks that are notified when the result is available, and {@link #join} which waits for
+ * the result without wrapping errors in an {@link ExecutionException}.</p>
+ *
+ * <pre>BoxFuture&lt;BoxFile.Info&gt; future = file.getInfoAsync("name", "size");
+ *future.addCallback(new BoxFutureCallback&lt;BoxFile.Info&gt;() {
+ *    public void onSuccess(BoxFile.Info info) {
+ *        System.out.println(info.getName());
+ *    }
+ *
+ *    public void onFailure(Throwable error) {
+ *        error.printStackTrace();
+ *    }
+ *});</pre>
+ *
+ * @param <V> the type of the result.
+ */
+public class BoxFuture<V> extends FutureTask<V> {
+    private final List<BoxFutureCallback<? super V>> callbacks;
+
+    private boolean completed;
+
+    /**
+     * Constructs a BoxFuture that will run a task once it's executed.
+     * @param task the task that produces the result.
+     */
+    public BoxFuture(Callable<V> task) {
+        super(task);
+        this.callbacks = new ArrayList<BoxFutureCallback<? super V>>();
+    }
+
+    /**
+     * Registers a callback that will be notified when the result is available. If the result is already available,
+     * the callback is notified immediately on the calling thread.
+     * @param callback the callback to notify.
+     */
+    public void addCallback(BoxFutureCallback<? super V> callback) {
+        synchronized (this.callbacks) {
+            if (!this.completed) {
+                this.callbacks.add(callback);
+                return;
+            }
+        }
+
+        this.notifyCallback(callback);
+    }
+
+    /**
+     * Waits for the result and returns it. Unlike {@link #get}, errors thrown by the request (such as a {@link
+     * BoxAPIException}) are rethrown as they are instead of being wrapped in an {@link ExecutionException}.
+     * @return the result.
+     * @throws BoxAPIException if the request failed or if the waiting thread was interrupted.
+     * @throws CancellationException if the request was cancelled.
+     */
+    public V join() {
+        try {
+            return this.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for an asynchronous request to complete.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @Override
+    protected void done() {
+        List<BoxFutureCallback<? super V>> pendingCallbacks;
+        synchronized (this.callbacks) {
+            this.completed = true;
+            pendingCallbacks = new ArrayList<BoxFutureCallback<? super V>>(this.callbacks);
+            this.callbacks.clear();
+        }
+
+        for (BoxFutureCallback<? super V> callback : pendingCallbacks) {
+            this.notifyCallback(callback);
+        }
+    }
+
+    private void notifyCallback(BoxFutureCallback<? super V> callback) {
+        V result;
+        try {
+            result = this.get();
+        } catch (InterruptedException e) {
+            // The task is already done, so get() can't block.
+            Thread.currentThread().interrupt();
+            callback.onFailure(e);
+            return;
+        } catch (CancellationException e) {
+            callback.onFailure(e);
+            return;
+        } catch (ExecutionException e) {
+            callback.onFailure(e.getCause());
+            return;
+        }
+
+        callback.onSuccess(result);
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return new BoxAPIException("An asynchronous request failed.", cause);
+    }
+}
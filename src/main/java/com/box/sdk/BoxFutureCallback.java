@@ -0,0 +1,25 @@
+package com.box.sdk;
+
+/**
+ * The interface for receiving the result of an asynchronous operation started with one of the SDK's {@code Async}
+ * methods.
+ *
+ * <p>Callbacks are invoked on the thread that completed the operation, or on the thread that registered the callback if
+ * the operation had already completed. They should therefore return quickly and avoid blocking.</p>
+ *
+ * @param <V> the type of the operation's result.
+ */
+public interface BoxFutureCallback<V> {
+    /**
+     * Invoked when the operation completes successfully.
+     * @param result the result of the operation.
+     */
+    void onSuccess(V result);
+
+    /**
+     * Invoked when the operation fails or is cancelled.
+     * @param error the error thrown by the operation. This is usually a {@link BoxAPIException}, or a {@link
+     *              java.util.concurrent.CancellationException} if the operation was cancelled.
+     */
+    void onFailure(Throwable error);
+}
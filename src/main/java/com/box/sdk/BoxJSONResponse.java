@@ -30,6 +30,16 @@ public class BoxJSONResponse extends BoxAPIResponse {
         super(connection);
     }
 
+    /**
+     * Constructs a BoxJSONResponse that holds a JSON body that has already been read.
+     * @param responseCode the response code returned by the API.
+     * @param json         the body of the response.
+     */
+    BoxJSONResponse(int responseCode, String json) {
+        super(responseCode, json.getBytes(StandardCharsets.UTF_8));
+        this.json = json;
+    }
+
     /**
      * Gets the body of the response as a JSON string. When this method is called, the response's body will be read and
      * the response will be disconnected, meaning that the stream returned by {@link #getBody} can no longer be used.
@@ -1,11 +1,15 @@
 package com.box.sdk;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,6 +23,16 @@ import java.util.logging.Logger;
  * request type cannot be set directly. Instead, it can be modified by adding multipart fields and setting file
  * contents. The body of multipart requests will not be logged since they are likely to contain binary data.</p>
  *
+ * <p>When the file contents are set with a {@link FileChannel}, the exact length of the body is known ahead of time, so
+ * the body is sent with a Content-Length instead of in chunks, unless it's larger than 2 GB, which HttpURLConnection
+ * can't send with a Content-Length before Java 7. The file is read with positional reads, which leave the channel's
+ * position alone, so the request can be retried without the file having to be reset or reopened.</p>
+ *
+ * <p>When {@link #setComputeSha1} is enabled, the SHA-1 of the file contents is computed as they're written to the
+ * connection. A file channel can be read again, so its SHA-1 is computed before the body is sent and is sent in the
+ * Content-MD5 header, which Box uses to reject the upload if the contents it receives don't match. A stream can only be
+ * read once, so its SHA-1 is only known after the body is sent and can be compared with the SHA-1 that Box reports
+ * for the uploaded file.</p>
  */
 public class BoxMultipartRequest extends BoxAPIRequest {
     private static final Logger LOGGER = Logger.getLogger(BoxMultipartRequest.class.getName());
@@ -29,10 +43,13 @@ public class BoxMultipartRequest extends BoxAPIRequest {
 
     private OutputStream outputStream;
     private InputStream inputStream;
+    private FileChannel fileChannel;
     private String filename;
     private long fileSize;
     private Map<String, String> fields;
     private boolean firstBoundary;
+    private boolean computeSha1;
+    private String sha1;
 
     /**
      * Constructs an authenticated BoxMultipartRequest using a provided BoxAPIConnection.
@@ -73,6 +90,7 @@ public class BoxMultipartRequest extends BoxAPIRequest {
      */
     public void setFile(InputStream inputStream, String filename) {
         this.inputStream = inputStream;
+        this.fileChannel = null;
         this.filename = filename;
     }
 
@@ -87,6 +105,37 @@ public class BoxMultipartRequest extends BoxAPIRequest {
         this.fileSize = fileSize;
     }
 
+    /**
+     * Sets the file contents of this request to the contents of a file channel, from its first byte to its end. The
+     * channel must not be closed until the request has been sent.
+     * @param fileChannel a channel for reading the file contents.
+     * @param filename    the name of the file.
+     * @throws IOException if the size of the file couldn't be read.
+     */
+    public void setFile(FileChannel fileChannel, String filename) throws IOException {
+        this.fileChannel = fileChannel;
+        this.inputStream = null;
+        this.filename = filename;
+        this.fileSize = fileChannel.size();
+    }
+
+    /**
+     * Sets whether or not the SHA-1 of the file contents is computed while they're sent. If the contents are a file
+     * channel, the SHA-1 is also sent in the Content-MD5 header so that Box can verify the upload.
+     * @param computeSha1 whether or not the SHA-1 of the file contents is computed.
+     */
+    public void setComputeSha1(boolean computeSha1) {
+        this.computeSha1 = computeSha1;
+    }
+
+    /**
+     * Gets the SHA-1 of the file contents that were sent, if {@link #setComputeSha1} is enabled.
+     * @return the hex encoded SHA-1 of the file contents, or null if it wasn't computed.
+     */
+    public String getSha1() {
+        return this.sha1;
+    }
+
     /**
      * This method is unsupported in BoxMultipartRequest. Instead, the body should be modified via the {@code putField}
      * and {@code setFile} methods.
@@ -112,10 +161,10 @@ public class BoxMultipartRequest extends BoxAPIRequest {
     @Override
     protected void writeBody(HttpURLConnection connection, ProgressListener listener) {
         try {
-            connection.setChunkedStreamingMode(0);
-            connection.setDoOutput(true);
-            this.outputStream = connection.getOutputStream();
-
+            // The parts around the file contents are written to memory first so that the length of the body is known
+            // before the connection's output stream is opened.
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            this.outputStream = head;
             for (Map.Entry<String, String> entry : this.fields.entrySet()) {
                 this.writePartHeader(new String[][] {{"name", entry.getKey()}});
                 this.writeOutput(entry.getValue());
@@ -124,35 +173,84 @@ public class BoxMultipartRequest extends BoxAPIRequest {
             this.writePartHeader(new String[][] {{"name", "file"}, {"filename", this.filename}},
                 "application/octet-stream");
 
-            OutputStream fileContentsOutputStream = this.outputStream;
-            if (listener != null) {
-                fileContentsOutputStream = new ProgressOutputStream(this.outputStream, listener, this.fileSize);
-            }
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int n = this.inputStream.read(buffer);
-            while (n != -1) {
-                fileContentsOutputStream.write(buffer, 0, n);
-                n = this.inputStream.read(buffer);
-            }
-
             if (LOGGER.isLoggable(Level.FINE)) {
                 this.loggedRequest.append("<File Contents Omitted>");
             }
 
+            ByteArrayOutputStream tail = new ByteArrayOutputStream();
+            this.outputStream = tail;
             this.writeBoundary();
             this.writeOutput("--");
+
+            long channelSize = 0;
+            long contentLength = -1;
+            if (this.fileChannel != null) {
+                channelSize = this.fileChannel.size();
+                if (this.computeSha1) {
+                    // The header has to be sent before the body, so the file is hashed ahead of time. Retries reuse
+                    // the SHA-1 instead of hashing the file again.
+                    if (this.sha1 == null) {
+                        this.sha1 = FileTransfers.sha1(this.fileChannel, channelSize);
+                    }
+                    connection.setRequestProperty("Content-MD5", this.sha1);
+                }
+                contentLength = head.size() + channelSize + tail.size();
+            }
+            if (contentLength >= 0 && contentLength <= Integer.MAX_VALUE) {
+                connection.setFixedLengthStreamingMode((int) contentLength);
+            } else {
+                connection.setChunkedStreamingMode(0);
+            }
+            connection.setDoOutput(true);
+            OutputStream output = connection.getOutputStream();
+            head.writeTo(output);
+
+            OutputStream fileContentsOutputStream = output;
+            if (listener != null) {
+                fileContentsOutputStream = new ProgressOutputStream(output, listener, this.fileSize);
+            }
+            if (this.fileChannel == null) {
+                if (this.computeSha1) {
+                    MessageDigest digest = FileTransfers.createSHA1Digest();
+                    this.writeStream(new DigestOutputStream(fileContentsOutputStream, digest));
+                    this.sha1 = FileTransfers.toHexString(digest.digest());
+                } else {
+                    this.writeStream(fileContentsOutputStream);
+                }
+            } else {
+                FileTransfers.copy(this.fileChannel, channelSize, fileContentsOutputStream);
+            }
+
+            tail.writeTo(output);
         } catch (IOException e) {
             throw new BoxAPIException("Couldn't connect to the Box API due to a network error.", e);
         }
     }
 
+    @Override
+    long getBodySize() {
+        // The length of the body isn't known until its multipart headers are written.
+        return -1;
+    }
+
     @Override
     protected void resetBody() throws IOException {
         this.firstBoundary = true;
-        this.inputStream.reset();
+        if (this.inputStream != null) {
+            this.inputStream.reset();
+        }
         this.loggedRequest.setLength(0);
     }
 
+    private void writeStream(OutputStream output) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n = this.inputStream.read(buffer);
+        while (n != -1) {
+            output.write(buffer, 0, n);
+            n = this.inputStream.read(buffer);
+        }
+    }
+
     @Override
     protected String bodyToString() {
         return this.loggedRequest.toString();
@@ -57,6 +57,7 @@ public abstract class BoxResource {
         result.put(getResourceType(BoxRetentionPolicy.class), BoxRetentionPolicy.class);
         result.put(getResourceType(BoxRetentionPolicyAssignment.class), BoxRetentionPolicyAssignment.class);
         result.put(getResourceType(BoxFileVersionRetention.class), BoxFileVersionRetention.class);
+        result.put(getResourceType(BoxFileUploadSession.class), BoxFileUploadSession.class);
 
         return Collections.unmodifiableMap(result);
     }
@@ -38,6 +38,10 @@ public class BoxTransactionalAPIConnection extends BoxAPIConnection {
 
     /**
      * Request a scoped transactional token for a particular resource.
+     *
+     * <p>Every call exchanges the access token again. Use a {@link TransactionalTokenCache} to reuse exchanged tokens.
+     * </p>
+     *
      * @param accessToken application access token.
      * @param scope scope of transactional token.
      * @param resource resource transactional token has access to.
@@ -45,19 +49,33 @@ public class BoxTransactionalAPIConnection extends BoxAPIConnection {
      */
     public static BoxAPIConnection getTransactionConnection(String accessToken, String scope, String resource) {
         BoxAPIConnection apiConnection = new BoxAPIConnection(accessToken);
+        return BoxTransactionalAPIConnection.exchangeToken(apiConnection, apiConnection.getTokenURL(), scope,
+            resource);
+    }
+
+    /**
+     * Exchanges the access token of a connection for a scoped transactional token.
+     * @param  apiConnection a connection that authenticates with the application access token.
+     * @param  tokenURL      the URL used for exchanging the token.
+     * @param  scope         scope of transactional token.
+     * @param  resource      resource transactional token has access to, or null.
+     * @return               a connection that authenticates with the transactional token.
+     */
+    static BoxTransactionalAPIConnection exchangeToken(BoxAPIConnection apiConnection, String tokenURL, String scope,
+        String resource) {
 
         URL url;
         try {
-            url = new URL(apiConnection.getTokenURL());
+            url = new URL(tokenURL);
         } catch (MalformedURLException e) {
-            assert false : "An invalid token URL indicates a bug in the SDK.";
-            throw new RuntimeException("An invalid token URL indicates a bug in the SDK.", e);
+            throw new BoxAPIException("The token URL is invalid.", e);
         }
 
         String urlParameters;
         try {
             urlParameters = String.format("grant_type=%s&subject_token=%s&subject_token_type=%s&scope=%s", GRANT_TYPE,
-                    URLEncoder.encode(accessToken, "UTF-8"), SUBJECT_TOKEN_TYPE, URLEncoder.encode(scope, "UTF-8"));
+                    URLEncoder.encode(apiConnection.getAccessToken(), "UTF-8"), SUBJECT_TOKEN_TYPE,
+                    URLEncoder.encode(scope, "UTF-8"));
 
             if (resource != null) {
                 urlParameters += "&resource=" + URLEncoder.encode(resource, "UTF-8");
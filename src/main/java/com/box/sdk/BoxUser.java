@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
@@ -245,6 +246,20 @@ public class BoxUser extends BoxCollaborator {
         return new Info(jsonObject);
     }
 
+    /**
+     * Asynchronously gets information about this user on the connection's async executor.
+     * @param  fields the optional fields to retrieve.
+     * @return        a future that will contain info about this user.
+     */
+    public BoxFuture<BoxUser.Info> getInfoAsync(final String... fields) {
+        return this.getAPI().submit(new Callable<BoxUser.Info>() {
+            @Override
+            public BoxUser.Info call() {
+                return BoxUser.this.getInfo(fields);
+            }
+        });
+    }
+
     /**
      * Gets information about all of the group memberships for this user.
      *
@@ -0,0 +1,104 @@
+package com.box.sdk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link InputStream} that decodes an HTTP response body sent using chunked transfer encoding.
+ *
+ * <p>The stream reaches its end after the final zero-length chunk and its trailers have been read, leaving the
+ * underlying stream positioned at the start of the next response. Closing this stream doesn't close the underlying
+ * stream.</p>
+ */
+class ChunkedInputStream extends InputStream {
+    private final InputStream stream;
+
+    private long chunkRemaining;
+    private boolean finished;
+
+    public ChunkedInputStream(InputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.ensureChunk()) {
+            return -1;
+        }
+
+        int b = this.stream.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of chunked response body.");
+        }
+        this.chunkRemaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!this.ensureChunk()) {
+            return -1;
+        }
+
+        int n = this.stream.read(b, off, (int) Math.min(len, this.chunkRemaining));
+        if (n == -1) {
+            throw new EOFException("Unexpected end of chunked response body.");
+        }
+        this.chunkRemaining -= n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (this.finished) {
+            return 0;
+        }
+        return (int) Math.min(this.stream.available(), this.chunkRemaining);
+    }
+
+    @Override
+    public void close() {
+        // The underlying stream belongs to a socket that may be reused.
+    }
+
+    private boolean ensureChunk() throws IOException {
+        if (this.finished) {
+            return false;
+        }
+        if (this.chunkRemaining > 0) {
+            return true;
+        }
+
+        String line = HttpLineReader.readLine(this.stream);
+        if (line.length() == 0) {
+            // This is the CRLF that terminates the previous chunk's data.
+            line = HttpLineReader.readLine(this.stream);
+        }
+
+        int extension = line.indexOf(';');
+        if (extension != -1) {
+            line = line.substring(0, extension);
+        }
+
+        try {
+            this.chunkRemaining = Long.parseLong(line.trim(), 16);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid chunk size in response body: " + line);
+        }
+
+        if (this.chunkRemaining == 0) {
+            // Skip any trailers up to the empty line that ends the body.
+            while (HttpLineReader.readLine(this.stream).length() != 0) {
+                continue;
+            }
+            this.finished = true;
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link OutputStream} that writes an HTTP request body using chunked transfer encoding.
+ *
+ * <p>Closing this stream writes the final zero-length chunk but leaves the underlying stream open so that the socket
+ * can be reused.</p>
+ */
+class ChunkedOutputStream extends OutputStream {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private final OutputStream stream;
+    private final byte[] buffer;
+
+    private int count;
+    private boolean closed;
+
+    public ChunkedOutputStream(OutputStream stream, int chunkSize) {
+        this.stream = stream;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+        if (this.count == this.buffer.length) {
+            this.writeChunk();
+        }
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (this.count == this.buffer.length) {
+                this.writeChunk();
+            }
+
+            int n = Math.min(remaining, this.buffer.length - this.count);
+            System.arraycopy(b, offset, this.buffer, this.count, n);
+            this.count += n;
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.ensureOpen();
+        this.writeChunk();
+        this.stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.writeChunk();
+        this.stream.write(LAST_CHUNK);
+        this.stream.flush();
+        this.closed = true;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    private void writeChunk() throws IOException {
+        if (this.count == 0) {
+            return;
+        }
+
+        this.stream.write(Integer.toHexString(this.count).getBytes(StandardCharsets.ISO_8859_1));
+        this.stream.write(CRLF);
+        this.stream.write(this.buffer, 0, this.count);
+        this.stream.write(CRLF);
+        this.count = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Cannot write to a chunked stream after it has been closed.");
+        }
+    }
+}
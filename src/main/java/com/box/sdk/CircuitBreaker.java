@@ -0,0 +1,331 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stops sending requests to a Box endpoint that keeps failing, so that requests fail fast instead of waiting for
+ * timeouts or streaming large bodies to a server that can't accept them.
+ *
+ * <p>A circuit breaker keeps a separate circuit for each host and endpoint family, such as "upload.box.com/files" or
+ * "api.box.com/folders". A circuit starts {@link State#CLOSED closed}, letting every request through. After a number
+ * of consecutive failures, which are network errors and 5xx responses, it {@link State#OPEN opens} and every request
+ * to the endpoint fails immediately with a {@link BoxAPIException}. Callers can catch the exception in order to divert
+ * the work elsewhere or try again later.</p>
+ *
+ * <p>Once the circuit has been open for the open duration, it becomes {@link State#HALF_OPEN half-open} and lets a
+ * single probe through. If the next request has a small body, that request is the probe. Otherwise, such as for file
+ * uploads, the circuit breaker first probes the endpoint with a cheap, unauthenticated OPTIONS request so that a large
+ * body isn't streamed to an endpoint that may still be failing. Any response other than a 5xx error closes the
+ * circuit, and a failed probe opens it again.</p>
+ *
+ * <pre>CircuitBreaker circuitBreaker = new CircuitBreaker();
+ *circuitBreaker.addListener(new CircuitBreakerListener() {
+ *    public void onStateChange(String circuit, CircuitBreaker.State oldState, CircuitBreaker.State newState) {
+ *        System.out.println(circuit + " is now " + newState);
+ *    }
+ *});
+ *api.setCircuitBreaker(circuitBreaker);</pre>
+ */
+public class CircuitBreaker {
+    /**
+     * The default number of consecutive failures after which a circuit opens.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default amount of time, in milliseconds, that a circuit stays open before a probe is let through.
+     */
+    public static final long DEFAULT_OPEN_DURATION = 30000;
+
+    /**
+     * The default maximum size, in bytes, of the body of a request that can be used as a probe.
+     */
+    public static final long DEFAULT_MAX_PROBE_BODY_SIZE = 65536;
+
+    private final int failureThreshold;
+    private final long openDuration;
+    private final Time time;
+    private final ConcurrentMap<String, Circuit> circuits;
+    private final List<CircuitBreakerListener> listeners;
+
+    private volatile long maxProbeBodySize;
+
+    /**
+     * The state of a circuit.
+     */
+    public enum State {
+        /**
+         * Requests are sent normally.
+         */
+        CLOSED,
+
+        /**
+         * Requests fail immediately without being sent.
+         */
+        OPEN,
+
+        /**
+         * A single probe is sent to decide whether the circuit should close or open again.
+         */
+        HALF_OPEN;
+    }
+
+    /**
+     * Constructs a CircuitBreaker with the default failure threshold and open duration.
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    /**
+     * Constructs a CircuitBreaker.
+     * @param failureThreshold the number of consecutive failures after which a circuit opens.
+     * @param openDuration     the amount of time, in milliseconds, that a circuit stays open before a probe is let
+     *                         through.
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration) {
+        this(failureThreshold, openDuration, new Time());
+    }
+
+    CircuitBreaker(int failureThreshold, long openDuration, Time time) {
+        if (failureThreshold < 1 || openDuration < 0) {
+            throw new IllegalArgumentException("The failure threshold must be at least 1 and the open duration can't "
+                + "be negative.");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.time = time;
+        this.circuits = new ConcurrentHashMap<String, Circuit>();
+        this.listeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+        this.maxProbeBodySize = DEFAULT_MAX_PROBE_BODY_SIZE;
+    }
+
+    /**
+     * Adds a listener that's notified whenever a circuit changes state.
+     * @param listener the listener to add.
+     */
+    public void addListener(CircuitBreakerListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener the listener to remove.
+     */
+    public void removeListener(CircuitBreakerListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Gets the state of the circuit that requests to a URL go through.
+     * @param  url the URL of a request.
+     * @return     the state of the URL's circuit.
+     */
+    public State getState(URL url) {
+        Circuit circuit = this.circuits.get(this.getCircuitKey(url));
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * Gets the maximum size of the body of a request that can be used as a probe.
+     * @return the maximum probe body size in bytes.
+     */
+    public long getMaxProbeBodySize() {
+        return this.maxProbeBodySize;
+    }
+
+    /**
+     * Sets the maximum size of the body of a request that can be used as a probe. Larger requests wait for a cheap
+     * probe to succeed before being sent to a half-open circuit.
+     * @param maxProbeBodySize the maximum probe body size in bytes.
+     */
+    public void setMaxProbeBodySize(long maxProbeBodySize) {
+        this.maxProbeBodySize = maxProbeBodySize;
+    }
+
+    /**
+     * Gets the key of the circuit that requests to a URL go through. By default, the key is made of the URL's host and
+     * the first path segment after the API version, such as "upload.box.com/files" for
+     * "https://upload.box.com/api/2.0/files/content".
+     * @param  url the URL of a request.
+     * @return     the key of the URL's circuit.
+     */
+    protected String getCircuitKey(URL url) {
+        String family = "";
+        for (String segment : url.getPath().split("/")) {
+            if (segment.isEmpty() || segment.equals("api") || segment.matches("[0-9.]+")) {
+                continue;
+            }
+
+            family = segment;
+            break;
+        }
+
+        return url.getHost() + "/" + family;
+    }
+
+    /**
+     * Lets a request through its circuit, probing the endpoint first if necessary.
+     * @param  request the request that's about to be sent.
+     * @return         the key of the request's circuit.
+     * @throws BoxAPIException if the circuit is open.
+     */
+    String acquire(BoxAPIRequest request) {
+        String key = this.getCircuitKey(request.getUrl());
+        Circuit circuit = this.getCircuit(key);
+
+        boolean allowed = true;
+        boolean sendProbe = false;
+        State oldState;
+        State newState;
+        synchronized (circuit) {
+            oldState = circuit.state;
+            if (circuit.state == State.OPEN && this.time.currentTimeMillis() - circuit.openedAt >= this.openDuration) {
+                circuit.state = State.HALF_OPEN;
+                circuit.probing = false;
+            }
+            newState = circuit.state;
+
+            if (newState == State.OPEN) {
+                allowed = false;
+            } else if (newState == State.HALF_OPEN) {
+                if (circuit.probing) {
+                    allowed = false;
+                } else {
+                    circuit.probing = true;
+                    long bodySize = request.getBodySize();
+                    sendProbe = bodySize < 0 || bodySize > this.maxProbeBodySize;
+                }
+            }
+        }
+
+        this.notifyListeners(key, oldState, newState);
+        if (!allowed) {
+            throw new BoxAPIException("The request wasn't sent because the circuit for " + key + " is open.");
+        }
+
+        if (sendProbe) {
+            BoxAPIException error = this.probe(request);
+            if (error == null) {
+                this.onSuccess(key);
+            } else {
+                this.onError(key, error);
+                throw new BoxAPIException("The request wasn't sent because the circuit for " + key + " is open.",
+                    error);
+            }
+        }
+
+        return key;
+    }
+
+    void onSuccess(String key) {
+        Circuit circuit = this.getCircuit(key);
+        State oldState;
+        synchronized (circuit) {
+            oldState = circuit.state;
+            circuit.failures = 0;
+            circuit.probing = false;
+            circuit.state = State.CLOSED;
+        }
+
+        this.notifyListeners(key, oldState, State.CLOSED);
+    }
+
+    void onError(String key, BoxAPIException error) {
+        if (!isFailure(error)) {
+            int responseCode = error.getResponseCode();
+            if (responseCode > 0 && responseCode != 429) {
+                // The endpoint responded normally, even though the response was an error.
+                this.onSuccess(key);
+            } else {
+                this.onIgnored(key);
+            }
+            return;
+        }
+
+        Circuit circuit = this.getCircuit(key);
+        State oldState;
+        State newState;
+        synchronized (circuit) {
+            oldState = circuit.state;
+            circuit.failures++;
+            circuit.probing = false;
+            if (circuit.state == State.HALF_OPEN || circuit.failures >= this.failureThreshold) {
+                circuit.state = State.OPEN;
+                circuit.openedAt = this.time.currentTimeMillis();
+            }
+            newState = circuit.state;
+        }
+
+        this.notifyListeners(key, oldState, newState);
+    }
+
+    void onIgnored(String key) {
+        Circuit circuit = this.getCircuit(key);
+        synchronized (circuit) {
+            // A probe that ended without telling whether the endpoint works lets another request probe it.
+            circuit.probing = false;
+        }
+    }
+
+    private BoxAPIException probe(BoxAPIRequest request) {
+        BoxAPIRequest probe = new BoxAPIRequest(request.getAPI(), request.getUrl(), "OPTIONS");
+        probe.shouldAuthenticate(false);
+        try {
+            probe.sendWithoutRetries().disconnect();
+            return null;
+        } catch (BoxAPIException e) {
+            return isFailure(e) ? e : null;
+        }
+    }
+
+    private Circuit getCircuit(String key) {
+        Circuit circuit = this.circuits.get(key);
+        if (circuit == null) {
+            Circuit newCircuit = new Circuit();
+            circuit = this.circuits.putIfAbsent(key, newCircuit);
+            if (circuit == null) {
+                circuit = newCircuit;
+            }
+        }
+
+        return circuit;
+    }
+
+    private void notifyListeners(String key, State oldState, State newState) {
+        if (oldState == newState) {
+            return;
+        }
+
+        for (CircuitBreakerListener listener : this.listeners) {
+            listener.onStateChange(key, oldState, newState);
+        }
+    }
+
+    private static boolean isFailure(BoxAPIException error) {
+        int responseCode = error.getResponseCode();
+        return responseCode >= 500 || (responseCode == 0 && error.getCause() instanceof IOException);
+    }
+
+    /**
+     * The state of the requests to a single host and endpoint family.
+     */
+    private static final class Circuit {
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+        private boolean probing;
+    }
+}
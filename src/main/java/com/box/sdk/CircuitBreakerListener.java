@@ -0,0 +1,19 @@
+package com.box.sdk;
+
+/**
+ * Listener to listen to the state changes of a {@link CircuitBreaker}'s circuits.
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * Called when a circuit changes state.
+     *
+     * <p>This method is called on the thread that caused the change, which is usually a thread that's sending a
+     * request, so it should return quickly.</p>
+     *
+     * @param circuit  the circuit's key, which is made of a host and an endpoint family such as "upload.box.com/files".
+     * @param oldState the circuit's previous state.
+     * @param newState the circuit's new state.
+     */
+    void onStateChange(String circuit, CircuitBreaker.State oldState, CircuitBreaker.State newState);
+}
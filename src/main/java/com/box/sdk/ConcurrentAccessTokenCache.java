@@ -0,0 +1,314 @@
+package com.box.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import com.eclipsesource.json.ParseException;
+
+/**
+ * An in-memory access token cache that can be shared by many threads and that forgets tokens once they expire.
+ *
+ * <p>Unlike {@link InMemoryLRUAccessTokenCache}, which guards a single map with one lock, this cache is backed by
+ * {@link ConcurrentHashMap}s, so reads never take a lock. A read only looks up the stored string, just like a plain
+ * map. The expiration parsed from the token information is kept in a second map, which is only consulted once the
+ * earliest expiration of any entry has passed.</p>
+ *
+ * <p>Instead of moving an entry to the end of a list on every read, a read stamps a slot of a small table that's
+ * picked by the key's hash code with the cache's clock, which only advances when entries are stored. Once the cache is
+ * full, the thread that stored the extra entry sweeps the cache, removing expired entries and then the entries with
+ * the oldest stamps. Keys that share a slot share a stamp, so the eviction order is only approximately least recently
+ * used, and since other threads can store entries during a sweep, the cache can briefly hold a few more entries than
+ * its maximum.</p>
+ *
+ * <p>Token information is parsed once when it's stored, and storing the same information again doesn't parse it at
+ * all. Entries whose access token has expired are no longer returned, so a connection restored from the cache always
+ * starts with a token that's still valid. Reading the system clock costs more than the rest of a read, so reads check
+ * for expiry against a clock that's only updated a few times a second. An entry may therefore be returned for a
+ * fraction of a second after it expires.</p>
+ */
+public class ConcurrentAccessTokenCache implements IAccessTokenCache {
+    /**
+     * The default number of threads that are expected to store entries at the same time.
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private static final int MIN_STAMP_SLOTS = 16;
+    private static final int MAX_STAMP_SLOTS = 1 << 16;
+
+    private final ConcurrentMap<String, String> values;
+    private final ConcurrentMap<String, Entry> entries;
+    private final int maxEntries;
+    private final int sweepTarget;
+    private final long[] stamps;
+    private final int stampMask;
+    private final AtomicInteger size;
+    private final AtomicLong clock;
+    private final AtomicLong earliestExpiresAt;
+    private final ReentrantLock sweepLock;
+
+    /**
+     * Creates a concurrent access token cache for {@link #DEFAULT_CONCURRENCY_LEVEL} concurrent writers.
+     * @param maxEntries the maximum number of entries to store.
+     */
+    public ConcurrentAccessTokenCache(int maxEntries) {
+        this(maxEntries, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a concurrent access token cache.
+     * @param maxEntries       the maximum number of entries to store.
+     * @param concurrencyLevel the number of threads that are expected to store entries at the same time.
+     */
+    public ConcurrentAccessTokenCache(int maxEntries, int concurrencyLevel) {
+        if (maxEntries < 1 || concurrencyLevel < 1) {
+            throw new IllegalArgumentException("The maximum number of entries and the concurrency level must be at "
+                + "least 1.");
+        }
+
+        this.values = new ConcurrentHashMap<String, String>(16, 0.75f, concurrencyLevel);
+        this.entries = new ConcurrentHashMap<String, Entry>(16, 0.75f, concurrencyLevel);
+        this.maxEntries = maxEntries;
+        // Sweeping a little below the maximum means a full cache isn't swept again on the very next put.
+        this.sweepTarget = maxEntries - maxEntries / 16;
+
+        int stampSlots = MIN_STAMP_SLOTS;
+        while (stampSlots < maxEntries && stampSlots < MAX_STAMP_SLOTS) {
+            stampSlots <<= 1;
+        }
+        this.stamps = new long[stampSlots];
+        this.stampMask = stampSlots - 1;
+
+        this.size = new AtomicInteger();
+        this.clock = new AtomicLong();
+        this.earliestExpiresAt = new AtomicLong(Entry.NEVER_EXPIRES);
+        this.sweepLock = new ReentrantLock();
+    }
+
+    /**
+     * Add an entry to the cache.
+     * @param key   key to use.
+     * @param value access token information to store.
+     */
+    @Override
+    public void put(String key, String value) {
+        String existing = this.values.get(key);
+        if (value.equals(existing)) {
+            // The same information is stored again whenever a token is reused, so there's nothing new to parse.
+            this.touch(key);
+            return;
+        }
+
+        this.store(key, Entry.parse(value));
+    }
+
+    /**
+     * Get an entry from the cache.
+     * @param key key to look for.
+     * @return    access token information, or null if there isn't an entry for the key or if its access token has
+     *            expired.
+     */
+    @Override
+    public String get(String key) {
+        String value = this.values.get(key);
+        if (value == null || (CoarseClock.now >= this.earliestExpiresAt.get() && this.removeIfExpired(key))) {
+            return null;
+        }
+
+        this.touch(key);
+        return value;
+    }
+
+    /**
+     * Gets the number of entries in the cache, including entries that have expired but haven't been evicted yet.
+     * @return the number of entries.
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    private boolean removeIfExpired(String key) {
+        long now = CoarseClock.now;
+        Entry entry = this.entries.get(key);
+        boolean expired = entry == null || entry.isExpired(now);
+        if (expired && entry != null) {
+            this.remove(key, entry);
+        }
+
+        // Once one entry has expired, reads keep checking entries until a sweep finds the next earliest expiration.
+        this.sweep(now);
+        return expired;
+    }
+
+    private void touch(String key) {
+        // Reads stamp one tick ahead of the clock, so an entry that's read is newer than every entry stored before it.
+        // The stamp is only written when it changes, and it isn't volatile since a stale stamp only makes the
+        // eviction order slightly less accurate.
+        int slot = this.slot(key);
+        long stamp = this.clock.get() + 1;
+        if (this.stamps[slot] != stamp) {
+            this.stamps[slot] = stamp;
+        }
+    }
+
+    private int slot(String key) {
+        // Spread the hash code so that keys which only differ in their upper bits end up in different slots.
+        int hash = key.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return hash & this.stampMask;
+    }
+
+    private void store(String key, Entry entry) {
+        // Stores advance the clock by two, so that they're newer than every read stamped before them.
+        this.stamps[this.slot(key)] = this.clock.addAndGet(2);
+
+        this.lowerEarliestExpiresAt(entry.getExpiresAt());
+
+        // The parsed entry is stored first, so a read that sees the new value can always find its expiration.
+        boolean added = this.entries.put(key, entry) == null;
+        this.values.put(key, entry.value);
+        if (added && this.size.incrementAndGet() > this.maxEntries) {
+            this.sweep(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Removes expired entries, finds the next earliest expiration and, if the cache is full, evicts the entries with
+     * the oldest stamps.
+     */
+    private void sweep(long now) {
+        // A sweep that's already running will make room, so other threads don't need to wait for it.
+        if (!this.sweepLock.tryLock()) {
+            return;
+        }
+
+        try {
+            // The earliest expiration is reset before the entries are scanned, so that an entry stored during the
+            // sweep can still lower it.
+            this.earliestExpiresAt.set(Entry.NEVER_EXPIRES);
+            long earliest = Entry.NEVER_EXPIRES;
+            List<Map.Entry<String, Entry>> liveEntries = new ArrayList<Map.Entry<String, Entry>>(this.size.get());
+            for (Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                if (entry.isExpired(now)) {
+                    this.remove(mapEntry.getKey(), entry);
+                } else {
+                    earliest = Math.min(earliest, entry.getExpiresAt());
+                    liveEntries.add(mapEntry);
+                }
+            }
+
+            this.lowerEarliestExpiresAt(earliest);
+
+            int excess = this.size.get() - this.sweepTarget;
+            if (this.size.get() <= this.maxEntries || liveEntries.isEmpty()) {
+                return;
+            }
+
+            // Reads keep stamping slots during the sweep, so the stamps are copied before they're compared.
+            long[] entryStamps = new long[liveEntries.size()];
+            for (int i = 0; i < entryStamps.length; i++) {
+                entryStamps[i] = this.stamps[this.slot(liveEntries.get(i).getKey())];
+            }
+            long[] sortedStamps = entryStamps.clone();
+            Arrays.sort(sortedStamps);
+            long newestEvicted = sortedStamps[Math.min(excess, sortedStamps.length) - 1];
+            for (int i = 0; i < entryStamps.length && excess > 0; i++) {
+                if (entryStamps[i] <= newestEvicted) {
+                    this.remove(liveEntries.get(i).getKey(), liveEntries.get(i).getValue());
+                    excess--;
+                }
+            }
+        } finally {
+            this.sweepLock.unlock();
+        }
+    }
+
+    private void lowerEarliestExpiresAt(long expiresAt) {
+        long earliest = this.earliestExpiresAt.get();
+        while (expiresAt < earliest && !this.earliestExpiresAt.compareAndSet(earliest, expiresAt)) {
+            earliest = this.earliestExpiresAt.get();
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        if (this.entries.remove(key, entry)) {
+            this.values.remove(key, entry.value);
+            this.size.decrementAndGet();
+        }
+    }
+
+    /**
+     * The current time, updated a few times a second by the request timer's thread once a cache has been read.
+     */
+    private static final class CoarseClock {
+        private static final long RESOLUTION = 250;
+        private static volatile long now = System.currentTimeMillis();
+
+        static {
+            RequestTimer.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    now = System.currentTimeMillis();
+                }
+            }, RESOLUTION);
+        }
+
+        private CoarseClock() {
+        }
+    }
+
+    /**
+     * A parsed cache entry.
+     */
+    static final class Entry {
+        private static final long NEVER_EXPIRES = Long.MAX_VALUE;
+
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        static Entry parse(String value) {
+            // Values that aren't token information written by the SDK are stored as-is and never expire.
+            JsonObject json;
+            try {
+                json = JsonObject.readFrom(value);
+            } catch (ParseException e) {
+                return new Entry(value, NEVER_EXPIRES);
+            } catch (UnsupportedOperationException e) {
+                return new Entry(value, NEVER_EXPIRES);
+            }
+
+            JsonValue accessToken = json.get("accessToken");
+            JsonValue lastRefresh = json.get("lastRefresh");
+            JsonValue expires = json.get("expires");
+            if (accessToken == null || !accessToken.isString() || lastRefresh == null || !lastRefresh.isNumber()
+                || expires == null || !expires.isNumber()) {
+                return new Entry(value, NEVER_EXPIRES);
+            }
+
+            return new Entry(value, lastRefresh.asLong() + expires.asLong());
+        }
+
+        long getExpiresAt() {
+            return this.expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= this.expiresAt;
+        }
+    }
+}
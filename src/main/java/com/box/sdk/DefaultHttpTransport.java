@@ -0,0 +1,35 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+/**
+ * An {@link HttpTransport} that opens connections with {@link URL#openConnection}.
+ *
+ * <p>This is the transport used by a {@link BoxAPIConnection} unless another one is configured. Connection pooling is
+ * left to the JVM's built-in keep-alive cache, which can only be tuned globally through the {@code http.keepAlive} and
+ * {@code http.maxConnections} system properties.</p>
+ */
+public class DefaultHttpTransport implements HttpTransport {
+    private static final DefaultHttpTransport INSTANCE = new DefaultHttpTransport();
+
+    /**
+     * Gets a shared instance of this transport. The transport is stateless, so the same instance can be used by any
+     * number of connections.
+     * @return a shared DefaultHttpTransport.
+     */
+    public static DefaultHttpTransport getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public HttpURLConnection openConnection(URL url, Proxy proxy) throws IOException {
+        if (proxy == null) {
+            return (HttpURLConnection) url.openConnection();
+        } else {
+            return (HttpURLConnection) url.openConnection(proxy);
+        }
+    }
+}
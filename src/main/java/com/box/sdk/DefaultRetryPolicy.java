@@ -0,0 +1,202 @@
+package com.box.sdk;
+
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The default {@link RetryPolicy}, which retries rate limited requests and server errors with decorrelated jitter,
+ * honors the "Retry-After" header and limits how many retries a connection can make.
+ *
+ * <p>Requests are retried when the server responds with 429 Too Many Requests, or with a 5xx error if the request's
+ * method is idempotent (GET, HEAD, OPTIONS, PUT or DELETE). A 503 Service Unavailable response that includes a
+ * "Retry-After" header is retried for any method, since the server hasn't processed the request.</p>
+ *
+ * <p>Each retry waits a random amount of time between the base delay and three times the previous delay, up to the
+ * maximum delay. This spreads out retries from many clients that were rate limited at the same moment instead of
+ * having them retry in lockstep. If the server asked to wait longer with a "Retry-After" header, the requested amount
+ * of time is waited instead, unless it's longer than the maximum Retry-After. Then the request fails right away
+ * instead of blocking its thread for that long.</p>
+ *
+ * <p>A retry budget keeps a connection from multiplying its load on the server while the server is struggling. Every
+ * request adds the retry ratio to the budget, the budget is also refilled by the minimum number of retries per second,
+ * and each retry uses up one from the budget. Once the budget is empty, failed requests aren't retried until it's
+ * refilled. A policy's budget is shared by every connection that uses the policy.</p>
+ */
+public class DefaultRetryPolicy implements RetryPolicy {
+    /**
+     * The default minimum amount of time, in milliseconds, to wait before retrying a request.
+     */
+    public static final long DEFAULT_BASE_DELAY = 2000;
+
+    /**
+     * The default maximum amount of time, in milliseconds, to wait before retrying a request unless the server asks to
+     * wait longer.
+     */
+    public static final long DEFAULT_MAX_DELAY = 128000;
+
+    /**
+     * The default maximum amount of time, in milliseconds, that a "Retry-After" header can ask to wait before a request
+     * is failed instead of retried.
+     */
+    public static final long DEFAULT_MAX_RETRY_AFTER = 300000;
+
+    /**
+     * The default number of retries added to the retry budget by each request.
+     */
+    public static final double DEFAULT_RETRY_RATIO = 0.2;
+
+    /**
+     * The default number of retries added to the retry budget every second.
+     */
+    public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+
+    private static final Logger LOGGER = Logger.getLogger(DefaultRetryPolicy.class.getName());
+
+    /**
+     * The number of seconds worth of minimum retries that the retry budget can hold.
+     */
+    private static final int BUDGET_SECONDS = 10;
+
+    private final long baseDelay;
+    private final long maxDelay;
+    private final long maxRetryAfter;
+    private final double retryRatio;
+    private final int minRetriesPerSecond;
+    private final double budgetCapacity;
+    private final Time time;
+    private final Random random;
+
+    private double budget;
+    private long lastRefill;
+
+    /**
+     * Constructs a DefaultRetryPolicy with the default delays and retry budget.
+     */
+    public DefaultRetryPolicy() {
+        this(DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND);
+    }
+
+    /**
+     * Constructs a DefaultRetryPolicy with custom delays and retry budget.
+     * @param baseDelay           the minimum amount of time, in milliseconds, to wait before retrying a request.
+     * @param maxDelay            the maximum amount of time, in milliseconds, to wait before retrying a request unless
+     *                            the server asks to wait longer.
+     * @param retryRatio          the number of retries added to the retry budget by each request.
+     * @param minRetriesPerSecond the number of retries added to the retry budget every second.
+     */
+    public DefaultRetryPolicy(long baseDelay, long maxDelay, double retryRatio, int minRetriesPerSecond) {
+        this(baseDelay, maxDelay, retryRatio, minRetriesPerSecond, DEFAULT_MAX_RETRY_AFTER);
+    }
+
+    /**
+     * Constructs a DefaultRetryPolicy with custom delays, retry budget and limit on the "Retry-After" header.
+     * @param baseDelay           the minimum amount of time, in milliseconds, to wait before retrying a request.
+     * @param maxDelay            the maximum amount of time, in milliseconds, to wait before retrying a request unless
+     *                            the server asks to wait longer.
+     * @param retryRatio          the number of retries added to the retry budget by each request.
+     * @param minRetriesPerSecond the number of retries added to the retry budget every second.
+     * @param maxRetryAfter       the maximum amount of time, in milliseconds, that a "Retry-After" header can ask to
+     *                            wait before a request is failed instead of retried.
+     */
+    public DefaultRetryPolicy(long baseDelay, long maxDelay, double retryRatio, int minRetriesPerSecond,
+        long maxRetryAfter) {
+
+        this(baseDelay, maxDelay, retryRatio, minRetriesPerSecond, maxRetryAfter, new Time(), new Random());
+    }
+
+    DefaultRetryPolicy(long baseDelay, long maxDelay, double retryRatio, int minRetriesPerSecond, long maxRetryAfter,
+        Time time, Random random) {
+
+        if (baseDelay <= 0 || maxDelay < baseDelay || retryRatio < 0 || minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("The base delay must be positive and no greater than the maximum delay, "
+                + "and the retry budget can't be negative.");
+        }
+        if (maxRetryAfter < 0) {
+            throw new IllegalArgumentException("The maximum Retry-After can't be negative.");
+        }
+
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.maxRetryAfter = maxRetryAfter;
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.budgetCapacity = Math.max(1, minRetriesPerSecond * BUDGET_SECONDS);
+        this.time = time;
+        this.random = random;
+        this.budget = this.budgetCapacity;
+        this.lastRefill = time.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void onRequest(RetryContext context) {
+        this.budget = Math.min(this.budgetCapacity, this.budget + this.retryRatio);
+    }
+
+    @Override
+    public long getRetryDelay(RetryContext context) {
+        if (!this.isRetryable(context)) {
+            return NO_RETRY;
+        }
+
+        if (context.getRetryAfter() > this.maxRetryAfter) {
+            LOGGER.log(Level.WARNING, "Not retrying a failed request because the server asked to wait "
+                + context.getRetryAfter() + " ms, which is longer than the maximum Retry-After.");
+            return NO_RETRY;
+        }
+
+        if (!this.withdrawRetry()) {
+            LOGGER.log(Level.WARNING, "Not retrying a failed request because the retry budget is exhausted.");
+            return NO_RETRY;
+        }
+
+        long previousDelay = context.getPreviousDelay() == 0 ? this.baseDelay : context.getPreviousDelay();
+        long upperBound = Math.min(this.maxDelay, Math.max(this.baseDelay, previousDelay * 3));
+        long delay = this.baseDelay + (long) (this.random.nextDouble() * (upperBound - this.baseDelay));
+        return Math.max(delay, context.getRetryAfter());
+    }
+
+    /**
+     * Determines if a failed request can be retried, without taking the retry budget into account.
+     * @param  context the retry context of the request.
+     * @return         true if the request can be retried; otherwise false.
+     */
+    protected boolean isRetryable(RetryContext context) {
+        int responseCode = context.getError().getResponseCode();
+        if (responseCode == 429) {
+            return true;
+        } else if (responseCode == 503 && context.getRetryAfter() >= 0) {
+            return true;
+        } else if (responseCode >= 500) {
+            return isIdempotent(context.getMethod());
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines if sending a request with an HTTP method more than once has the same effect as sending it once.
+     * @param  method the HTTP method.
+     * @return        true if the method is idempotent; otherwise false.
+     */
+    protected static boolean isIdempotent(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS") || method.equals("PUT")
+            || method.equals("DELETE");
+    }
+
+    private synchronized boolean withdrawRetry() {
+        long now = this.time.currentTimeMillis();
+        double refill = (now - this.lastRefill) * this.minRetriesPerSecond / 1000.0;
+        if (refill > 0) {
+            this.budget = Math.min(this.budgetCapacity, this.budget + refill);
+            this.lastRefill = now;
+        }
+
+        if (this.budget < 1) {
+            return false;
+        }
+
+        this.budget--;
+        return true;
+    }
+}
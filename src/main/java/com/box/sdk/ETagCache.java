@@ -0,0 +1,196 @@
+package com.box.sdk;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * Remembers the JSON responses of GET requests along with their ETags so that unchanged items don't have to be
+ * downloaded and parsed again.
+ *
+ * <p>When a GET request is sent for a URL whose response is in the cache, the request includes an If-None-Match header
+ * with the cached ETag. If the item hasn't changed, Box responds with 304 Not Modified and no body, and the request
+ * returns a copy of the cached response instead. Otherwise the new response is returned and replaces the cached one.
+ * This saves bandwidth when polling many items for changes, such as with {@link BoxFile#getInfo} or {@link
+ * BoxFolder#getInfo}.</p>
+ *
+ * <p>The ETag is taken from the response's ETag header, or from the "etag" field of the JSON body if there's no such
+ * header. Responses without an ETag aren't cached. Responses are cached separately for each URL and authentication, so
+ * a cache can be shared by connections for different users. When the cache is full, the least recently used response
+ * is forgotten.</p>
+ *
+ * <pre>api.setETagCache(new ETagCache(10000));
+ *BoxFile.Info info = file.getInfo();</pre>
+ */
+public class ETagCache {
+    /**
+     * The default maximum number of responses held by a cache.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final int NOT_MODIFIED = 304;
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * Constructs an ETagCache that holds up to {@link #DEFAULT_MAX_ENTRIES} responses.
+     */
+    public ETagCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs an ETagCache.
+     * @param maxEntries the maximum number of responses to hold.
+     */
+    public ETagCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of entries must be at least 1.");
+        }
+
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = -3068573283862385413L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ETagCache.Entry> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of requests that were answered with a cached response because the item hadn't changed.
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Gets the number of requests that returned a new response, either because no response was cached or because the
+     * item had changed.
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Gets the number of responses in the cache.
+     * @return the number of cached responses.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Forgets every cached response.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Sends a GET request, revalidating the cached response if there is one.
+     * @param  request  the request to send.
+     * @param  listener an optional listener for monitoring the progress of the request.
+     * @return          the new response, or a copy of the cached response if the item hasn't changed.
+     */
+    BoxAPIResponse send(BoxAPIRequest request, ProgressListener listener) {
+        if (request.hasHeader("If-None-Match")) {
+            // The caller is already making its own conditional request.
+            return request.sendWithRetries(listener);
+        }
+
+        String key = request.getCoalescingKey();
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+        }
+
+        if (entry == null) {
+            this.misses.incrementAndGet();
+            return this.store(key, request.sendWithRetries(listener));
+        }
+
+        request.addHeader("If-None-Match", entry.etag);
+        BoxAPIResponse response;
+        try {
+            response = request.sendWithRetries(listener);
+        } catch (BoxAPIException e) {
+            if (e.getResponseCode() != NOT_MODIFIED) {
+                throw e;
+            }
+
+            this.hits.incrementAndGet();
+            return new BoxJSONResponse(entry.responseCode, entry.json);
+        } finally {
+            request.removeHeader("If-None-Match");
+        }
+
+        this.misses.incrementAndGet();
+        return this.store(key, response);
+    }
+
+    private BoxAPIResponse store(String key, BoxAPIResponse response) {
+        if (!(response instanceof BoxJSONResponse)) {
+            return response;
+        }
+
+        String json = ((BoxJSONResponse) response).getJSON();
+        String etag = response.getHeaderField("ETag");
+        if (etag == null) {
+            etag = parseETag(json);
+        }
+
+        synchronized (this.entries) {
+            if (etag == null) {
+                this.entries.remove(key);
+            } else {
+                this.entries.put(key, new Entry(etag, response.getResponseCode(), json));
+            }
+        }
+
+        return response;
+    }
+
+    private static String parseETag(String json) {
+        JsonValue etag;
+        try {
+            etag = JsonObject.readFrom(json).get("etag");
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        if (etag == null || !etag.isString()) {
+            return null;
+        }
+        return etag.asString();
+    }
+
+    /**
+     * A cached response.
+     */
+    private static final class Entry {
+        private final String etag;
+        private final int responseCode;
+        private final String json;
+
+        Entry(String etag, int responseCode, String json) {
+            this.etag = etag;
+            this.responseCode = responseCode;
+            this.json = json;
+        }
+    }
+}
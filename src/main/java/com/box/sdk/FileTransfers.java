@@ -0,0 +1,147 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers shared by uploads and downloads that move files in several parts at once or straight from a file channel.
+ */
+final class FileTransfers {
+    private static final int CHANNEL_BUFFER_SIZE = 65536;
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private FileTransfers() {
+    }
+
+    /**
+     * Creates a pool of daemon threads for transferring the parts of a file.
+     * @param  name    the prefix of the names of the threads.
+     * @param  threads the number of threads.
+     * @return         the thread pool, which must be shut down once the transfer is done.
+     */
+    static ThreadPoolExecutor createExecutor(final String name, int threads) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + this.count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+            threadFactory);
+    }
+
+    /**
+     * Waits for a part of a transfer to finish.
+     * @param  future   the part.
+     * @param  deadline the time by which the transfer must be done, or 0 if it doesn't have a timeout.
+     * @param  transfer the name of the transfer, such as "upload", for error messages.
+     * @return          the result of the part.
+     * @throws BoxAPIException if the part failed, the deadline passed or the thread was interrupted.
+     */
+    static <V> V await(BoxFuture<V> future, long deadline, String transfer) {
+        if (deadline == 0) {
+            return future.join();
+        }
+
+        try {
+            return future.get(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BoxAPIException("The " + transfer + " didn't complete within its timeout.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for the " + transfer + " to complete.", e);
+        } catch (ExecutionException e) {
+            // The part is done, so join() rethrows its error without waiting.
+            return future.join();
+        }
+    }
+
+    /**
+     * Writes the beginning of a file channel to a stream. The channel is read with positional reads, so its position
+     * isn't changed.
+     * @param  channel     the channel to read.
+     * @param  size        the number of bytes to write.
+     * @param  output      the stream to write to.
+     * @throws IOException if the channel couldn't be read or the stream couldn't be written.
+     */
+    static void copy(FileChannel channel, long size, OutputStream output) throws IOException {
+        byte[] array = new byte[CHANNEL_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(array);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            if (size - position < array.length) {
+                buffer.limit((int) (size - position));
+            }
+
+            int n = channel.read(buffer, position);
+            if (n == -1) {
+                throw new BoxAPIException("The file ended after " + position + " of its " + size
+                    + " bytes were read.");
+            }
+            output.write(array, 0, n);
+            position += n;
+        }
+    }
+
+    /**
+     * Computes the SHA-1 of the beginning of a file channel without changing the channel's position.
+     * @param  channel     the channel to read.
+     * @param  size        the number of bytes to hash.
+     * @return             the SHA-1 as lowercase hex.
+     * @throws IOException if the channel couldn't be read.
+     */
+    static String sha1(FileChannel channel, long size) throws IOException {
+        MessageDigest digest = createSHA1Digest();
+        copy(channel, size, new DigestOutputStream(NULL_OUTPUT, digest));
+        return toHexString(digest.digest());
+    }
+
+    static MessageDigest createSHA1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new BoxAPIException("The SHA-1 algorithm isn't available.", e);
+        }
+    }
+
+    /**
+     * Encodes a digest the way Box reports SHA-1 hashes, as lowercase hex.
+     * @param  digest the digest to encode.
+     * @return        the hex encoded digest.
+     */
+    static String toHexString(byte[] digest) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
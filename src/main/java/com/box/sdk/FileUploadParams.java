@@ -1,6 +1,7 @@
 package com.box.sdk;
 
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.util.Date;
 
 /**
@@ -8,11 +9,13 @@ import java.util.Date;
  */
 public class FileUploadParams {
     private InputStream content;
+    private FileChannel fileChannel;
     private String name;
     private Date created;
     private Date modified;
     private long size;
     private ProgressListener listener;
+    private boolean verifySha1;
 
     /**
      * Constructs a new FileUploadParams with default parameters.
@@ -37,6 +40,27 @@ public class FileUploadParams {
         return this;
     }
 
+    /**
+     * Gets the file channel whose contents will be uploaded to Box.
+     * @return a FileChannel for reading the content to be uploaded to Box, or null if the content is read from a
+     *         stream.
+     */
+    public FileChannel getFileChannel() {
+        return this.fileChannel;
+    }
+
+    /**
+     * Sets the content that will be uploaded to Box to the contents of a file channel, which is used instead of the
+     * content stream. Since the size of the file is known, the upload is sent with an exact Content-Length, and it can
+     * be retried by reading the file again from its first byte.
+     * @param  fileChannel a FileChannel for reading the content to be uploaded to Box.
+     * @return             this FileUploadParams object for chaining.
+     */
+    public FileUploadParams setFileChannel(FileChannel fileChannel) {
+        this.fileChannel = fileChannel;
+        return this;
+    }
+
     /**
      * Gets the name that will be given to the uploaded file.
      * @return the name that will be given to the uploaded file.
@@ -126,4 +150,25 @@ public class FileUploadParams {
         this.listener = listener;
         return this;
     }
+
+    /**
+     * Gets whether or not the upload will be verified with the SHA-1 of the file's content.
+     * @return whether or not the upload will be verified with the SHA-1 of the file's content.
+     */
+    public boolean getVerifySha1() {
+        return this.verifySha1;
+    }
+
+    /**
+     * Sets whether or not the upload will be verified with the SHA-1 of the file's content. The SHA-1 is computed
+     * while the content is read for the upload. If the content is a file channel, it's hashed before it's sent and Box
+     * rejects the upload if the content it receives doesn't match. Otherwise the SHA-1 is compared with the SHA-1 of
+     * the uploaded file, and a {@link BoxAPIException} is thrown if they don't match.
+     * @param  verifySha1 whether or not the upload will be verified with the SHA-1 of the file's content.
+     * @return            this FileUploadParams object for chaining.
+     */
+    public FileUploadParams setVerifySha1(boolean verifySha1) {
+        this.verifySha1 = verifySha1;
+        return this;
+    }
 }
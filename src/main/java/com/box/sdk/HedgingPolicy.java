@@ -0,0 +1,366 @@
+package com.box.sdk;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuts the tail latency of GET requests by sending a second copy of a request that's slower than usual and using
+ * whichever response arrives first.
+ *
+ * <p>A hedging policy keeps track of how long recent GET requests took to respond. When a GET request hasn't received a
+ * response within the configured percentile of those latencies, such as the 95th percentile, the same request is sent
+ * again on the connection's {@link BoxAPIConnection#getAsyncExecutor asynchronous executor}. The first successful
+ * response is returned and the other request is aborted by disconnecting it.</p>
+ *
+ * <p>Hedging sends extra requests, so it's limited by a budget. Every GET request adds the budget ratio to the budget
+ * and every hedge takes one from it, which means that hedges add at most the budget ratio to the number of requests
+ * sent, such as 5% with the default ratio. Only GET requests without a body are hedged, and no request is hedged until
+ * enough latencies have been recorded to compute the percentile.</p>
+ *
+ * <pre>api.setHedgingPolicy(new HedgingPolicy(0.95, 0.05));</pre>
+ */
+public class HedgingPolicy {
+    /**
+     * The default percentile of recent latencies after which a request is hedged.
+     */
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    /**
+     * The default ratio of hedges to requests.
+     */
+    public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+    /**
+     * The default minimum amount of time, in milliseconds, to wait for a response before hedging a request.
+     */
+    public static final long DEFAULT_MIN_DELAY = 10;
+
+    /**
+     * The number of recent latencies that the percentile is computed from.
+     */
+    private static final int WINDOW_SIZE = 1000;
+
+    /**
+     * The number of latencies that must be recorded before requests are hedged.
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * The number of latencies recorded between updates of the hedge delay.
+     */
+    private static final int UPDATE_INTERVAL = 32;
+
+    /**
+     * The maximum number of hedges that can be saved up in the budget.
+     */
+    private static final double MAX_BUDGET = 10;
+
+    private final double percentile;
+    private final double budgetRatio;
+    private final long[] latencies;
+    private final AtomicLong hedgesSent;
+    private final AtomicLong hedgesWon;
+
+    private volatile long minDelay;
+    private int samples;
+    private int nextSample;
+    private int samplesSinceUpdate;
+    private long percentileLatency;
+    private double budget;
+
+    /**
+     * Constructs a HedgingPolicy with the default percentile and budget ratio.
+     */
+    public HedgingPolicy() {
+        this(DEFAULT_PERCENTILE, DEFAULT_BUDGET_RATIO);
+    }
+
+    /**
+     * Constructs a HedgingPolicy.
+     * @param percentile  the percentile, between 0 and 1, of recent latencies after which a request is hedged.
+     * @param budgetRatio the maximum ratio, between 0 and 1, of hedges to requests.
+     */
+    public HedgingPolicy(double percentile, double budgetRatio) {
+        if (percentile <= 0 || percentile >= 1 || budgetRatio <= 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 1 and the budget ratio must be "
+                + "greater than 0 and at most 1.");
+        }
+
+        this.percentile = percentile;
+        this.budgetRatio = budgetRatio;
+        this.latencies = new long[WINDOW_SIZE];
+        this.hedgesSent = new AtomicLong();
+        this.hedgesWon = new AtomicLong();
+        this.minDelay = DEFAULT_MIN_DELAY;
+        this.percentileLatency = -1;
+    }
+
+    /**
+     * Gets the amount of time that a request currently waits for a response before it's hedged.
+     * @return the hedge delay in milliseconds, or -1 if not enough latencies have been recorded yet.
+     */
+    public synchronized long getHedgeDelay() {
+        if (this.percentileLatency < 0) {
+            return -1;
+        }
+
+        return Math.max(this.minDelay, this.percentileLatency);
+    }
+
+    /**
+     * Gets the minimum amount of time to wait for a response before hedging a request.
+     * @return the minimum hedge delay in milliseconds.
+     */
+    public long getMinDelay() {
+        return this.minDelay;
+    }
+
+    /**
+     * Sets the minimum amount of time to wait for a response before hedging a request.
+     * @param minDelay the minimum hedge delay in milliseconds.
+     */
+    public void setMinDelay(long minDelay) {
+        if (minDelay < 0) {
+            throw new IllegalArgumentException("The minimum delay can't be negative.");
+        }
+        this.minDelay = minDelay;
+    }
+
+    /**
+     * Gets the number of hedges that have been sent.
+     * @return the number of hedges sent.
+     */
+    public long getHedgesSent() {
+        return this.hedgesSent.get();
+    }
+
+    /**
+     * Gets the number of hedges whose response was used instead of the original request's response.
+     * @return the number of hedges that won.
+     */
+    public long getHedgesWon() {
+        return this.hedgesWon.get();
+    }
+
+    /**
+     * Sends one attempt of a GET request, hedging it if it's slower than usual.
+     * @param  request  the request to send.
+     * @param  listener an optional listener for monitoring the progress of the request.
+     * @return          the first successful response.
+     */
+    BoxAPIResponse send(BoxAPIRequest request, ProgressListener listener) {
+        long delay;
+        synchronized (this) {
+            this.budget = Math.min(MAX_BUDGET, this.budget + this.budgetRatio);
+            delay = this.getHedgeDelay();
+        }
+
+        Hedge hedge = null;
+        ScheduledFuture<?> timer = null;
+        if (delay >= 0) {
+            hedge = new Hedge(request);
+            timer = RequestTimer.schedule(hedge.getStarter(), delay);
+        }
+
+        long start = System.nanoTime();
+        BoxAPIResponse response;
+        try {
+            response = request.trySendWithCircuitBreaker(listener);
+        } catch (BoxAPIException e) {
+            if (hedge == null) {
+                throw e;
+            }
+
+            timer.cancel(false);
+            return hedge.onPrimaryFailed(e);
+        }
+
+        this.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (hedge == null) {
+            return response;
+        }
+
+        timer.cancel(false);
+        return hedge.onPrimarySucceeded(response);
+    }
+
+    synchronized void recordLatency(long latency) {
+        this.latencies[this.nextSample] = latency;
+        this.nextSample = (this.nextSample + 1) % this.latencies.length;
+        this.samples = Math.min(this.samples + 1, this.latencies.length);
+        this.samplesSinceUpdate++;
+
+        if (this.samples == MIN_SAMPLES || (this.samples > MIN_SAMPLES && this.samplesSinceUpdate >= UPDATE_INTERVAL)) {
+            long[] sorted = Arrays.copyOf(this.latencies, this.samples);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(this.percentile * sorted.length) - 1;
+            this.percentileLatency = sorted[Math.max(0, index)];
+            this.samplesSinceUpdate = 0;
+        }
+    }
+
+    private synchronized boolean tryAcquireBudget() {
+        if (this.budget < 1) {
+            return false;
+        }
+
+        this.budget--;
+        return true;
+    }
+
+    private synchronized void releaseBudget() {
+        this.budget = Math.min(MAX_BUDGET, this.budget + 1);
+    }
+
+    /**
+     * The second copy of a request. The copy is started by the timer if the original request hasn't finished by then,
+     * and whichever of the two succeeds first aborts the other.
+     *
+     * <p>Hedges share the asynchronous executor with {@link BoxAPIRequest#sendAsync}, so a request that runs on the
+     * executor can't wait for a hedge that's still queued behind it. A hedge that hasn't begun running when the
+     * original request finishes is skipped instead of sent.</p>
+     */
+    private final class Hedge implements Runnable {
+        private final BoxAPIRequest primary;
+        private final BoxAPIRequest request;
+
+        private boolean primaryFinished;
+        private boolean primarySucceeded;
+        private boolean running;
+        private boolean done;
+        private BoxAPIResponse response;
+
+        Hedge(BoxAPIRequest primary) {
+            this.primary = primary;
+            this.request = primary.copyForHedging();
+        }
+
+        Runnable getStarter() {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    Hedge.this.start();
+                }
+            };
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (this.primaryFinished) {
+                    this.done = true;
+                    this.notifyAll();
+                    HedgingPolicy.this.releaseBudget();
+                    return;
+                }
+                this.running = true;
+            }
+
+            HedgingPolicy.this.hedgesSent.incrementAndGet();
+            long start = System.nanoTime();
+            BoxAPIResponse hedgeResponse = null;
+            try {
+                hedgeResponse = this.request.trySendWithCircuitBreaker(null);
+                HedgingPolicy.this.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                // The original request's error is reported if neither request succeeds.
+                hedgeResponse = null;
+            }
+
+            boolean won = false;
+            boolean abortPrimary = false;
+            synchronized (this) {
+                if (hedgeResponse != null && !this.primarySucceeded) {
+                    this.response = hedgeResponse;
+                    won = true;
+                    abortPrimary = !this.primaryFinished;
+                }
+                this.done = true;
+                this.notifyAll();
+            }
+
+            if (won) {
+                HedgingPolicy.this.hedgesWon.incrementAndGet();
+                if (abortPrimary) {
+                    this.primary.abort();
+                }
+            } else if (hedgeResponse != null) {
+                hedgeResponse.disconnect();
+            }
+        }
+
+        BoxAPIResponse onPrimarySucceeded(BoxAPIResponse primaryResponse) {
+            boolean abortHedge;
+            synchronized (this) {
+                this.primaryFinished = true;
+                if (this.response != null) {
+                    primaryResponse.disconnect();
+                    return this.response;
+                }
+
+                this.primarySucceeded = true;
+                abortHedge = this.running && !this.done;
+            }
+
+            if (abortHedge) {
+                this.request.abort();
+            }
+            return primaryResponse;
+        }
+
+        BoxAPIResponse onPrimaryFailed(BoxAPIException error) {
+            synchronized (this) {
+                this.primaryFinished = true;
+                if (!this.running) {
+                    throw error;
+                }
+                if (this.primary.isCancelled()) {
+                    this.request.abort();
+                    throw error;
+                }
+
+                try {
+                    while (!this.done) {
+                        long remaining = this.primary.getRemainingTime();
+                        if (remaining == 0) {
+                            this.request.abort();
+                            throw error;
+                        }
+                        this.wait(Math.max(0, remaining));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    this.request.abort();
+                    throw error;
+                }
+
+                if (this.response != null) {
+                    return this.response;
+                }
+            }
+
+            throw error;
+        }
+
+        private void start() {
+            synchronized (this) {
+                if (this.primaryFinished || !HedgingPolicy.this.tryAcquireBudget()) {
+                    return;
+                }
+            }
+
+            try {
+                this.primary.getAPI().getAsyncExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    this.done = true;
+                    this.notifyAll();
+                }
+                HedgingPolicy.this.releaseBudget();
+            }
+        }
+    }
+}
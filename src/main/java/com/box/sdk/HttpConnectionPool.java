@@ -0,0 +1,281 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * A pool of keep-alive sockets to a single scheme, host and port.
+ *
+ * <p>The number of sockets that can be leased at the same time is bounded by a fair semaphore. Idle sockets are kept in
+ * LIFO order so that the most recently used (and least likely to have been closed by the server) socket is reused
+ * first.</p>
+ */
+class HttpConnectionPool {
+    /**
+     * Idle sockets that haven't been used for at least this many milliseconds are checked for staleness before they're
+     * reused.
+     */
+    private static final long VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private final PooledHttpTransport transport;
+    private final String host;
+    private final int port;
+    private final boolean secure;
+    private final int maxConnections;
+    private final Semaphore permits;
+    private final LinkedList<PooledSocket> idleSockets;
+    private final AtomicLong createdCount;
+    private final AtomicLong reusedCount;
+
+    public HttpConnectionPool(PooledHttpTransport transport, String host, int port, boolean secure,
+        int maxConnections) {
+
+        this.transport = transport;
+        this.host = host;
+        this.port = port;
+        this.secure = secure;
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections, true);
+        this.idleSockets = new LinkedList<PooledSocket>();
+        this.createdCount = new AtomicLong();
+        this.reusedCount = new AtomicLong();
+    }
+
+    public String getHost() {
+        return this.host;
+    }
+
+    public int getPort() {
+        return this.port;
+    }
+
+    public int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    public int getLeasedCount() {
+        return this.maxConnections - this.permits.availablePermits();
+    }
+
+    public int getIdleCount() {
+        synchronized (this.idleSockets) {
+            return this.idleSockets.size();
+        }
+    }
+
+    public long getCreatedCount() {
+        return this.createdCount.get();
+    }
+
+    public long getReusedCount() {
+        return this.reusedCount.get();
+    }
+
+    /**
+     * Leases a socket from this pool, waiting for one to become available if the pool is at its connection limit.
+     * @param  connectTimeout the maximum time to wait for a socket to become available and to connect, or 0 to wait
+     *                        indefinitely.
+     * @param  readTimeout    the read timeout to use during the TLS handshake.
+     * @param  forceNew       true if a new socket must be opened instead of reusing an idle one.
+     * @return                a connected socket.
+     * @throws IOException if a socket couldn't be leased.
+     */
+    public PooledSocket lease(int connectTimeout, int readTimeout, boolean forceNew) throws IOException {
+        this.acquirePermit(connectTimeout);
+
+        PooledSocket socket = null;
+        try {
+            if (!forceNew) {
+                socket = this.pollIdleSocket();
+            }
+            if (socket == null) {
+                socket = this.openSocket(connectTimeout, readTimeout);
+            } else {
+                this.reusedCount.incrementAndGet();
+            }
+        } finally {
+            if (socket == null) {
+                this.permits.release();
+            }
+        }
+
+        socket.markLeased();
+        return socket;
+    }
+
+    /**
+     * Returns a leased socket to this pool.
+     * @param socket   the leased socket.
+     * @param reusable true if the socket can be used for another request; false if it should be closed.
+     */
+    public void release(PooledSocket socket, boolean reusable) {
+        int maxRequests = this.transport.getMaxRequestsPerConnection();
+        boolean keepAlive = reusable && (maxRequests == 0 || socket.getUseCount() < maxRequests);
+        if (keepAlive && !socket.isClosed()) {
+            socket.markIdle();
+            synchronized (this.idleSockets) {
+                this.idleSockets.addFirst(socket);
+            }
+        } else {
+            socket.close();
+        }
+
+        this.permits.release();
+    }
+
+    /**
+     * Opens new sockets and adds them to the idle sockets until this pool has a number of open sockets, without
+     * waiting for sockets that are in use.
+     * @param  connections    the number of open sockets to have, which is capped at the pool's connection limit.
+     * @param  connectTimeout the maximum time to wait for each socket to connect, or 0 to wait indefinitely.
+     * @return                the number of sockets that were opened.
+     * @throws IOException if a socket couldn't be opened.
+     */
+    public int warmUp(int connections, int connectTimeout) throws IOException {
+        int target = Math.min(connections, this.maxConnections);
+        int opened = 0;
+        while (this.getIdleCount() + this.getLeasedCount() < target && this.permits.tryAcquire()) {
+            PooledSocket socket = null;
+            try {
+                socket = this.openSocket(connectTimeout, connectTimeout);
+            } finally {
+                if (socket == null) {
+                    this.permits.release();
+                }
+            }
+
+            // The first request sent over the socket is treated like any other request on an idle socket, which may
+            // have been closed by the server in the meantime.
+            socket.markWarmedUp();
+            this.release(socket, true);
+            opened++;
+        }
+
+        return opened;
+    }
+
+    /**
+     * Closes the idle sockets that have been idle for at least a given amount of time.
+     * @param maxIdleTime the maximum idle time in milliseconds.
+     */
+    public void evictIdleSockets(long maxIdleTime) {
+        long now = System.currentTimeMillis();
+        List<PooledSocket> evicted = new ArrayList<PooledSocket>();
+        synchronized (this.idleSockets) {
+            Iterator<PooledSocket> iterator = this.idleSockets.iterator();
+            while (iterator.hasNext()) {
+                PooledSocket socket = iterator.next();
+                if (now - socket.getIdleSince() >= maxIdleTime) {
+                    iterator.remove();
+                    evicted.add(socket);
+                }
+            }
+        }
+
+        for (PooledSocket socket : evicted) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Closes every idle socket in this pool.
+     */
+    public void closeIdleSockets() {
+        while (true) {
+            PooledSocket socket;
+            synchronized (this.idleSockets) {
+                socket = this.idleSockets.pollFirst();
+            }
+
+            if (socket == null) {
+                return;
+            }
+            socket.close();
+        }
+    }
+
+    private void acquirePermit(int timeout) throws IOException {
+        try {
+            if (timeout <= 0) {
+                this.permits.acquire();
+            } else if (!this.permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new IOException(String.format("Timed out waiting for one of %d connections to %s.",
+                    this.maxConnections, this.host));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + this.host + ".");
+        }
+    }
+
+    private PooledSocket pollIdleSocket() {
+        long keepAliveTimeout = this.transport.getKeepAliveTimeout();
+        while (true) {
+            PooledSocket socket;
+            synchronized (this.idleSockets) {
+                socket = this.idleSockets.pollFirst();
+            }
+
+            if (socket == null) {
+                return null;
+            }
+
+            long idleTime = System.currentTimeMillis() - socket.getIdleSince();
+            if (idleTime >= keepAliveTimeout || (idleTime >= VALIDATE_AFTER_INACTIVITY && socket.isStale())) {
+                socket.close();
+                continue;
+            }
+
+            return socket;
+        }
+    }
+
+    private PooledSocket openSocket(int connectTimeout, int readTimeout) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            int bufferSize = this.transport.getSocketBufferSize();
+            if (bufferSize > 0) {
+                socket.setSendBufferSize(bufferSize);
+                socket.setReceiveBufferSize(bufferSize);
+            }
+            socket.connect(new InetSocketAddress(this.host, this.port), connectTimeout);
+
+            if (this.secure) {
+                SSLSocket sslSocket = (SSLSocket) this.transport.getSSLSocketFactory().createSocket(socket, this.host,
+                    this.port, true);
+                socket = sslSocket;
+                sslSocket.setSoTimeout(readTimeout);
+                sslSocket.startHandshake();
+                if (!this.transport.getHostnameVerifier().verify(this.host, sslSocket.getSession())) {
+                    throw new SSLPeerUnverifiedException("The certificate presented by " + this.host
+                        + " doesn't match its hostname.");
+                }
+            }
+
+            PooledSocket pooledSocket = new PooledSocket(socket);
+            this.createdCount.incrementAndGet();
+            return pooledSocket;
+        } catch (IOException e) {
+            try {
+                socket.close();
+            } catch (IOException closeException) {
+                // The original exception is more useful to the caller.
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.box.sdk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the CRLF-terminated lines that make up HTTP status lines, headers and chunk sizes.
+ */
+final class HttpLineReader {
+    private static final int MAX_LINE_LENGTH = 65536;
+
+    private HttpLineReader() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Reads a single line without its line terminator. A bare LF is also accepted as a line terminator.
+     * @param  stream the stream to read from.
+     * @return        the line that was read.
+     * @throws IOException if the stream ends before the line does or if the line is too long.
+     */
+    static String readLine(InputStream stream) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            int b = stream.read();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of stream while reading an HTTP response.");
+            } else if (b == '\n') {
+                break;
+            } else if (b != '\r') {
+                if (builder.length() == MAX_LINE_LENGTH) {
+                    throw new IOException("HTTP response line exceeds " + MAX_LINE_LENGTH + " characters.");
+                }
+                builder.append((char) b);
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+/**
+ * The interface for opening the HTTP connections that are used to send requests to the Box API.
+ *
+ * <p>Every {@link BoxAPIRequest} (including {@link BoxMultipartRequest}) obtains its connection from the transport
+ * configured on its {@link BoxAPIConnection}, and every {@link BoxAPIResponse} reads from that same connection. This
+ * makes it possible to control how connections are established, pooled and reused without changing how requests are
+ * built.</p>
+ *
+ * <p>The SDK ships with two implementations. {@link DefaultHttpTransport} uses {@link URL#openConnection} and relies on
+ * the JVM-wide keep-alive cache, which is the historical behavior. {@link PooledHttpTransport} manages its own pool of
+ * keep-alive connections with explicit per-host limits.</p>
+ *
+ * <p>Connections returned by a transport must not follow redirects automatically and must not be connected yet, since
+ * requests still need to configure their method, timeouts and headers.</p>
+ */
+public interface HttpTransport {
+    /**
+     * Opens a new, unconnected HTTP connection to a URL.
+     * @param  url   the URL to connect to.
+     * @param  proxy an optional proxy to connect through, or null to connect directly.
+     * @return       an unconnected HttpURLConnection.
+     * @throws IOException if the connection couldn't be opened.
+     */
+    HttpURLConnection openConnection(URL url, Proxy proxy) throws IOException;
+}
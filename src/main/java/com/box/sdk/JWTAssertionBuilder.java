@@ -0,0 +1,141 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.PrivateKey;
+
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.openssl.PEMDecryptorProvider;
+import org.bouncycastle.openssl.PEMEncryptedKeyPair;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JcePEMDecryptorProviderBuilder;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.lang.JoseException;
+
+/**
+ * Builds the signed JWT assertions that Box Developer Edition connections exchange for access tokens.
+ *
+ * <p>Parsing and decrypting the private key is much more expensive than signing an assertion, so a builder does it only
+ * once, the first time it builds an assertion. After that, a builder can be used to sign assertions for any number of
+ * users or enterprises from multiple threads at once. Connections created from the same {@link
+ * JWTEncryptionPreferences} share a single builder.</p>
+ *
+ * <pre>JWTAssertionBuilder builder = new JWTAssertionBuilder(encryptionPref);
+ *String assertion = builder.buildAssertion(clientID, userID, DeveloperEditionEntityType.USER);</pre>
+ */
+public class JWTAssertionBuilder {
+    private static final String JWT_AUDIENCE = "https://api.box.com/oauth2/token";
+    private static final int JWT_ID_LENGTH = 64;
+    private static final float JWT_LIFETIME_MINUTES = 1.0f;
+
+    private final String publicKeyID;
+    private final String privateKey;
+    private final String privateKeyPassword;
+    private final String algorithmIdentifier;
+
+    private volatile PrivateKey decryptedPrivateKey;
+
+    /**
+     * Constructs a JWTAssertionBuilder that signs assertions with the key described by encryption preferences. Later
+     * changes to the preferences don't affect the builder.
+     * @param encryptionPref the encryption preferences for signing the JWT.
+     */
+    public JWTAssertionBuilder(JWTEncryptionPreferences encryptionPref) {
+        this.publicKeyID = encryptionPref.getPublicKeyID();
+        this.privateKey = encryptionPref.getPrivateKey();
+        this.privateKeyPassword = encryptionPref.getPrivateKeyPassword();
+        this.algorithmIdentifier = getAlgorithmIdentifier(encryptionPref.getEncryptionAlgorithm());
+    }
+
+    /**
+     * Builds a signed JWT assertion for an enterprise or user.
+     * @param  clientID   the client ID of the application requesting an access token.
+     * @param  entityID   the enterprise ID or user ID.
+     * @param  entityType the type of entityID.
+     * @return            the compact serialization of the signed assertion.
+     * @throws BoxAPIException if the private key can't be parsed or if the assertion can't be signed.
+     */
+    public String buildAssertion(String clientID, String entityID, DeveloperEditionEntityType entityType) {
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer(clientID);
+        claims.setAudience(JWT_AUDIENCE);
+        claims.setExpirationTimeMinutesInTheFuture(JWT_LIFETIME_MINUTES);
+        claims.setSubject(entityID);
+        claims.setClaim("box_sub_type", entityType.toString());
+        claims.setGeneratedJwtId(JWT_ID_LENGTH);
+
+        JsonWebSignature jws = new JsonWebSignature();
+        jws.setPayload(claims.toJson());
+        jws.setKey(this.getDecryptedPrivateKey());
+        jws.setAlgorithmHeaderValue(this.algorithmIdentifier);
+        jws.setHeader("typ", "JWT");
+        if ((this.publicKeyID != null) && !this.publicKeyID.isEmpty()) {
+            jws.setHeader("kid", this.publicKeyID);
+        }
+
+        try {
+            return jws.getCompactSerialization();
+        } catch (JoseException e) {
+            throw new BoxAPIException("Error serializing JSON Web Token assertion.", e);
+        }
+    }
+
+    PrivateKey getDecryptedPrivateKey() {
+        // Racing threads may both decrypt the key the first time, which is harmless since the result is the same.
+        PrivateKey key = this.decryptedPrivateKey;
+        if (key == null) {
+            key = this.decryptPrivateKey();
+            this.decryptedPrivateKey = key;
+        }
+
+        return key;
+    }
+
+    private PrivateKey decryptPrivateKey() {
+        PrivateKey key;
+
+        try {
+            PEMParser keyReader = new PEMParser(new StringReader(this.privateKey));
+            Object keyPair = keyReader.readObject();
+            keyReader.close();
+
+            if (keyPair instanceof PEMEncryptedKeyPair) {
+                JcePEMDecryptorProviderBuilder builder = new JcePEMDecryptorProviderBuilder();
+                PEMDecryptorProvider decryptionProvider = builder.build(this.privateKeyPassword.toCharArray());
+                keyPair = ((PEMEncryptedKeyPair) keyPair).decryptKeyPair(decryptionProvider);
+            }
+
+            PrivateKeyInfo keyInfo = ((PEMKeyPair) keyPair).getPrivateKeyInfo();
+            key = (new JcaPEMKeyConverter()).getPrivateKey(keyInfo);
+        } catch (IOException e) {
+            throw new BoxAPIException("Error parsing private key for Box Developer Edition.", e);
+        }
+
+        return key;
+    }
+
+    private static String getAlgorithmIdentifier(EncryptionAlgorithm encryptionAlgorithm) {
+        String algorithmId = AlgorithmIdentifiers.RSA_USING_SHA256;
+        if (encryptionAlgorithm == null) {
+            return algorithmId;
+        }
+
+        switch (encryptionAlgorithm) {
+            case RSA_SHA_384:
+                algorithmId = AlgorithmIdentifiers.RSA_USING_SHA384;
+                break;
+            case RSA_SHA_512:
+                algorithmId = AlgorithmIdentifiers.RSA_USING_SHA512;
+                break;
+            case RSA_SHA_256:
+            default:
+                break;
+        }
+
+        return algorithmId;
+    }
+}
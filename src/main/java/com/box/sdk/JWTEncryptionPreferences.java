@@ -9,6 +9,7 @@ public class JWTEncryptionPreferences {
     private String privateKey;
     private String privateKeyPassword;
     private EncryptionAlgorithm encryptionAlgorithm;
+    private volatile JWTAssertionBuilder assertionBuilder;
 
     /**
      * Returns the ID for public key for validating the JWT signature.
@@ -24,6 +25,7 @@ public class JWTEncryptionPreferences {
      */
     public void setPublicKeyID(String publicKeyID) {
         this.publicKeyID = publicKeyID;
+        this.assertionBuilder = null;
     }
 
     /**
@@ -40,6 +42,7 @@ public class JWTEncryptionPreferences {
      */
     public void setPrivateKey(String privateKey) {
         this.privateKey = privateKey;
+        this.assertionBuilder = null;
     }
 
     /**
@@ -56,6 +59,7 @@ public class JWTEncryptionPreferences {
      */
     public void setPrivateKeyPassword(String privateKeyPassword) {
         this.privateKeyPassword = privateKeyPassword;
+        this.assertionBuilder = null;
     }
 
     /**
@@ -72,5 +76,20 @@ public class JWTEncryptionPreferences {
      */
     public void setEncryptionAlgorithm(EncryptionAlgorithm encryptionAlgorithm) {
         this.encryptionAlgorithm = encryptionAlgorithm;
+        this.assertionBuilder = null;
+    }
+
+    /**
+     * Gets the assertion builder for these preferences, creating it the first time it's needed. The builder is replaced
+     * whenever a preference changes so that connections created from the same preferences share a parsed private key.
+     */
+    synchronized JWTAssertionBuilder getAssertionBuilder() {
+        JWTAssertionBuilder builder = this.assertionBuilder;
+        if (builder == null) {
+            builder = new JWTAssertionBuilder(this);
+            this.assertionBuilder = builder;
+        }
+
+        return builder;
     }
 }
@@ -0,0 +1,282 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Downloads a large file by splitting it into segments that are downloaded at the same time with range requests.
+ *
+ * <p>Downloading a file with {@link BoxFile#download} reads it over a single connection, so its throughput is limited
+ * to what one connection can carry and a network error means starting over. A large file download sets the target
+ * file to the size of the file being downloaded and downloads up to a configurable number of segments in parallel on
+ * its own threads with {@link BoxFile#downloadRange}. Each segment is written straight to its place in the target file
+ * with positional writes, so segments can finish in any order without being buffered in memory. After a network error
+ * a segment is requested again from the first byte it's missing. Once every segment has been written, the SHA-1 of the
+ * target file is compared with the SHA-1 that Box reports for the file.</p>
+ *
+ * <pre>LargeFileDownload download = new LargeFileDownload(8, 10, TimeUnit.MINUTES);
+ *BoxFile.Info info = file.downloadLargeFile(channel, download);</pre>
+ */
+public class LargeFileDownload {
+    /**
+     * The default number of segments that are downloaded at the same time.
+     */
+    public static final int DEFAULT_PARALLEL_SEGMENTS = 4;
+
+    /**
+     * The default size of a segment, which is the most that has to be downloaded again after a network error.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The number of times a segment is requested before a network error or a response that ends early fails the
+     * download.
+     */
+    private static final int MAX_SEGMENT_ATTEMPTS = 3;
+
+    private final int parallelSegments;
+    private final long segmentSize;
+    private final long timeout;
+
+    /**
+     * Constructs a LargeFileDownload that downloads {@link #DEFAULT_PARALLEL_SEGMENTS} segments at a time without a
+     * timeout.
+     */
+    public LargeFileDownload() {
+        this(DEFAULT_PARALLEL_SEGMENTS);
+    }
+
+    /**
+     * Constructs a LargeFileDownload without a timeout.
+     * @param parallelSegments the number of segments to download at the same time.
+     */
+    public LargeFileDownload(int parallelSegments) {
+        this(parallelSegments, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a LargeFileDownload with segments of {@link #DEFAULT_SEGMENT_SIZE} bytes.
+     * @param parallelSegments the number of segments to download at the same time.
+     * @param timeout          the maximum amount of time that downloading the segments can take, or 0 for no limit.
+     * @param unit             the unit of the timeout.
+     */
+    public LargeFileDownload(int parallelSegments, long timeout, TimeUnit unit) {
+        this(parallelSegments, DEFAULT_SEGMENT_SIZE, timeout, unit);
+    }
+
+    /**
+     * Constructs a LargeFileDownload.
+     * @param parallelSegments the number of segments to download at the same time.
+     * @param segmentSize      the size of a segment in bytes.
+     * @param timeout          the maximum amount of time that downloading the segments can take, or 0 for no limit.
+     * @param unit             the unit of the timeout.
+     */
+    public LargeFileDownload(int parallelSegments, long segmentSize, long timeout, TimeUnit unit) {
+        if (parallelSegments < 1) {
+            throw new IllegalArgumentException("The number of parallel segments must be at least 1.");
+        }
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("The segment size must be at least 1 byte.");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout can't be negative.");
+        }
+
+        this.parallelSegments = parallelSegments;
+        this.segmentSize = segmentSize;
+        this.timeout = unit.toMillis(timeout);
+    }
+
+    /**
+     * Gets the number of segments that are downloaded at the same time.
+     * @return the number of parallel segments.
+     */
+    public int getParallelSegments() {
+        return this.parallelSegments;
+    }
+
+    /**
+     * Gets the size of a segment.
+     * @return the size of a segment in bytes.
+     */
+    public long getSegmentSize() {
+        return this.segmentSize;
+    }
+
+    /**
+     * Gets the maximum amount of time that downloading the segments can take.
+     * @return the timeout in milliseconds, or 0 if there's no limit.
+     */
+    public long getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Downloads a file into a file channel, replacing the channel's contents.
+     * @param  file    the file to download.
+     * @param  channel a writable channel for the downloaded contents.
+     * @return         the downloaded file's info, with its size and SHA-1.
+     * @throws BoxAPIException if a segment couldn't be downloaded, the target couldn't be written or the downloaded
+     *                         contents don't match the file's SHA-1.
+     */
+    BoxFile.Info download(BoxFile file, FileChannel channel) {
+        BoxFile.Info info = file.getInfo("size", "sha1");
+        long fileSize = info.getSize();
+        try {
+            // Writing the last byte first sets the file to its final size, so that segments can be written anywhere
+            // in it and a download that runs out of disk space fails before anything is downloaded.
+            channel.truncate(fileSize);
+            if (fileSize > 0 && channel.size() < fileSize) {
+                channel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1);
+            }
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't allocate the file being downloaded.", e);
+        }
+
+        this.downloadSegments(file, channel, fileSize);
+
+        if (info.getSha1() != null) {
+            String sha1;
+            try {
+                sha1 = FileTransfers.sha1(channel, fileSize);
+            } catch (IOException e) {
+                throw new BoxAPIException("Couldn't read the downloaded file to verify it.", e);
+            }
+            if (!info.getSha1().equalsIgnoreCase(sha1)) {
+                throw new BoxAPIException("The SHA-1 of the downloaded file " + file.getID()
+                    + " doesn't match the SHA-1 of the file on Box.");
+            }
+        }
+        return info;
+    }
+
+    private void downloadSegments(final BoxFile file, final FileChannel channel, long fileSize) {
+        long deadline = this.timeout > 0 ? System.currentTimeMillis() + this.timeout : 0;
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+        List<BoxFuture<Void>> futures = new ArrayList<BoxFuture<Void>>();
+        ThreadPoolExecutor executor = FileTransfers.createExecutor("box-download", this.parallelSegments);
+        try {
+            for (long offset = 0; offset < fileSize; offset += this.segmentSize) {
+                final long start = offset;
+                final long end = Math.min(offset + this.segmentSize, fileSize) - 1;
+                futures.add(BoxAPIConnection.submit(executor, new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        try {
+                            downloadSegment(file, channel, start, end, failure);
+                            return null;
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                            throw e;
+                        }
+                    }
+                }));
+            }
+
+            for (BoxFuture<Void> future : futures) {
+                FileTransfers.await(future, deadline, "download");
+            }
+        } catch (RuntimeException e) {
+            // Stop the segments that are still downloading at their next write. Their threads aren't interrupted,
+            // since interrupting a thread that's writing to a FileChannel closes the caller's channel.
+            failure.compareAndSet(null, e);
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Downloads a segment, requesting the rest of it again if it fails because of a network error or ends early.
+     */
+    private static void downloadSegment(BoxFile file, FileChannel channel, long start, long end,
+        AtomicReference<RuntimeException> failure) {
+
+        SegmentOutputStream output = new SegmentOutputStream(channel, start, end, failure);
+        for (int attempt = 1; true; attempt++) {
+            if (failure.get() != null) {
+                // Segments that haven't started yet, or are about to be retried, aren't requested once the download
+                // has failed.
+                throw new BoxAPIException("The download was stopped because another segment failed.");
+            }
+            try {
+                file.downloadRange(output, output.getPosition(), end);
+                if (output.getPosition() > end) {
+                    return;
+                }
+                if (attempt >= MAX_SEGMENT_ATTEMPTS) {
+                    throw new BoxAPIException("The download of bytes " + start + "-" + end + " ended early.");
+                }
+            } catch (BoxAPIException e) {
+                if (output.hasFailed() || e.getResponseCode() != 0 || attempt >= MAX_SEGMENT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the bytes of a segment to their place in the target file and keeps track of how much of the segment has
+     * been written, so that a retry can continue where the previous attempt stopped.
+     *
+     * <p>Errors while writing are thrown as BoxAPIExceptions instead of IOExceptions so that they aren't mistaken for
+     * network errors and retried.</p>
+     */
+    private static final class SegmentOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final long end;
+        private final AtomicReference<RuntimeException> failure;
+        private long position;
+        private boolean failed;
+
+        SegmentOutputStream(FileChannel channel, long start, long end, AtomicReference<RuntimeException> failure) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.failure = failure;
+        }
+
+        long getPosition() {
+            return this.position;
+        }
+
+        boolean hasFailed() {
+            return this.failed;
+        }
+
+        @Override
+        public void write(int b) {
+            this.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (this.failure.get() != null) {
+                this.failed = true;
+                throw new BoxAPIException("The download was stopped because another segment failed.");
+            }
+            if (this.position + len - 1 > this.end) {
+                this.failed = true;
+                throw new BoxAPIException("The server sent more than the requested range of the file.");
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            try {
+                while (buffer.hasRemaining()) {
+                    this.position += this.channel.write(buffer, this.position);
+                }
+            } catch (IOException e) {
+                this.failed = true;
+                throw new BoxAPIException("Couldn't write the file being downloaded.", e);
+            }
+        }
+    }
+}
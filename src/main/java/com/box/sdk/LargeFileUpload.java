@@ -0,0 +1,361 @@
+package com.box.sdk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads a large file by splitting it into parts that are uploaded at the same time through an upload session.
+ *
+ * <p>Uploading a file with {@link BoxFolder#uploadFile} sends it in a single request, so its throughput is limited to
+ * what one connection can carry and a network error means starting over. A large file upload reads the file once,
+ * splitting it into parts of the session's part size, and uploads up to a configurable number of parts in parallel on
+ * its own threads. Each part is sent with its SHA-1 digest and is sent again on its own after a network error. The
+ * session is committed with the SHA-1 digest of the whole file, which is computed while the parts are read. If the
+ * upload fails, the session is aborted.</p>
+ *
+ * <p>An upload can be made resumable by giving it a checkpoint file, which holds the upload session's ID, the part
+ * size and the parts that have been uploaded. If a resumable upload fails, its session isn't aborted, and the upload
+ * can be finished later, even by another process, with {@link #resume}, which only uploads the missing parts.</p>
+ *
+ * <p>At most one part more than the number of parallel parts is held in memory at a time, so memory use is bounded by
+ * the part size chosen by the server, which is usually 8 MB.</p>
+ *
+ * <pre>LargeFileUpload upload = new LargeFileUpload(8, 10, TimeUnit.MINUTES);
+ *BoxFile.Info info = folder.uploadLargeFile(stream, "video.mp4", fileSize, upload);</pre>
+ */
+public class LargeFileUpload {
+    /**
+     * The default number of parts that are uploaded at the same time.
+     */
+    public static final int DEFAULT_PARALLEL_PARTS = 4;
+
+    /**
+     * The number of times a part is sent before a network error fails the upload. Errors returned by the API are
+     * retried by the connection's retry policy instead.
+     */
+    private static final int MAX_PART_ATTEMPTS = 3;
+
+    private final int parallelParts;
+    private final long timeout;
+
+    /**
+     * Constructs a LargeFileUpload that uploads {@link #DEFAULT_PARALLEL_PARTS} parts at a time without a timeout.
+     */
+    public LargeFileUpload() {
+        this(DEFAULT_PARALLEL_PARTS);
+    }
+
+    /**
+     * Constructs a LargeFileUpload without a timeout.
+     * @param parallelParts the number of parts to upload at the same time.
+     */
+    public LargeFileUpload(int parallelParts) {
+        this(parallelParts, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a LargeFileUpload.
+     * @param parallelParts the number of parts to upload at the same time.
+     * @param timeout       the maximum amount of time that uploading the parts can take, or 0 for no limit.
+     * @param unit          the unit of the timeout.
+     */
+    public LargeFileUpload(int parallelParts, long timeout, TimeUnit unit) {
+        if (parallelParts < 1) {
+            throw new IllegalArgumentException("The number of parallel parts must be at least 1.");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout can't be negative.");
+        }
+
+        this.parallelParts = parallelParts;
+        this.timeout = unit.toMillis(timeout);
+    }
+
+    /**
+     * Gets the number of parts that are uploaded at the same time.
+     * @return the number of parallel parts.
+     */
+    public int getParallelParts() {
+        return this.parallelParts;
+    }
+
+    /**
+     * Gets the maximum amount of time that uploading the parts can take.
+     * @return the timeout in milliseconds, or 0 if there's no limit.
+     */
+    public long getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Resumes an upload that was started with a checkpoint file, such as by {@link BoxFolder#uploadLargeFile(
+     * InputStream, String, long, LargeFileUpload, File)}, after it failed or the process that started it stopped.
+     *
+     * <p>The parts that the upload session already has are listed from the server, and only the missing parts are
+     * uploaded. The stream must contain the same file as the original upload, from its first byte, since the whole
+     * file is read again to compute its SHA-1 digest. Once the upload is committed, the checkpoint file is deleted.</p>
+     *
+     * @param  api            the API connection to use.
+     * @param  stream         a stream containing the contents of the file, from its first byte.
+     * @param  checkpointFile the checkpoint file of the upload.
+     * @return                the uploaded file's info.
+     * @throws BoxAPIException if the checkpoint couldn't be read, the upload session has expired or the upload fails
+     *                         again.
+     */
+    public BoxFile.Info resume(BoxAPIConnection api, InputStream stream, File checkpointFile) {
+        UploadCheckpoint checkpoint = UploadCheckpoint.read(checkpointFile);
+        BoxFileUploadSession session = new BoxFileUploadSession(api, checkpoint.getSessionID());
+        checkpoint.setParts(session.listParts());
+        return this.uploadAndCommit(session, checkpoint.getPartSize(), stream, checkpoint.getFileSize(), checkpoint);
+    }
+
+    /**
+     * Uploads a new file to a folder.
+     * @param  api            the API connection to use.
+     * @param  folderID       the ID of the folder to upload the file to.
+     * @param  stream         a stream containing the contents of the file.
+     * @param  fileName       the name to give the uploaded file.
+     * @param  fileSize       the size of the file in bytes.
+     * @param  checkpointFile the file to save the upload's progress to so that it can be resumed, or null if the
+     *                        upload shouldn't be resumable.
+     * @return                the uploaded file's info.
+     */
+    BoxFile.Info upload(BoxAPIConnection api, String folderID, InputStream stream, String fileName, long fileSize,
+        File checkpointFile) {
+
+        BoxFileUploadSession.Info session = BoxFileUploadSession.createForNewFile(api, folderID, fileName, fileSize);
+        return this.uploadAndCommit(session, stream, fileSize, checkpointFile);
+    }
+
+    /**
+     * Uploads a new version of a file.
+     * @param  api            the API connection to use.
+     * @param  fileID         the ID of the file to upload a new version of.
+     * @param  stream         a stream containing the contents of the new version.
+     * @param  fileSize       the size of the new version in bytes.
+     * @param  checkpointFile the file to save the upload's progress to so that it can be resumed, or null if the
+     *                        upload shouldn't be resumable.
+     * @return                the uploaded file's info.
+     */
+    BoxFile.Info uploadVersion(BoxAPIConnection api, String fileID, InputStream stream, long fileSize,
+        File checkpointFile) {
+
+        BoxFileUploadSession.Info session = BoxFileUploadSession.createForNewVersion(api, fileID, fileSize);
+        return this.uploadAndCommit(session, stream, fileSize, checkpointFile);
+    }
+
+    private BoxFile.Info uploadAndCommit(BoxFileUploadSession.Info sessionInfo, InputStream stream, long fileSize,
+        File checkpointFile) {
+
+        UploadCheckpoint checkpoint = null;
+        if (checkpointFile != null) {
+            checkpoint = new UploadCheckpoint(checkpointFile, sessionInfo.getID(), fileSize,
+                sessionInfo.getPartSize());
+            checkpoint.write();
+        }
+
+        return this.uploadAndCommit(sessionInfo.getResource(), sessionInfo.getPartSize(), stream, fileSize,
+            checkpoint);
+    }
+
+    private BoxFile.Info uploadAndCommit(BoxFileUploadSession session, int partSize, InputStream stream,
+        long fileSize, UploadCheckpoint checkpoint) {
+
+        BoxFile.Info info;
+        try {
+            MessageDigest fileDigest = FileTransfers.createSHA1Digest();
+            List<BoxFileUploadSessionPart> parts = this.uploadParts(session, partSize, stream, fileSize, fileDigest,
+                checkpoint);
+            info = session.commit(Base64.encode(fileDigest.digest()), parts);
+        } catch (RuntimeException e) {
+            if (checkpoint == null) {
+                try {
+                    session.abort();
+                } catch (BoxAPIException abortError) {
+                    // The original error is more useful than the abort's error, and the session expires on its own.
+                }
+            }
+            throw e;
+        }
+
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+        return info;
+    }
+
+    /**
+     * Reads a stream part by part and uploads the parts in parallel, skipping the parts that have already been
+     * uploaded according to a checkpoint.
+     * @param  session    the upload session to upload the parts to.
+     * @param  partSize   the session's part size.
+     * @param  stream     a stream containing the contents of the file.
+     * @param  fileSize   the size of the file in bytes.
+     * @param  fileDigest a digest that's updated with every byte of the file.
+     * @param  checkpoint the checkpoint that's updated after every part, or null if the upload isn't resumable.
+     * @return            the uploaded parts, ordered by their offset.
+     */
+    List<BoxFileUploadSessionPart> uploadParts(final BoxFileUploadSession session, int partSize, InputStream stream,
+        final long fileSize, MessageDigest fileDigest, final UploadCheckpoint checkpoint) {
+
+        if (partSize <= 0) {
+            throw new BoxAPIException("The upload session didn't specify a valid part size.");
+        }
+
+        Map<Long, BoxFileUploadSessionPart> uploadedParts = Collections.emptyMap();
+        if (checkpoint != null) {
+            uploadedParts = checkpoint.getParts();
+        }
+
+        long deadline = this.timeout > 0 ? System.currentTimeMillis() + this.timeout : 0;
+        final Semaphore buffers = new Semaphore(this.parallelParts + 1);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+        List<BoxFuture<BoxFileUploadSessionPart>> futures = new ArrayList<BoxFuture<BoxFileUploadSessionPart>>();
+        ThreadPoolExecutor executor = FileTransfers.createExecutor("box-upload", this.parallelParts);
+        try {
+            long offset = 0;
+            while (offset < fileSize) {
+                final int length = (int) Math.min(partSize, fileSize - offset);
+                final BoxFileUploadSessionPart uploadedPart = uploadedParts.get(offset);
+                if (uploadedPart != null && uploadedPart.getSize() == length) {
+                    // The part only has to be read for the digest of the whole file.
+                    skipFully(stream, length, fileDigest);
+                    BoxFuture<BoxFileUploadSessionPart> future = new BoxFuture<BoxFileUploadSessionPart>(
+                        new Callable<BoxFileUploadSessionPart>() {
+                            @Override
+                            public BoxFileUploadSessionPart call() {
+                                return uploadedPart;
+                            }
+                        });
+                    future.run();
+                    futures.add(future);
+                    offset += length;
+                    continue;
+                }
+
+                acquire(buffers, deadline);
+                checkFailure(failure);
+
+                final byte[] data = new byte[length];
+                readFully(stream, data);
+                fileDigest.update(data);
+
+                final long partOffset = offset;
+                futures.add(BoxAPIConnection.submit(executor, new Callable<BoxFileUploadSessionPart>() {
+                    @Override
+                    public BoxFileUploadSessionPart call() {
+                        try {
+                            // Parts that haven't started when the upload fails aren't sent.
+                            checkFailure(failure);
+                            String digest = Base64.encode(FileTransfers.createSHA1Digest().digest(data));
+                            BoxFileUploadSessionPart part = uploadPart(session, data, length, partOffset, fileSize,
+                                digest);
+                            if (checkpoint != null) {
+                                checkpoint.addPart(part);
+                            }
+                            return part;
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                            throw e;
+                        } finally {
+                            buffers.release();
+                        }
+                    }
+                }));
+                offset += length;
+            }
+
+            List<BoxFileUploadSessionPart> parts = new ArrayList<BoxFileUploadSessionPart>(futures.size());
+            for (BoxFuture<BoxFileUploadSessionPart> future : futures) {
+                parts.add(FileTransfers.await(future, deadline, "upload"));
+            }
+            return parts;
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Uploads a part, sending it again if it fails because of a network error. Parts can be sent any number of times
+     * since a part replaces any earlier copy of itself.
+     */
+    private static BoxFileUploadSessionPart uploadPart(BoxFileUploadSession session, byte[] data, int length,
+        long offset, long fileSize, String digest) {
+
+        for (int attempt = 1; true; attempt++) {
+            try {
+                return session.uploadPart(data, length, offset, fileSize, digest);
+            } catch (BoxAPIException e) {
+                if (e.getResponseCode() != 0 || attempt >= MAX_PART_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void acquire(Semaphore buffers, long deadline) {
+        try {
+            if (deadline == 0) {
+                buffers.acquire();
+            } else if (!buffers.tryAcquire(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BoxAPIException("The upload didn't complete within its timeout.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while uploading a file.", e);
+        }
+    }
+
+    private static void skipFully(InputStream stream, int length, MessageDigest digest) {
+        byte[] buffer = new byte[8192];
+        int remaining = length;
+        try {
+            while (remaining > 0) {
+                int n = stream.read(buffer, 0, Math.min(buffer.length, remaining));
+                if (n == -1) {
+                    throw new BoxAPIException("The stream ended before the size of the file was read.");
+                }
+                digest.update(buffer, 0, n);
+                remaining -= n;
+            }
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't read the file being uploaded.", e);
+        }
+    }
+
+    private static void checkFailure(AtomicReference<RuntimeException> failure) {
+        RuntimeException error = failure.get();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static void readFully(InputStream stream, byte[] data) {
+        int read = 0;
+        try {
+            while (read < data.length) {
+                int n = stream.read(data, read, data.length - read);
+                if (n == -1) {
+                    throw new BoxAPIException("The stream ended before the size of the file was read.");
+                }
+                read += n;
+            }
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't read the file being uploaded.", e);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.box.sdk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * An access token cache that's stored in a memory-mapped file, so that tokens survive restarts and can be shared by
+ * several processes on the same host.
+ *
+ * <p>A process that restarts with the same cache file immediately reuses the tokens that are still valid instead of
+ * authenticating every user again. The file is divided into fixed-size slots that are grouped into buckets, and each
+ * bucket is guarded by a file lock, so any number of JVMs can read and write the cache at the same time.</p>
+ *
+ * <pre>MappedFileAccessTokenCache accessTokenCache = new MappedFileAccessTokenCache(new File("box-tokens.cache"));
+ *BoxDeveloperEditionAPIConnection api = BoxDeveloperEditionAPIConnection.getAppUserConnection(userID, clientID,
+ *    clientSecret, encryptionPref, accessTokenCache);</pre>
+ *
+ * <p>When a bucket is full, expired entries are replaced first and then the entry that was stored the longest time ago.
+ * Entries whose key and value are larger than the maximum entry size aren't stored. Entries whose access token has
+ * expired are no longer returned.</p>
+ *
+ * <p>The cache file contains access tokens and should only be readable by the user that runs the application. A new
+ * cache file is created with read and write permissions for its owner only, but the permissions of an existing file
+ * aren't changed. Only one MappedFileAccessTokenCache should be open for a given file in each JVM, since file locks are
+ * held on behalf of the whole JVM.</p>
+ */
+public class MappedFileAccessTokenCache implements IAccessTokenCache, Closeable {
+    /**
+     * The default maximum number of entries stored in a new cache file.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    /**
+     * The default maximum size, in bytes, of an entry's key and value combined.
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x424f5843;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int BUCKET_COUNT_OFFSET = 8;
+    private static final int SLOT_SIZE_OFFSET = 12;
+
+    private static final int SLOTS_PER_BUCKET = 8;
+    private static final int SLOT_HEADER_SIZE = 28;
+    private static final int KEY_HASH_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = 4;
+    private static final int VALUE_LENGTH_OFFSET = 8;
+    private static final int EXPIRES_AT_OFFSET = 12;
+    private static final int STORED_AT_OFFSET = 20;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int bucketCount;
+    private final int slotSize;
+    private final Object[] bucketLocks;
+
+    /**
+     * Opens a cache file, creating it with room for {@link #DEFAULT_MAX_ENTRIES} entries if it doesn't exist yet.
+     * @param  file        the cache file.
+     * @throws IOException if the file couldn't be opened or was created by an incompatible version of the SDK.
+     */
+    public MappedFileAccessTokenCache(File file) throws IOException {
+        this(file, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_ENTRY_SIZE);
+    }
+
+    /**
+     * Opens a cache file, creating it if it doesn't exist yet. If the file already exists, it keeps the number of
+     * entries and the entry size that it was created with.
+     * @param  file         the cache file.
+     * @param  maxEntries   the maximum number of entries to store if the file is created.
+     * @param  maxEntrySize the maximum size, in bytes, of an entry's key and value combined if the file is created.
+     * @throws IOException  if the file couldn't be opened or was created by an incompatible version of the SDK.
+     */
+    public MappedFileAccessTokenCache(File file, int maxEntries, int maxEntrySize) throws IOException {
+        if (maxEntries < 1 || maxEntrySize < 1) {
+            throw new IllegalArgumentException("The maximum number of entries and the maximum entry size must be at "
+                + "least 1.");
+        }
+
+        if (file.createNewFile()) {
+            restrictToOwner(file);
+        }
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+
+        int[] geometry;
+        try {
+            geometry = this.openHeader((maxEntries + SLOTS_PER_BUCKET - 1) / SLOTS_PER_BUCKET,
+                SLOT_HEADER_SIZE + maxEntrySize);
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            this.file.close();
+            throw e;
+        }
+
+        this.bucketCount = geometry[0];
+        this.slotSize = geometry[1];
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+            getFileSize(this.bucketCount, this.slotSize));
+        this.bucketLocks = new Object[this.bucketCount];
+        for (int i = 0; i < this.bucketCount; i++) {
+            this.bucketLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Get an entry from the cache.
+     * @param key key to look for.
+     * @return    access token information, or null if there isn't an entry for the key, if its access token has
+     *            expired or if the cache file couldn't be read.
+     */
+    @Override
+    public String get(String key) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        int hash = hash(key);
+        int bucket = this.bucketFor(hash);
+        synchronized (this.bucketLocks[bucket]) {
+            FileLock lock;
+            try {
+                lock = this.lockBucket(bucket, true);
+            } catch (IOException e) {
+                return null;
+            }
+
+            try {
+                int slot = this.findSlot(bucket, hash, keyBytes);
+                if (slot < 0 || this.buffer.getLong(slot + EXPIRES_AT_OFFSET) <= System.currentTimeMillis()) {
+                    return null;
+                }
+
+                byte[] valueBytes = this.read(slot + SLOT_HEADER_SIZE + keyBytes.length,
+                    this.buffer.getInt(slot + VALUE_LENGTH_OFFSET));
+                return new String(valueBytes, UTF_8);
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /**
+     * Add an entry to the cache. The entry isn't stored if it's larger than the maximum entry size or if the cache
+     * file couldn't be written.
+     * @param key   key to use.
+     * @param value access token information to store.
+     */
+    @Override
+    public void put(String key, String value) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        byte[] valueBytes = value.getBytes(UTF_8);
+        if (keyBytes.length + valueBytes.length > this.slotSize - SLOT_HEADER_SIZE) {
+            return;
+        }
+
+        long expiresAt = ConcurrentAccessTokenCache.Entry.parse(value).getExpiresAt();
+        int hash = hash(key);
+        int bucket = this.bucketFor(hash);
+        synchronized (this.bucketLocks[bucket]) {
+            FileLock lock;
+            try {
+                lock = this.lockBucket(bucket, false);
+            } catch (IOException e) {
+                return;
+            }
+
+            try {
+                long now = System.currentTimeMillis();
+                int slot = this.findSlot(bucket, hash, keyBytes);
+                if (slot < 0) {
+                    slot = this.findReplaceableSlot(bucket, now);
+                }
+
+                // The key length is written last so that a slot is never read while it's only partially written.
+                this.buffer.putInt(slot + KEY_LENGTH_OFFSET, 0);
+                this.buffer.putInt(slot + KEY_HASH_OFFSET, hash);
+                this.buffer.putInt(slot + VALUE_LENGTH_OFFSET, valueBytes.length);
+                this.buffer.putLong(slot + EXPIRES_AT_OFFSET, expiresAt);
+                this.buffer.putLong(slot + STORED_AT_OFFSET, now);
+                this.write(slot + SLOT_HEADER_SIZE, keyBytes);
+                this.write(slot + SLOT_HEADER_SIZE + keyBytes.length, valueBytes);
+                this.buffer.putInt(slot + KEY_LENGTH_OFFSET, keyBytes.length);
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /**
+     * Gets the maximum number of entries that can be stored in the cache file.
+     * @return the maximum number of entries.
+     */
+    public int getMaxEntries() {
+        return this.bucketCount * SLOTS_PER_BUCKET;
+    }
+
+    /**
+     * Closes the cache file. Entries that have been stored remain in the file.
+     * @throws IOException if the file couldn't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.file.close();
+    }
+
+    private int[] openHeader(int newBucketCount, int newSlotSize) throws IOException {
+        // The header is locked so that processes opening a new file at the same time don't both initialize it.
+        FileLock lock = this.channel.lock(0, HEADER_SIZE, false);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (this.channel.size() >= HEADER_SIZE) {
+                this.channel.read(header, 0);
+                header.flip();
+            }
+
+            if (header.limit() == HEADER_SIZE && header.getInt(MAGIC_OFFSET) != 0) {
+                int existingBucketCount = header.getInt(BUCKET_COUNT_OFFSET);
+                int existingSlotSize = header.getInt(SLOT_SIZE_OFFSET);
+                if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION
+                    || existingBucketCount < 1 || existingSlotSize <= SLOT_HEADER_SIZE) {
+                    throw new IOException("The access token cache file is invalid or was created by an incompatible "
+                        + "version of the SDK.");
+                }
+
+                if (getFileSize(existingBucketCount, existingSlotSize) > Integer.MAX_VALUE) {
+                    throw new IOException("The access token cache file is too large to be mapped into memory.");
+                }
+
+                return new int[] {existingBucketCount, existingSlotSize};
+            }
+
+            if (getFileSize(newBucketCount, newSlotSize) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The access token cache file would be too large to be mapped into "
+                    + "memory.");
+            }
+
+            this.file.setLength(getFileSize(newBucketCount, newSlotSize));
+            header.clear();
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(BUCKET_COUNT_OFFSET, newBucketCount);
+            header.putInt(SLOT_SIZE_OFFSET, newSlotSize);
+            this.channel.write(header, 0);
+            return new int[] {newBucketCount, newSlotSize};
+        } finally {
+            lock.release();
+        }
+    }
+
+    private int bucketFor(int hash) {
+        return (hash & Integer.MAX_VALUE) % this.bucketCount;
+    }
+
+    private int getBucketOffset(int bucket) {
+        return HEADER_SIZE + bucket * SLOTS_PER_BUCKET * this.slotSize;
+    }
+
+    private FileLock lockBucket(int bucket, boolean shared) throws IOException {
+        return this.channel.lock(this.getBucketOffset(bucket), SLOTS_PER_BUCKET * this.slotSize, shared);
+    }
+
+    private int findSlot(int bucket, int hash, byte[] keyBytes) {
+        int bucketOffset = this.getBucketOffset(bucket);
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            int slot = bucketOffset + i * this.slotSize;
+            int keyLength = this.buffer.getInt(slot + KEY_LENGTH_OFFSET);
+            if (keyLength != keyBytes.length || this.buffer.getInt(slot + KEY_HASH_OFFSET) != hash) {
+                continue;
+            }
+
+            int valueLength = this.buffer.getInt(slot + VALUE_LENGTH_OFFSET);
+            if (valueLength < 0 || keyLength + valueLength > this.slotSize - SLOT_HEADER_SIZE) {
+                continue;
+            }
+
+            byte[] storedKeyBytes = this.read(slot + SLOT_HEADER_SIZE, keyLength);
+            if (Arrays.equals(storedKeyBytes, keyBytes)) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    private int findReplaceableSlot(int bucket, long now) {
+        int bucketOffset = this.getBucketOffset(bucket);
+        int oldestSlot = bucketOffset;
+        long oldestStoredAt = Long.MAX_VALUE;
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            int slot = bucketOffset + i * this.slotSize;
+            if (this.buffer.getInt(slot + KEY_LENGTH_OFFSET) == 0
+                || this.buffer.getLong(slot + EXPIRES_AT_OFFSET) <= now) {
+                return slot;
+            }
+
+            long storedAt = this.buffer.getLong(slot + STORED_AT_OFFSET);
+            if (storedAt < oldestStoredAt) {
+                oldestSlot = slot;
+                oldestStoredAt = storedAt;
+            }
+        }
+
+        return oldestSlot;
+    }
+
+    private byte[] read(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private void write(int offset, byte[] bytes) {
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset);
+        view.put(bytes);
+    }
+
+    /**
+     * Removes the read and write permissions of everyone but the owner from a newly created file. On file systems that
+     * don't support owner-only permissions, such as on Windows, the file keeps the permissions of its directory.
+     */
+    private static void restrictToOwner(File file) {
+        file.setReadable(false, false);
+        file.setReadable(true, true);
+        file.setWritable(false, false);
+        file.setWritable(true, true);
+    }
+
+    private static long getFileSize(int bucketCount, int slotSize) {
+        return HEADER_SIZE + (long) bucketCount * SLOTS_PER_BUCKET * slotSize;
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        return hash ^ (hash >>> 7) ^ (hash >>> 4);
+    }
+
+    private static void release(FileLock lock) {
+        try {
+            lock.release();
+        } catch (IOException e) {
+            // The lock is released anyway when the channel is closed.
+        }
+    }
+}
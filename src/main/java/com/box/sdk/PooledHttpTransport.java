@@ -0,0 +1,452 @@
+package com.box.sdk;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * An {@link HttpTransport} that keeps its own pool of keep-alive connections for each host.
+ *
+ * <p>Unlike {@link DefaultHttpTransport}, which relies on the JVM-wide keep-alive cache, this transport gives every
+ * host (for example, api.box.com and upload.box.com) an explicit limit on the number of connections that can be open at
+ * once. Requests that exceed the limit wait for a connection to be released, up to the request's connect timeout. Idle
+ * connections are reused in most-recently-used order and are discarded once they've been idle for longer than the
+ * keep-alive timeout, or once they've been used for the maximum number of requests per connection.</p>
+ *
+ * <p>Connections can be opened ahead of traffic with {@link #warmUp} (or {@link BoxAPIConnection#warmUp}) so that the
+ * first requests don't pay for DNS lookups and TCP and TLS handshakes, and idle connections can be closed in the
+ * background with {@link #setIdleEvictionInterval}. The number of connections created and reused shows how well the
+ * pool is working.</p>
+ *
+ * <pre>PooledHttpTransport transport = new PooledHttpTransport(20);
+ *transport.setMaxConnections("upload.box.com", 4);
+ *api.setTransport(transport);</pre>
+ *
+ * <p>A single transport can be shared by any number of API connections. Connections that go through a proxy are
+ * opened with {@link DefaultHttpTransport} instead of being pooled.</p>
+ */
+public class PooledHttpTransport implements HttpTransport {
+    /**
+     * The default maximum number of connections that can be open to a single host at once.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 10;
+
+    /**
+     * The default amount of time, in milliseconds, that an idle connection is kept open.
+     */
+    public static final long DEFAULT_KEEP_ALIVE_TIMEOUT = 30000;
+
+    private final ConcurrentMap<String, HttpConnectionPool> pools;
+    private final ConcurrentMap<String, Integer> hostLimits;
+
+    private volatile int maxConnectionsPerHost;
+    private volatile long keepAliveTimeout;
+    private volatile int socketBufferSize;
+    private volatile SSLSocketFactory sslSocketFactory;
+    private volatile HostnameVerifier hostnameVerifier;
+    private volatile int maxRequestsPerConnection;
+    private long idleEvictionInterval;
+    private ScheduledFuture<?> idleEvictionTask;
+
+    /**
+     * Constructs a PooledHttpTransport that allows up to {@link #DEFAULT_MAX_CONNECTIONS_PER_HOST} connections to each
+     * host.
+     */
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Constructs a PooledHttpTransport with a limit on the number of connections to each host.
+     * @param maxConnectionsPerHost the maximum number of connections that can be open to a single host at once.
+     */
+    public PooledHttpTransport(int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("The maximum number of connections per host must be at least 1.");
+        }
+
+        this.pools = new ConcurrentHashMap<String, HttpConnectionPool>();
+        this.hostLimits = new ConcurrentHashMap<String, Integer>();
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.keepAliveTimeout = DEFAULT_KEEP_ALIVE_TIMEOUT;
+        this.sslSocketFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+        this.hostnameVerifier = new CertificateHostnameVerifier();
+    }
+
+    @Override
+    public HttpURLConnection openConnection(URL url, Proxy proxy) throws IOException {
+        String protocol = url.getProtocol();
+        boolean secure = protocol.equalsIgnoreCase("https");
+        boolean direct = (proxy == null || proxy.type() == Proxy.Type.DIRECT);
+        if (!direct || (!secure && !protocol.equalsIgnoreCase("http"))) {
+            return DefaultHttpTransport.getInstance().openConnection(url, proxy);
+        }
+
+        return new PooledHttpURLConnection(url, this.getPool(url, secure));
+    }
+
+    /**
+     * Gets the maximum number of connections that can be open to a single host at once, unless the host has its own
+     * limit.
+     * @return the maximum number of connections per host.
+     */
+    public int getMaxConnectionsPerHost() {
+        return this.maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of connections that can be open to a single host at once, unless the host has its own
+     * limit. The limit only applies to hosts that this transport hasn't connected to yet.
+     * @param maxConnectionsPerHost the maximum number of connections per host.
+     */
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("The maximum number of connections per host must be at least 1.");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of connections that can be open to a specific host at once. The limit must be set before
+     * this transport first connects to the host.
+     * @param host           the host name, such as "upload.box.com".
+     * @param maxConnections the maximum number of connections to the host.
+     */
+    public void setMaxConnections(String host, int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be at least 1.");
+        }
+        this.hostLimits.put(host.toLowerCase(Locale.ENGLISH), maxConnections);
+    }
+
+    /**
+     * Gets the amount of time that an idle connection is kept open before it's discarded.
+     * @return the keep-alive timeout in milliseconds.
+     */
+    public long getKeepAliveTimeout() {
+        return this.keepAliveTimeout;
+    }
+
+    /**
+     * Sets the amount of time that an idle connection is kept open before it's discarded. This should be shorter than
+     * the server's own keep-alive timeout so that connections aren't reused after the server has closed them.
+     * @param keepAliveTimeout the keep-alive timeout in milliseconds.
+     */
+    public void setKeepAliveTimeout(long keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    /**
+     * Gets the maximum number of requests that are sent over a single connection before it's closed.
+     * @return the maximum number of requests per connection, or 0 if there's no limit.
+     */
+    public int getMaxRequestsPerConnection() {
+        return this.maxRequestsPerConnection;
+    }
+
+    /**
+     * Sets the maximum number of requests that are sent over a single connection before it's closed. Limiting the
+     * lifetime of connections spreads them over the servers behind a load balancer as those servers change.
+     * @param maxRequestsPerConnection the maximum number of requests per connection, or 0 for no limit.
+     */
+    public void setMaxRequestsPerConnection(int maxRequestsPerConnection) {
+        if (maxRequestsPerConnection < 0) {
+            throw new IllegalArgumentException("The maximum number of requests per connection can't be negative.");
+        }
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+    }
+
+    /**
+     * Gets how often idle connections are checked in the background and closed once they've been idle for longer than
+     * the keep-alive timeout.
+     * @return the idle eviction interval in milliseconds, or 0 if idle connections are only closed when they'd be
+     *         reused.
+     */
+    public synchronized long getIdleEvictionInterval() {
+        return this.idleEvictionInterval;
+    }
+
+    /**
+     * Sets how often idle connections are checked in the background and closed once they've been idle for longer than
+     * the keep-alive timeout. Without background eviction, expired connections stay open until a request would have
+     * reused them.
+     * @param idleEvictionInterval the idle eviction interval in milliseconds, or 0 to disable background eviction.
+     */
+    public synchronized void setIdleEvictionInterval(long idleEvictionInterval) {
+        if (idleEvictionInterval < 0) {
+            throw new IllegalArgumentException("The idle eviction interval can't be negative.");
+        }
+
+        if (this.idleEvictionTask != null) {
+            this.idleEvictionTask.cancel(false);
+            this.idleEvictionTask = null;
+        }
+
+        this.idleEvictionInterval = idleEvictionInterval;
+        if (idleEvictionInterval > 0) {
+            this.idleEvictionTask = RequestTimer.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    PooledHttpTransport.this.evictIdleConnections();
+                }
+            }, idleEvictionInterval);
+        }
+    }
+
+    /**
+     * Gets the size of the send and receive buffers of new sockets.
+     * @return the socket buffer size in bytes, or 0 if the operating system's default is used.
+     */
+    public int getSocketBufferSize() {
+        return this.socketBufferSize;
+    }
+
+    /**
+     * Sets the size of the send and receive buffers of new sockets. Larger buffers can improve the throughput of
+     * uploads and downloads over connections with high latency.
+     * @param socketBufferSize the socket buffer size in bytes, or 0 to use the operating system's default.
+     */
+    public void setSocketBufferSize(int socketBufferSize) {
+        this.socketBufferSize = socketBufferSize;
+    }
+
+    /**
+     * Gets the factory used to create TLS sockets.
+     * @return the SSL socket factory.
+     */
+    public SSLSocketFactory getSSLSocketFactory() {
+        return this.sslSocketFactory;
+    }
+
+    /**
+     * Sets the factory used to create TLS sockets. Defaults to {@link HttpsURLConnection#getDefaultSSLSocketFactory}.
+     * @param sslSocketFactory the SSL socket factory.
+     */
+    public void setSSLSocketFactory(SSLSocketFactory sslSocketFactory) {
+        this.sslSocketFactory = sslSocketFactory;
+    }
+
+    /**
+     * Gets the verifier used to check that a server's certificate matches its host name.
+     * @return the hostname verifier.
+     */
+    public HostnameVerifier getHostnameVerifier() {
+        return this.hostnameVerifier;
+    }
+
+    /**
+     * Sets the verifier used to check that a server's certificate matches its host name. By default, the host name
+     * must match one of the certificate's DNS subject alternative names.
+     * @param hostnameVerifier the hostname verifier.
+     */
+    public void setHostnameVerifier(HostnameVerifier hostnameVerifier) {
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    /**
+     * Gets the number of connections that are currently sending a request or waiting for a response body to be read.
+     * @return the number of leased connections across all hosts.
+     */
+    public int getLeasedConnectionCount() {
+        int count = 0;
+        for (HttpConnectionPool pool : this.pools.values()) {
+            count += pool.getLeasedCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of open connections that are waiting to be reused.
+     * @return the number of idle connections across all hosts.
+     */
+    public int getIdleConnectionCount() {
+        int count = 0;
+        for (HttpConnectionPool pool : this.pools.values()) {
+            count += pool.getIdleCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of connections that have been opened, including connections opened by {@link #warmUp}.
+     * @return the number of connections created across all hosts.
+     */
+    public long getCreatedConnectionCount() {
+        long count = 0;
+        for (HttpConnectionPool pool : this.pools.values()) {
+            count += pool.getCreatedCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of times that a request was sent over an idle connection instead of a new one.
+     * @return the number of times connections were reused across all hosts.
+     */
+    public long getReusedConnectionCount() {
+        long count = 0;
+        for (HttpConnectionPool pool : this.pools.values()) {
+            count += pool.getReusedCount();
+        }
+        return count;
+    }
+
+    /**
+     * Opens connections to the host of a URL ahead of traffic, so that there are a number of connections to the host
+     * that requests can reuse. Connections that are already open count towards the number, and the number is capped at
+     * the host's connection limit.
+     * @param  url            a URL on the host to connect to.
+     * @param  connections    the number of connections to have open to the host.
+     * @param  connectTimeout the maximum time to wait for each connection to be established, in milliseconds, or 0 to
+     *                        wait indefinitely.
+     * @return                the number of connections that were opened.
+     * @throws IOException if a connection couldn't be opened.
+     */
+    public int warmUp(URL url, int connections, int connectTimeout) throws IOException {
+        boolean secure = url.getProtocol().equalsIgnoreCase("https");
+        if (!secure && !url.getProtocol().equalsIgnoreCase("http")) {
+            return 0;
+        }
+
+        return this.getPool(url, secure).warmUp(connections, connectTimeout);
+    }
+
+    /**
+     * Closes the idle connections that have been idle for longer than the keep-alive timeout.
+     */
+    public void evictIdleConnections() {
+        for (HttpConnectionPool pool : this.pools.values()) {
+            pool.evictIdleSockets(this.keepAliveTimeout);
+        }
+    }
+
+    /**
+     * Closes every idle connection. Connections that are in use are closed once they're released.
+     */
+    public void closeIdleConnections() {
+        for (HttpConnectionPool pool : this.pools.values()) {
+            pool.closeIdleSockets();
+        }
+    }
+
+    private HttpConnectionPool getPool(URL url, boolean secure) {
+        String host = url.getHost().toLowerCase(Locale.ENGLISH);
+        int port = (url.getPort() == -1) ? url.getDefaultPort() : url.getPort();
+        String key = (secure ? "https://" : "http://") + host + ":" + port;
+
+        HttpConnectionPool pool = this.pools.get(key);
+        if (pool == null) {
+            Integer hostLimit = this.hostLimits.get(host);
+            int maxConnections = (hostLimit == null) ? this.maxConnectionsPerHost : hostLimit;
+            HttpConnectionPool newPool = new HttpConnectionPool(this, host, port, secure, maxConnections);
+            pool = this.pools.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+
+        return pool;
+    }
+
+    /**
+     * Verifies a host name against the DNS and IP subject alternative names of the server's certificate, falling back
+     * to the common name only when the certificate has no DNS names.
+     */
+    private static class CertificateHostnameVerifier implements HostnameVerifier {
+        private static final int SAN_DNS_NAME = 2;
+        private static final int SAN_IP_ADDRESS = 7;
+
+        @Override
+        public boolean verify(String hostname, SSLSession session) {
+            X509Certificate certificate;
+            try {
+                Certificate[] certificates = session.getPeerCertificates();
+                certificate = (X509Certificate) certificates[0];
+            } catch (SSLPeerUnverifiedException e) {
+                return false;
+            }
+
+            String host = normalize(hostname);
+            boolean isIPAddress = host.indexOf(':') != -1 || host.matches("[0-9.]+");
+            boolean hasDNSNames = false;
+            try {
+                Collection<List<?>> names = certificate.getSubjectAlternativeNames();
+                if (names != null) {
+                    for (List<?> name : names) {
+                        int type = (Integer) name.get(0);
+                        String value = (String) name.get(1);
+                        if (type == SAN_IP_ADDRESS && isIPAddress && host.equalsIgnoreCase(value)) {
+                            return true;
+                        } else if (type == SAN_DNS_NAME) {
+                            hasDNSNames = true;
+                            if (!isIPAddress && matches(host, normalize(value))) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            } catch (CertificateParsingException e) {
+                return false;
+            }
+
+            if (isIPAddress || hasDNSNames) {
+                return false;
+            }
+
+            try {
+                LdapName subject = new LdapName(certificate.getSubjectX500Principal().getName());
+                for (Rdn rdn : subject.getRdns()) {
+                    if (rdn.getType().equalsIgnoreCase("CN") && matches(host, normalize(rdn.getValue().toString()))) {
+                        return true;
+                    }
+                }
+            } catch (InvalidNameException e) {
+                return false;
+            }
+
+            return false;
+        }
+
+        private static String normalize(String name) {
+            String normalized = name.toLowerCase(Locale.ENGLISH);
+            if (normalized.endsWith(".")) {
+                normalized = normalized.substring(0, normalized.length() - 1);
+            }
+            return normalized;
+        }
+
+        private static boolean matches(String host, String pattern) {
+            if (!pattern.startsWith("*.")) {
+                return host.equals(pattern);
+            }
+
+            // A wildcard only matches a single, complete label and can't be used directly under a top-level domain.
+            String suffix = pattern.substring(1);
+            if (suffix.indexOf('.', 1) == -1 || !host.endsWith(suffix)) {
+                return false;
+            }
+
+            String label = host.substring(0, host.length() - suffix.length());
+            return label.length() > 0 && label.indexOf('.') == -1;
+        }
+    }
+}
@@ -0,0 +1,605 @@
+package com.box.sdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An HTTP/1.1 {@link HttpURLConnection} that sends its request over a socket leased from an {@link HttpConnectionPool}.
+ *
+ * <p>This class implements the subset of HttpURLConnection that {@link BoxAPIRequest} and {@link BoxAPIResponse} rely
+ * on: fixed-length, chunked and buffered request bodies, Content-Length, chunked and close-delimited response bodies,
+ * and response headers. Redirects are never followed automatically.</p>
+ *
+ * <p>The leased socket is returned to its pool once the response body has been read to the end, or closed if the body
+ * is abandoned or if {@link #disconnect} is called before then. Since {@code disconnect()} can be called from any
+ * thread, it can also be used to abort a request that is blocked on I/O.</p>
+ */
+class PooledHttpURLConnection extends HttpURLConnection {
+    private static final InputStream EMPTY_STREAM = new ByteArrayInputStream(new byte[0]);
+
+    private final HttpConnectionPool pool;
+    private final AtomicBoolean released;
+
+    private volatile PooledSocket socket;
+    private long fixedLength;
+    private Map<String, List<String>> requestHeaders;
+    private OutputStream requestStream;
+    private ByteArrayOutputStream bufferedBody;
+    private ChunkedOutputStream chunkedBody;
+    private FixedLengthOutputStream fixedLengthBody;
+    private boolean keepAlive;
+    private String statusLine;
+    private List<String> headerKeys;
+    private List<String> headerValues;
+    private InputStream responseStream;
+
+    public PooledHttpURLConnection(URL url, HttpConnectionPool pool) {
+        super(url);
+        this.pool = pool;
+        this.released = new AtomicBoolean();
+        this.fixedLength = -1;
+    }
+
+    @Override
+    public void setFixedLengthStreamingMode(int contentLength) {
+        this.setFixedLengthStreamingMode((long) contentLength);
+    }
+
+    /**
+     * Sets the length of the request body, allowing it to be streamed without buffering. Unlike the int version of this
+     * method, this supports bodies larger than 2 GB.
+     * @param contentLength the number of bytes that will be written to the output stream.
+     */
+    public void setFixedLengthStreamingMode(long contentLength) {
+        if (this.connected) {
+            throw new IllegalStateException("Already connected");
+        }
+        if (contentLength < 0) {
+            throw new IllegalArgumentException("Invalid content length: " + contentLength);
+        }
+        if (this.chunkLength != -1) {
+            throw new IllegalStateException("Chunked encoding streaming mode set");
+        }
+        this.fixedLength = contentLength;
+    }
+
+    @Override
+    public void setChunkedStreamingMode(int chunkLength) {
+        if (this.fixedLength != -1) {
+            throw new IllegalStateException("Fixed length streaming mode set");
+        }
+        super.setChunkedStreamingMode(chunkLength);
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (this.connected) {
+            return;
+        }
+
+        this.requestHeaders = this.getRequestProperties();
+        this.socket = this.pool.lease(this.getConnectTimeout(), this.getReadTimeout(), false);
+        this.connected = true;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (this.requestStream != null) {
+            return this.requestStream;
+        }
+        if (!this.doOutput) {
+            throw new ProtocolException("Cannot write output to a connection that doesn't have doOutput set.");
+        }
+        if (this.statusLine != null) {
+            throw new ProtocolException("Cannot write output after reading the response.");
+        }
+
+        this.connect();
+        try {
+            if (this.fixedLength != -1) {
+                this.writeRequestHead(this.fixedLength, false);
+                this.fixedLengthBody = new FixedLengthOutputStream(this.socket.getOutputStream(), this.fixedLength);
+                this.requestStream = this.fixedLengthBody;
+            } else if (this.chunkLength != -1) {
+                this.writeRequestHead(-1, true);
+                this.chunkedBody = new ChunkedOutputStream(this.socket.getOutputStream(), this.chunkLength);
+                this.requestStream = this.chunkedBody;
+            } else {
+                this.bufferedBody = new ByteArrayOutputStream();
+                this.requestStream = this.bufferedBody;
+            }
+        } catch (IOException e) {
+            this.releaseSocket(false);
+            throw e;
+        }
+
+        return this.requestStream;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (!this.doInput) {
+            throw new ProtocolException("Cannot read input from a connection that has doInput set to false.");
+        }
+
+        this.readResponse();
+        if (this.responseCode == HTTP_NOT_FOUND || this.responseCode == HTTP_GONE) {
+            throw new FileNotFoundException(this.url.toString());
+        } else if (this.responseCode >= HTTP_BAD_REQUEST) {
+            throw new IOException("Server returned HTTP response code: " + this.responseCode + " for URL: "
+                + this.url);
+        }
+
+        return this.responseStream;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        if (this.statusLine == null || this.responseCode < HTTP_BAD_REQUEST) {
+            return null;
+        }
+
+        return this.responseStream;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        this.readResponse();
+        return this.responseCode;
+    }
+
+    @Override
+    public String getResponseMessage() throws IOException {
+        this.readResponse();
+        return this.responseMessage;
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        if (!this.ensureResponse() || name == null) {
+            return null;
+        }
+
+        for (int i = this.headerKeys.size() - 1; i >= 0; i--) {
+            if (name.equalsIgnoreCase(this.headerKeys.get(i))) {
+                return this.headerValues.get(i);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String getHeaderFieldKey(int n) {
+        if (!this.ensureResponse() || n <= 0 || n > this.headerKeys.size()) {
+            return null;
+        }
+
+        return this.headerKeys.get(n - 1);
+    }
+
+    @Override
+    public String getHeaderField(int n) {
+        if (!this.ensureResponse() || n < 0 || n > this.headerValues.size()) {
+            return null;
+        } else if (n == 0) {
+            return this.statusLine;
+        }
+
+        return this.headerValues.get(n - 1);
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        if (!this.ensureResponse()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+        headers.put(null, Collections.singletonList(this.statusLine));
+        for (int i = 0; i < this.headerKeys.size(); i++) {
+            String key = this.headerKeys.get(i);
+            List<String> values = headers.get(key);
+            if (values == null) {
+                values = new ArrayList<String>();
+                headers.put(key, values);
+            }
+            values.add(this.headerValues.get(i));
+        }
+
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Closes the underlying socket unless the response has already been read to the end and the socket has been
+     * returned to its pool. This method can be called from another thread in order to abort the request.
+     */
+    @Override
+    public void disconnect() {
+        this.releaseSocket(false);
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    private boolean ensureResponse() {
+        try {
+            this.readResponse();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private synchronized void readResponse() throws IOException {
+        if (this.statusLine != null) {
+            return;
+        }
+
+        this.connect();
+        boolean replayable = (this.requestStream == null || this.bufferedBody != null);
+        try {
+            this.sendRequest();
+            this.readResponseHead();
+        } catch (IOException e) {
+            this.releaseSocket(false);
+            if (!replayable || !this.socket.isReused()) {
+                throw e;
+            }
+
+            // The server most likely closed the reused socket while it was idle. Since nothing has been streamed yet,
+            // the request can be safely sent again over a new socket.
+            this.socket = this.pool.lease(this.getConnectTimeout(), this.getReadTimeout(), true);
+            this.released.set(false);
+            try {
+                this.sendRequest();
+                this.readResponseHead();
+            } catch (IOException retryException) {
+                this.releaseSocket(false);
+                throw retryException;
+            }
+        }
+
+        this.readResponseBody();
+    }
+
+    private void sendRequest() throws IOException {
+        if (this.bufferedBody != null) {
+            this.writeRequestHead(this.bufferedBody.size(), false);
+            this.bufferedBody.writeTo(this.socket.getOutputStream());
+        } else if (this.chunkedBody != null) {
+            this.chunkedBody.close();
+        } else if (this.fixedLengthBody != null) {
+            this.fixedLengthBody.close();
+        } else if (this.fixedLength > 0) {
+            throw new IOException("The request body wasn't written even though a content length was set.");
+        } else if (this.doOutput || this.fixedLength == 0 || "POST".equals(this.method) || "PUT".equals(this.method)) {
+            this.writeRequestHead(0, false);
+        } else {
+            this.writeRequestHead(-1, false);
+        }
+
+        this.socket.getOutputStream().flush();
+    }
+
+    private void writeRequestHead(long contentLength, boolean chunked) throws IOException {
+        String file = this.url.getFile();
+        if (file.length() == 0) {
+            file = "/";
+        }
+
+        StringBuilder head = new StringBuilder();
+        head.append(this.method).append(' ').append(file).append(" HTTP/1.1\r\n");
+
+        boolean hasHost = false;
+        boolean hasContentType = false;
+        boolean hasUserAgent = false;
+        this.keepAlive = true;
+        for (Map.Entry<String, List<String>> entry : this.requestHeaders.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || key.equalsIgnoreCase("Content-Length")
+                || key.equalsIgnoreCase("Transfer-Encoding")) {
+                continue;
+            }
+
+            hasHost |= key.equalsIgnoreCase("Host");
+            hasContentType |= key.equalsIgnoreCase("Content-Type");
+            hasUserAgent |= key.equalsIgnoreCase("User-Agent");
+            for (String value : entry.getValue()) {
+                if (value == null) {
+                    continue;
+                }
+                if (key.equalsIgnoreCase("Connection") && value.equalsIgnoreCase("close")) {
+                    this.keepAlive = false;
+                }
+                head.append(key).append(": ").append(value).append("\r\n");
+            }
+        }
+
+        if (!hasHost) {
+            head.append("Host: ").append(this.url.getHost());
+            if (this.url.getPort() != -1 && this.url.getPort() != this.url.getDefaultPort()) {
+                head.append(':').append(this.url.getPort());
+            }
+            head.append("\r\n");
+        }
+        if (!hasUserAgent) {
+            head.append("User-Agent: Java/").append(System.getProperty("java.version")).append("\r\n");
+        }
+        if (chunked) {
+            head.append("Transfer-Encoding: chunked\r\n");
+        } else if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        if ((chunked || contentLength > 0) && !hasContentType) {
+            // HttpURLConnection defaults to a form content type, which the OAuth token endpoint relies on.
+            head.append("Content-Type: application/x-www-form-urlencoded\r\n");
+        }
+        head.append("\r\n");
+
+        this.socket.getOutputStream().write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void readResponseHead() throws IOException {
+        InputStream input = this.socket.getInputStream();
+        this.socket.setReadTimeout(this.getReadTimeout());
+
+        String line;
+        List<String> keys;
+        List<String> values;
+        do {
+            line = HttpLineReader.readLine(input);
+            if (!line.startsWith("HTTP/") || line.length() < 12) {
+                throw new ProtocolException("Invalid HTTP status line: " + line);
+            }
+
+            try {
+                this.responseCode = Integer.parseInt(line.substring(9, 12));
+            } catch (NumberFormatException e) {
+                throw new ProtocolException("Invalid HTTP status line: " + line);
+            }
+            this.responseMessage = (line.length() > 13) ? line.substring(13) : "";
+
+            keys = new ArrayList<String>();
+            values = new ArrayList<String>();
+            String header = HttpLineReader.readLine(input);
+            while (header.length() != 0) {
+                int colon = header.indexOf(':');
+                if (colon > 0) {
+                    keys.add(header.substring(0, colon).trim());
+                    values.add(header.substring(colon + 1).trim());
+                }
+                header = HttpLineReader.readLine(input);
+            }
+            // Informational responses such as "100 Continue" are followed by the real response.
+        } while (this.responseCode >= 100 && this.responseCode < 200);
+
+        this.headerKeys = keys;
+        this.headerValues = values;
+        this.statusLine = line;
+
+        String connection = this.getHeaderField("Connection");
+        if (line.startsWith("HTTP/1.0")) {
+            this.keepAlive &= (connection != null && connection.equalsIgnoreCase("keep-alive"));
+        } else if (connection != null && connection.toLowerCase().contains("close")) {
+            this.keepAlive = false;
+        }
+    }
+
+    private void readResponseBody() throws IOException {
+        InputStream input = this.socket.getInputStream();
+        String transferEncoding = this.getHeaderField("Transfer-Encoding");
+        String contentLength = this.getHeaderField("Content-Length");
+
+        if ("HEAD".equals(this.method) || this.responseCode == HTTP_NO_CONTENT
+            || this.responseCode == HTTP_NOT_MODIFIED) {
+            this.responseStream = EMPTY_STREAM;
+            this.releaseSocket(this.keepAlive);
+        } else if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+            this.responseStream = new ResponseStream(new ChunkedInputStream(input));
+        } else if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                this.releaseSocket(false);
+                throw new ProtocolException("Invalid Content-Length in response: " + contentLength);
+            }
+
+            if (length == 0) {
+                this.responseStream = EMPTY_STREAM;
+                this.releaseSocket(this.keepAlive);
+            } else {
+                this.responseStream = new ResponseStream(new FixedLengthInputStream(input, length));
+            }
+        } else {
+            // The body is delimited by the server closing the connection.
+            this.keepAlive = false;
+            this.responseStream = new ResponseStream(input);
+        }
+    }
+
+    private void releaseSocket(boolean reusable) {
+        PooledSocket leasedSocket = this.socket;
+        if (leasedSocket != null && this.released.compareAndSet(false, true)) {
+            this.pool.release(leasedSocket, reusable);
+        }
+    }
+
+    /**
+     * Wraps a response body, returning the socket to the pool when the body has been read to the end or closing it when
+     * the body is abandoned.
+     */
+    private class ResponseStream extends FilterInputStream {
+        private boolean finished;
+
+        ResponseStream(InputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.finished) {
+                return -1;
+            }
+
+            int b = this.in.read();
+            if (b == -1) {
+                this.finish();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.finished) {
+                return -1;
+            }
+
+            int n = this.in.read(b, off, len);
+            if (n == -1) {
+                this.finish();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            int read = this.read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            if (!this.finished) {
+                this.finished = true;
+                PooledHttpURLConnection.this.releaseSocket(false);
+            }
+        }
+
+        private void finish() {
+            this.finished = true;
+            PooledHttpURLConnection.this.releaseSocket(PooledHttpURLConnection.this.keepAlive);
+        }
+    }
+
+    /**
+     * Reads a response body whose length is given by the Content-Length header.
+     */
+    private static class FixedLengthInputStream extends InputStream {
+        private final InputStream stream;
+
+        private long remaining;
+
+        FixedLengthInputStream(InputStream stream, long length) {
+            this.stream = stream;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining == 0) {
+                return -1;
+            }
+
+            int b = this.stream.read();
+            if (b == -1) {
+                throw new IOException("Unexpected end of response body.");
+            }
+            this.remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.remaining == 0) {
+                return -1;
+            }
+
+            int n = this.stream.read(b, off, (int) Math.min(len, this.remaining));
+            if (n == -1) {
+                throw new IOException("Unexpected end of response body.");
+            }
+            this.remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(this.stream.available(), this.remaining);
+        }
+    }
+
+    /**
+     * Writes a request body whose length was declared up front, failing if more or fewer bytes are written.
+     */
+    private static class FixedLengthOutputStream extends OutputStream {
+        private final OutputStream stream;
+
+        private long remaining;
+
+        FixedLengthOutputStream(OutputStream stream, long length) {
+            this.stream = stream;
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.ensureCapacity(1);
+            this.stream.write(b);
+            this.remaining--;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.ensureCapacity(len);
+            this.stream.write(b, off, len);
+            this.remaining -= len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.stream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.remaining > 0) {
+                throw new IOException("Insufficient data written to the request body; expected " + this.remaining
+                    + " more bytes.");
+            }
+            this.stream.flush();
+        }
+
+        private void ensureCapacity(long length) throws IOException {
+            if (length > this.remaining) {
+                throw new IOException("Attempted to write more data to the request body than its content length.");
+            }
+        }
+    }
+}
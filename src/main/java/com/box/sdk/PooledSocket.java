@@ -0,0 +1,105 @@
+package com.box.sdk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+
+/**
+ * A keep-alive socket owned by an {@link HttpConnectionPool}.
+ *
+ * <p>The socket is leased to at most one {@link PooledHttpURLConnection} at a time. Its buffered streams are shared by
+ * every request sent over it, so a response body must be fully read before the socket can be returned to the pool.</p>
+ */
+class PooledSocket {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Socket socket;
+    private final InputStream inputStream;
+    private final OutputStream outputStream;
+
+    private volatile long idleSince;
+    private int useCount;
+    private boolean warmedUp;
+
+    public PooledSocket(Socket socket) throws IOException {
+        this.socket = socket;
+        this.inputStream = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.outputStream = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+        this.idleSince = System.currentTimeMillis();
+    }
+
+    public InputStream getInputStream() {
+        return this.inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    public void setReadTimeout(int timeout) throws SocketException {
+        this.socket.setSoTimeout(timeout);
+    }
+
+    public long getIdleSince() {
+        return this.idleSince;
+    }
+
+    /**
+     * Determines if a request has already been sent over this socket before the current lease, or if the socket was
+     * opened ahead of time and has been idle since.
+     * @return true if the socket is being reused; otherwise false.
+     */
+    public boolean isReused() {
+        return this.warmedUp || this.useCount > 1;
+    }
+
+    public int getUseCount() {
+        return this.useCount;
+    }
+
+    public boolean isClosed() {
+        return this.socket.isClosed();
+    }
+
+    public void markWarmedUp() {
+        this.warmedUp = true;
+    }
+
+    public void markLeased() {
+        this.useCount++;
+    }
+
+    public void markIdle() {
+        this.idleSince = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks if the server has closed this socket while it was idle. An idle socket should never have anything to read,
+     * so both end-of-stream and unexpected data mean that the socket can't be reused.
+     * @return true if the socket can no longer be used; otherwise false.
+     */
+    public boolean isStale() {
+        try {
+            this.socket.setSoTimeout(1);
+            this.inputStream.read();
+            return true;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    public void close() {
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            // The socket is being discarded, so there's nothing else to do.
+        }
+    }
+}
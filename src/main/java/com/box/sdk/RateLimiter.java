@@ -0,0 +1,189 @@
+package com.box.sdk;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Paces requests to the Box API with a token bucket so that a client stays under its rate limit instead of finding out
+ * about it from 429 responses.
+ *
+ * <p>The bucket holds up to a burst size of permits and is refilled at a steady rate. Every attempt to send a request,
+ * including retries and redirects, takes one permit. When the bucket is empty, the request waits until a permit is
+ * available. If the request would have to wait longer than the limiter's maximum wait or than the rest of its total
+ * timeout, it fails immediately with a {@link BoxAPIException} instead.</p>
+ *
+ * <pre>BoxAPIConnection api = new BoxAPIConnection("token");
+ *api.setRateLimiter(new RateLimiter(10, 20));
+ *api.setUploadRateLimiter(new RateLimiter(2, 4));</pre>
+ *
+ * <p>A limiter can be shared by several connections so that they're paced together. The state of a limiter, such as
+ * its number of available permits and waiting requests, can be used to size the pools of threads that send
+ * requests.</p>
+ */
+public class RateLimiter {
+    /**
+     * The default maximum amount of time that a request waits for a permit, which is unlimited.
+     */
+    public static final long DEFAULT_MAX_WAIT = Long.MAX_VALUE;
+
+    private final double permitsPerSecond;
+    private final int burstSize;
+    private final Time time;
+    private final AtomicInteger waitingRequests;
+
+    private volatile long maxWait;
+    private double permits;
+    private long lastRefill;
+
+    /**
+     * Constructs a RateLimiter that starts with a full bucket.
+     * @param permitsPerSecond the rate at which permits are added to the bucket.
+     * @param burstSize        the maximum number of permits the bucket can hold.
+     */
+    public RateLimiter(double permitsPerSecond, int burstSize) {
+        this(permitsPerSecond, burstSize, new Time());
+    }
+
+    RateLimiter(double permitsPerSecond, int burstSize, Time time) {
+        if (permitsPerSecond <= 0 || burstSize < 1) {
+            throw new IllegalArgumentException("The rate must be positive and the burst size must be at least 1.");
+        }
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.burstSize = burstSize;
+        this.time = time;
+        this.waitingRequests = new AtomicInteger();
+        this.maxWait = DEFAULT_MAX_WAIT;
+        this.permits = burstSize;
+        this.lastRefill = time.currentTimeMillis();
+    }
+
+    /**
+     * Takes a permit, waiting until one is available.
+     * @throws BoxAPIException if a permit won't be available within the maximum wait, or if the thread is interrupted
+     *                         while waiting.
+     */
+    public void acquire() {
+        long wait = this.reserve(this.maxWait);
+        if (wait < 0) {
+            throw new BoxAPIException("The request wasn't sent because the rate limiter couldn't provide a permit "
+                + "within " + this.maxWait + " milliseconds.");
+        }
+
+        this.waitFor(wait);
+    }
+
+    /**
+     * Takes a permit if one will be available within a timeout, waiting until it's available.
+     * @param  timeout the maximum amount of time to wait, in milliseconds.
+     * @return         true if a permit was taken; false if a permit wouldn't have been available in time.
+     * @throws BoxAPIException if the thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(long timeout) {
+        long wait = this.reserve(timeout);
+        if (wait < 0) {
+            return false;
+        }
+
+        this.waitFor(wait);
+        return true;
+    }
+
+    /**
+     * Gets the number of permits currently in the bucket. The number is negative when requests are waiting for
+     * permits that haven't been added yet.
+     * @return the number of available permits.
+     */
+    public synchronized double getAvailablePermits() {
+        this.refill(this.time.currentTimeMillis());
+        return this.permits;
+    }
+
+    /**
+     * Gets the number of requests that are currently waiting for a permit.
+     * @return the number of waiting requests.
+     */
+    public int getWaitingRequests() {
+        return this.waitingRequests.get();
+    }
+
+    /**
+     * Gets the rate at which permits are added to the bucket.
+     * @return the number of permits added per second.
+     */
+    public double getPermitsPerSecond() {
+        return this.permitsPerSecond;
+    }
+
+    /**
+     * Gets the maximum number of permits the bucket can hold.
+     * @return the burst size.
+     */
+    public int getBurstSize() {
+        return this.burstSize;
+    }
+
+    /**
+     * Gets the maximum amount of time that a request waits for a permit before failing.
+     * @return the maximum wait in milliseconds.
+     */
+    public long getMaxWait() {
+        return this.maxWait;
+    }
+
+    /**
+     * Sets the maximum amount of time that a request waits for a permit before failing. A maximum wait of 0 makes
+     * requests fail as soon as the bucket is empty.
+     * @param maxWait the maximum wait in milliseconds.
+     */
+    public void setMaxWait(long maxWait) {
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("The maximum wait can't be negative.");
+        }
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Reserves a permit if it will be available within a timeout.
+     * @param  timeout the maximum amount of time to wait, in milliseconds.
+     * @return         the amount of time to wait for the reserved permit, or -1 if no permit was reserved.
+     */
+    private synchronized long reserve(long timeout) {
+        this.refill(this.time.currentTimeMillis());
+
+        // Permits can go negative, which reserves permits that will be added in the future for waiting requests.
+        long wait = 0;
+        if (this.permits < 1) {
+            wait = (long) Math.ceil((1 - this.permits) * 1000 / this.permitsPerSecond);
+        }
+        if (wait > timeout) {
+            return -1;
+        }
+
+        this.permits--;
+        return wait;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - this.lastRefill;
+        if (elapsed > 0) {
+            this.permits = Math.min(this.burstSize, this.permits + elapsed * this.permitsPerSecond / 1000);
+            this.lastRefill = now;
+        }
+    }
+
+    private void waitFor(long wait) {
+        if (wait == 0) {
+            return;
+        }
+
+        this.waitingRequests.incrementAndGet();
+        try {
+            this.time.waitDuration(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoxAPIException("Interrupted while waiting for the rate limiter.", e);
+        } finally {
+            this.waitingRequests.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.box.sdk;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Combines identical GET requests that are sent at the same time into a single request to the Box API.
+ *
+ * <p>When many threads ask for the same item at once, such as the info of a popular folder or the current user, each
+ * of them would normally send its own request. With a request coalescer, the first thread sends the request and every
+ * other thread that sends an identical request before the response arrives waits for that response instead. Requests
+ * are identical when they have the same method, URL, headers and authentication, including the access token, As-User
+ * ID and shared link, so requests made on behalf of different users are never combined.</p>
+ *
+ * <p>Each waiting thread gets its own copy of a JSON response, so it can be read like any other response. If the
+ * response isn't JSON, such as a file download, it can't be shared and the waiting threads send their own requests.
+ * Errors from the Box API or the network are shared, so every waiting thread gets the same {@link BoxAPIException}.
+ * If the request in flight fails because it was cancelled or reached its own total timeout, that error isn't shared
+ * and the waiting threads send their own requests instead. Only GET requests without a body are combined, and requests
+ * are only combined while one of them is in flight; nothing is cached. A waiting thread stops waiting when its own
+ * request is cancelled or reaches its total timeout, without affecting the request that's in flight.</p>
+ *
+ * <pre>RequestCoalescer coalescer = new RequestCoalescer();
+ *api.setRequestCoalescer(coalescer);</pre>
+ */
+public class RequestCoalescer {
+    private final ConcurrentMap<String, BoxFuture<BoxAPIResponse>> inFlight;
+    private final AtomicLong coalescedRequests;
+
+    /**
+     * Constructs a RequestCoalescer.
+     */
+    public RequestCoalescer() {
+        this.inFlight = new ConcurrentHashMap<String, BoxFuture<BoxAPIResponse>>();
+        this.coalescedRequests = new AtomicLong();
+    }
+
+    /**
+     * Gets the number of requests that weren't sent because they waited for an identical request instead.
+     * @return the number of coalesced requests.
+     */
+    public long getCoalescedRequests() {
+        return this.coalescedRequests.get();
+    }
+
+    /**
+     * Gets the number of distinct requests that are currently in flight.
+     * @return the number of requests in flight.
+     */
+    public int getInFlightRequests() {
+        return this.inFlight.size();
+    }
+
+    /**
+     * Sends a GET request, or waits for an identical request that's already in flight.
+     * @param  request  the request to send.
+     * @param  listener an optional listener for monitoring the progress of the request.
+     * @return          the response to the request.
+     */
+    BoxAPIResponse send(final BoxAPIRequest request, final ProgressListener listener) {
+        String key = request.getCoalescingKey();
+        final AtomicReference<BoxAPIException> stoppedError = new AtomicReference<BoxAPIException>();
+        BoxFuture<BoxAPIResponse> future = new BoxFuture<BoxAPIResponse>(new Callable<BoxAPIResponse>() {
+            @Override
+            public BoxAPIResponse call() {
+                BoxAPIResponse response;
+                try {
+                    response = request.sendWithCache(listener);
+                } catch (BoxAPIException e) {
+                    if (!request.isStopped()) {
+                        throw e;
+                    }
+                    // The request was cancelled or ran out of time, which says nothing about the requests waiting for
+                    // it, so they get no response and send their own.
+                    stoppedError.set(e);
+                    return null;
+                }
+                if (response instanceof BoxJSONResponse) {
+                    // Read the body before anyone waiting for it is woken up, so that it can be copied for them.
+                    ((BoxJSONResponse) response).getJSON();
+                }
+                return response;
+            }
+        });
+
+        BoxFuture<BoxAPIResponse> existing = this.inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            try {
+                future.run();
+            } finally {
+                this.inFlight.remove(key, future);
+            }
+            if (stoppedError.get() != null) {
+                throw stoppedError.get();
+            }
+            return future.join();
+        }
+
+        BoxAPIResponse response = request.awaitIdenticalRequest(existing);
+        if (!(response instanceof BoxJSONResponse)) {
+            return request.sendWithCache(listener);
+        }
+
+        this.coalescedRequests.incrementAndGet();
+        return new BoxJSONResponse(response.getResponseCode(), ((BoxJSONResponse) response).getJSON());
+    }
+}
@@ -0,0 +1,60 @@
+package com.box.sdk;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A shared daemon thread that runs short tasks after a delay, such as hedging or aborting requests and evicting idle
+ * connections.
+ */
+final class RequestTimer {
+    private static final long PURGE_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private RequestTimer() {
+    }
+
+    /**
+     * Schedules a task to run after a delay. The task runs on the timer's thread, so it shouldn't block.
+     * @param  task  the task to run.
+     * @param  delay the delay in milliseconds.
+     * @return       a future that can be used to cancel the task.
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long delay) {
+        return EXECUTOR.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a task to run repeatedly with a fixed delay between the end of one run and the start of the next.
+     * @param  task  the task to run.
+     * @param  delay the delay in milliseconds.
+     * @return       a future that can be used to cancel the task.
+     */
+    static ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+        return EXECUTOR.scheduleWithFixedDelay(task, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "box-request-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        // Most tasks are cancelled long before they're due, such as the watchdog of a request that completes in time.
+        // Cancelled tasks stay in the queue until they're due, so they're purged periodically instead of being
+        // removed on cancellation, which needs Java 7.
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                executor.purge();
+            }
+        }, PURGE_INTERVAL, PURGE_INTERVAL, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+}
@@ -0,0 +1,122 @@
+package com.box.sdk;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Describes the attempts that have been made to send a request, so that a {@link RetryPolicy} can decide whether to
+ * retry it.
+ */
+public final class RetryContext {
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private final BoxAPIRequest request;
+    private final int maxAttempts;
+    private final Time time;
+
+    private int attempts;
+    private BoxAPIException error;
+    private long previousDelay;
+
+    RetryContext(BoxAPIRequest request, int maxAttempts, Time time) {
+        this.request = request;
+        this.maxAttempts = maxAttempts;
+        this.time = time;
+    }
+
+    /**
+     * Gets the request that's being sent.
+     * @return the request.
+     */
+    public BoxAPIRequest getRequest() {
+        return this.request;
+    }
+
+    /**
+     * Gets the HTTP method of the request that's being sent.
+     * @return the HTTP method.
+     */
+    public String getMethod() {
+        return this.request.getMethod();
+    }
+
+    /**
+     * Gets the number of attempts that have failed so far.
+     * @return the number of failed attempts.
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * Gets the maximum number of times the request will be tried.
+     * @return the maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Gets the error that caused the last attempt to fail.
+     * @return the last error, or null if no attempt has failed yet.
+     */
+    public BoxAPIException getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets the delay that was waited before the last retry.
+     * @return the previous delay in milliseconds, or 0 if the request hasn't been retried yet.
+     */
+    public long getPreviousDelay() {
+        return this.previousDelay;
+    }
+
+    /**
+     * Gets the amount of time the server asked to wait before retrying with the "Retry-After" header of the last
+     * error response. Both the delta-seconds and the HTTP-date forms of the header are supported.
+     * @return the requested delay in milliseconds, or -1 if the last error response didn't include a valid header.
+     */
+    public long getRetryAfter() {
+        if (this.error == null) {
+            return -1;
+        }
+
+        List<String> values = this.error.getHeaders().get("Retry-After");
+        if (values == null || values.isEmpty() || values.get(0) == null) {
+            return -1;
+        }
+
+        String value = values.get(0).trim();
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException e) {
+            // The header isn't in the delta-seconds form, so it may be an HTTP-date instead.
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Date date;
+        try {
+            date = format.parse(value);
+        } catch (ParseException e) {
+            return -1;
+        }
+
+        return Math.max(0, date.getTime() - this.time.currentTimeMillis());
+    }
+
+    void recordFailure(BoxAPIException failure) {
+        this.attempts++;
+        this.error = failure;
+    }
+
+    void recordDelay(long delay) {
+        this.previousDelay = delay;
+    }
+}
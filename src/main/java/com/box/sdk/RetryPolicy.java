@@ -0,0 +1,31 @@
+package com.box.sdk;
+
+/**
+ * Decides whether and when a failed request to the Box API is retried.
+ *
+ * <p>Every {@link BoxAPIConnection} has a retry policy, which is a {@link DefaultRetryPolicy} unless another one is set
+ * with {@link BoxAPIConnection#setRetryPolicy}. A request is never tried more than {@link
+ * BoxAPIConnection#getMaxRequestAttempts} times, regardless of what its connection's retry policy decides.</p>
+ *
+ * <p>A retry policy is shared by every request sent with a connection, so implementations must be thread-safe.</p>
+ */
+public interface RetryPolicy {
+    /**
+     * The delay returned by {@link #getRetryDelay} when a request shouldn't be retried.
+     */
+    long NO_RETRY = -1;
+
+    /**
+     * Called once before a request is first sent.
+     * @param context the retry context of the request.
+     */
+    void onRequest(RetryContext context);
+
+    /**
+     * Called after an attempt to send a request failed in order to decide whether to retry it.
+     * @param  context the retry context of the request, which contains the error that caused the attempt to fail.
+     * @return         the amount of time, in milliseconds, to wait before retrying the request, or {@link #NO_RETRY}
+     *                 if the request shouldn't be retried.
+     */
+    long getRetryDelay(RetryContext context);
+}
@@ -1,5 +1,7 @@
 package com.box.sdk;
 
+import java.util.concurrent.Executor;
+
 /**
  * This API connection uses a shared link (along with an optional password) to authenticate with the Box API. It wraps a
  * preexisting BoxAPIConnection in order to provide additional access to items that are accessible with a shared link.
@@ -101,6 +103,116 @@ class SharedLinkAPIConnection extends BoxAPIConnection {
         this.wrappedConnection.setMaxRequestAttempts(attempts);
     }
 
+    @Override
+    public HttpTransport getTransport() {
+        return this.wrappedConnection.getTransport();
+    }
+
+    @Override
+    public void setTransport(HttpTransport transport) {
+        this.wrappedConnection.setTransport(transport);
+    }
+
+    @Override
+    public RateLimiter getRateLimiter() {
+        return this.wrappedConnection.getRateLimiter();
+    }
+
+    @Override
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.wrappedConnection.setRateLimiter(rateLimiter);
+    }
+
+    @Override
+    public RateLimiter getUploadRateLimiter() {
+        return this.wrappedConnection.getUploadRateLimiter();
+    }
+
+    @Override
+    public void setUploadRateLimiter(RateLimiter uploadRateLimiter) {
+        this.wrappedConnection.setUploadRateLimiter(uploadRateLimiter);
+    }
+
+    @Override
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return this.wrappedConnection.getConcurrencyLimiter();
+    }
+
+    @Override
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.wrappedConnection.setConcurrencyLimiter(concurrencyLimiter);
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.wrappedConnection.getCircuitBreaker();
+    }
+
+    @Override
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.wrappedConnection.setCircuitBreaker(circuitBreaker);
+    }
+
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return this.wrappedConnection.getHedgingPolicy();
+    }
+
+    @Override
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.wrappedConnection.setHedgingPolicy(hedgingPolicy);
+    }
+
+    @Override
+    public RequestCoalescer getRequestCoalescer() {
+        return this.wrappedConnection.getRequestCoalescer();
+    }
+
+    @Override
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.wrappedConnection.setRequestCoalescer(requestCoalescer);
+    }
+
+    @Override
+    public ETagCache getETagCache() {
+        return this.wrappedConnection.getETagCache();
+    }
+
+    @Override
+    public void setETagCache(ETagCache etagCache) {
+        this.wrappedConnection.setETagCache(etagCache);
+    }
+
+    @Override
+    public long getTotalTimeout() {
+        return this.wrappedConnection.getTotalTimeout();
+    }
+
+    @Override
+    public void setTotalTimeout(long totalTimeout) {
+        this.wrappedConnection.setTotalTimeout(totalTimeout);
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return this.wrappedConnection.getRetryPolicy();
+    }
+
+    @Override
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.wrappedConnection.setRetryPolicy(retryPolicy);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return this.wrappedConnection.getAsyncExecutor();
+    }
+
+    @Override
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.wrappedConnection.setAsyncExecutor(asyncExecutor);
+    }
+
     @Override
     public boolean canRefresh() {
         return this.wrappedConnection.canRefresh();
@@ -117,13 +229,13 @@ class SharedLinkAPIConnection extends BoxAPIConnection {
     }
 
     @Override
-    String lockAccessToken() {
-        return this.wrappedConnection.lockAccessToken();
+    public String getAsUserID() {
+        return this.wrappedConnection.getAsUserID();
     }
 
     @Override
-    void unlockAccessToken() {
-        this.wrappedConnection.unlockAccessToken();
+    void setTokens(String accessToken, String refreshToken, long lastRefresh, long expires) {
+        this.wrappedConnection.setTokens(accessToken, refreshToken, lastRefresh, expires);
     }
 
     /**
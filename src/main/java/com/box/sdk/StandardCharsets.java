@@ -14,6 +14,11 @@ public final class StandardCharsets {
      */
     public static final Charset UTF_8 = Charset.forName("UTF-8");
 
+    /**
+     * ISO Latin Alphabet No. 1.
+     */
+    public static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
     private StandardCharsets() {
         throw new UnsupportedOperationException();
     }
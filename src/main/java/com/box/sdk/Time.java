@@ -12,7 +12,11 @@ class Time {
         return THREAD_LOCAL_INSTANCE.get();
     }
 
-    void waitDuration(int milliseconds) throws InterruptedException {
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    void waitDuration(long milliseconds) throws InterruptedException {
         Thread.sleep(milliseconds);
     }
 }
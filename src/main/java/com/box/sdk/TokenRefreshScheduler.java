@@ -0,0 +1,228 @@
+package com.box.sdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Refreshes the access tokens of registered API connections in the background before they expire.
+ *
+ * <p>A {@link BoxAPIConnection} normally refreshes its access token inline, on whichever request thread first notices
+ * that the token is about to expire. That request has to wait for the entire token round trip. A TokenRefreshScheduler
+ * instead refreshes each registered connection on its own thread a configurable amount of time before the token
+ * expires, so requests keep using a valid token without waiting. Connections still fall back to refreshing inline if a
+ * background refresh fails or hasn't happened in time.</p>
+ *
+ * <pre>TokenRefreshScheduler scheduler = new TokenRefreshScheduler();
+ *scheduler.register(api);</pre>
+ *
+ * <p>The outcome of every background refresh is reported to the connection's
+ * {@link BoxAPIConnectionListener BoxAPIConnectionListeners}. A failed refresh is retried until it succeeds or the
+ * connection is unregistered. Connections should be unregistered once they're no longer needed.</p>
+ */
+public class TokenRefreshScheduler {
+    /**
+     * The default amount of time, in milliseconds, before an access token expires that it will be refreshed.
+     */
+    public static final long DEFAULT_REFRESH_AHEAD = 300000;
+
+    /**
+     * The default amount of time, in milliseconds, to wait before retrying a failed refresh.
+     */
+    public static final long DEFAULT_RETRY_DELAY = 15000;
+
+    private static final AtomicInteger SCHEDULER_COUNT = new AtomicInteger();
+
+    private final ScheduledExecutorService executor;
+    private final ConcurrentMap<BoxAPIConnection, RefreshTask> tasks;
+    private final long refreshAhead;
+    private final long retryDelay;
+
+    /**
+     * Constructs a TokenRefreshScheduler that refreshes access tokens {@link #DEFAULT_REFRESH_AHEAD} milliseconds
+     * before they expire.
+     */
+    public TokenRefreshScheduler() {
+        this(DEFAULT_REFRESH_AHEAD, DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * Constructs a TokenRefreshScheduler that refreshes access tokens a specified amount of time before they expire.
+     *
+     * <p>The amount of time should be greater than one minute, since connections refresh their access tokens inline
+     * when they're within a minute of expiring.</p>
+     *
+     * @param refreshAhead the amount of time, in milliseconds, before an access token expires to refresh it.
+     * @param retryDelay   the amount of time, in milliseconds, to wait before retrying a failed refresh.
+     */
+    public TokenRefreshScheduler(long refreshAhead, long retryDelay) {
+        if (refreshAhead < 0 || retryDelay <= 0) {
+            throw new IllegalArgumentException("The refresh ahead time can't be negative and the retry delay must be "
+                + "positive.");
+        }
+
+        this.refreshAhead = refreshAhead;
+        this.retryDelay = retryDelay;
+        this.tasks = new ConcurrentHashMap<BoxAPIConnection, RefreshTask>();
+
+        final int schedulerNumber = SCHEDULER_COUNT.incrementAndGet();
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "box-token-refresh-" + schedulerNumber);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Registers a connection so that its access token is refreshed in the background. Registering a connection that's
+     * already registered has no effect.
+     * @param  api the connection to refresh.
+     * @throws IllegalArgumentException if the connection's access token can't be refreshed.
+     * @throws IllegalStateException if this scheduler has been shut down.
+     */
+    public void register(BoxAPIConnection api) {
+        if (!api.canRefresh()) {
+            throw new IllegalArgumentException("The connection can't be registered because its access token can't be "
+                + "refreshed.");
+        }
+        if (this.executor.isShutdown()) {
+            throw new IllegalStateException("The connection can't be registered because the scheduler is shut down.");
+        }
+
+        RefreshTask task = new RefreshTask(api);
+        if (this.tasks.putIfAbsent(api, task) == null) {
+            task.schedule(this.getRefreshDelay(api));
+        }
+    }
+
+    /**
+     * Unregisters a connection so that its access token is no longer refreshed in the background. A refresh that's
+     * already in progress is allowed to finish.
+     * @param api the connection to stop refreshing.
+     */
+    public void unregister(BoxAPIConnection api) {
+        RefreshTask task = this.tasks.remove(api);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Determines if a connection is registered with this scheduler.
+     * @param  api the connection.
+     * @return     true if the connection is registered; otherwise false.
+     */
+    public boolean isRegistered(BoxAPIConnection api) {
+        return this.tasks.containsKey(api);
+    }
+
+    /**
+     * Gets the amount of time before an access token expires that it will be refreshed.
+     * @return the refresh ahead time in milliseconds.
+     */
+    public long getRefreshAhead() {
+        return this.refreshAhead;
+    }
+
+    /**
+     * Unregisters every connection and stops the scheduler's thread.
+     */
+    public void shutdown() {
+        for (BoxAPIConnection api : this.tasks.keySet()) {
+            this.unregister(api);
+        }
+        this.executor.shutdownNow();
+    }
+
+    private long getRefreshDelay(BoxAPIConnection api) {
+        long expiresAt = api.getLastRefresh() + api.getExpires();
+        return Math.max(0, expiresAt - this.refreshAhead - System.currentTimeMillis());
+    }
+
+    private class RefreshTask implements Runnable {
+        private final BoxAPIConnection api;
+
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        RefreshTask(BoxAPIConnection api) {
+            this.api = api;
+        }
+
+        @Override
+        public void run() {
+            if (this.cancelled) {
+                return;
+            }
+
+            long delay;
+            try {
+                delay = this.refreshIfNeeded();
+            } catch (BoxAPIException e) {
+                // BoxAPIConnection.refresh() has already notified the connection's listeners.
+                delay = TokenRefreshScheduler.this.retryDelay;
+            } catch (RuntimeException e) {
+                this.api.notifyError(new BoxAPIException("Couldn't refresh the access token in the background.", e));
+                delay = TokenRefreshScheduler.this.retryDelay;
+            }
+
+            this.schedule(delay);
+        }
+
+        void schedule(long delay) {
+            if (this.cancelled) {
+                return;
+            }
+
+            try {
+                this.future = TokenRefreshScheduler.this.executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The scheduler was shut down.
+                this.cancelled = true;
+            }
+        }
+
+        void cancel() {
+            this.cancelled = true;
+            ScheduledFuture<?> currentFuture = this.future;
+            if (currentFuture != null) {
+                currentFuture.cancel(false);
+            }
+        }
+
+        private long refreshIfNeeded() {
+            // The connection may have been refreshed by a request thread since this task was scheduled, in which case
+            // the refresh is rescheduled for the new token instead.
+            Lock writeLock = this.api.getRefreshLock().writeLock();
+            writeLock.lock();
+            try {
+                long delay = TokenRefreshScheduler.this.getRefreshDelay(this.api);
+                if (delay > 0) {
+                    return delay;
+                }
+
+                this.api.refresh();
+            } finally {
+                writeLock.unlock();
+            }
+
+            long delay = TokenRefreshScheduler.this.getRefreshDelay(this.api);
+            if (delay == 0) {
+                // The new token's lifetime is shorter than the refresh ahead time, so refresh it halfway through its
+                // lifetime instead of immediately.
+                delay = Math.max(TokenRefreshScheduler.this.retryDelay, this.api.getExpires() / 2);
+            }
+            return delay;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.box.sdk;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Exchanges access tokens for downscoped transactional tokens and reuses the exchanged tokens until they're about to
+ * expire.
+ *
+ * <p>Exchanging a token requires a round trip to the token endpoint. A TransactionalTokenCache remembers the token
+ * returned for each combination of access token, scope and resource, and hands it out again for as long as it has more
+ * than a minute left before it expires. If several threads ask for the same combination at once, only one of them
+ * exchanges the token while the others wait for it. Failed exchanges aren't remembered, and tokens are forgotten once
+ * they can't be reused anymore.</p>
+ *
+ * <p>{@link BoxTransactionalAPIConnection#getTransactionConnection} exchanges the access token on every call. Tokens
+ * are only reused by applications that create a cache and get their transactional connections from it. When an
+ * access token is revoked, {@link #invalidate} forgets the tokens that were exchanged for it.</p>
+ *
+ * <pre>TransactionalTokenCache cache = new TransactionalTokenCache(1000);
+ *BoxAPIConnection api = cache.getTransactionConnection(accessToken, "item_preview", resource);</pre>
+ */
+public class TransactionalTokenCache {
+    /**
+     * The default maximum number of exchanged tokens held by a cache.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final String TOKEN_URL_STRING = "https://api.box.com/oauth2/token";
+
+    /**
+     * The minimum amount of time, in milliseconds, that an exchanged token must have left before it expires in order to
+     * be reused. This matches the amount of time before expiring that other connections refresh their tokens.
+     */
+    private static final long MIN_REMAINING_LIFETIME = 60000;
+
+    private final Map<Key, Entry> entries;
+
+    private volatile String tokenURL;
+    private long nextPurge;
+
+    /**
+     * Constructs a TransactionalTokenCache that holds up to {@link #DEFAULT_MAX_ENTRIES} exchanged tokens.
+     */
+    public TransactionalTokenCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a TransactionalTokenCache. When the cache is full, the least recently used token is forgotten.
+     * @param maxEntries the maximum number of exchanged tokens to hold.
+     */
+    public TransactionalTokenCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of entries must be at least 1.");
+        }
+
+        this.tokenURL = TOKEN_URL_STRING;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4172630981560837362L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TransactionalTokenCache.Entry> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets a connection that uses a scoped transactional token, exchanging the access token only if there isn't an
+     * exchanged token that can be reused.
+     * @param  accessToken application access token.
+     * @param  scope       scope of transactional token.
+     * @param  resource    resource transactional token has access to, or null.
+     * @return             a BoxAPIConnection which can be used to perform transactional requests.
+     */
+    public BoxAPIConnection getTransactionConnection(String accessToken, String scope, String resource) {
+        Key key = new Key(accessToken, scope, resource);
+        Entry entry;
+        boolean created = false;
+        synchronized (this.entries) {
+            long now = System.currentTimeMillis();
+            if (now >= this.nextPurge) {
+                this.removeUnusableEntries(now);
+                this.nextPurge = now + MIN_REMAINING_LIFETIME;
+            }
+
+            entry = this.entries.get(key);
+            if (entry != null && entry.future.isDone() && !entry.isReusable(now)) {
+                entry = null;
+            }
+
+            if (entry == null) {
+                entry = new Entry(key);
+                this.entries.put(key, entry);
+                created = true;
+            }
+        }
+
+        if (created) {
+            entry.future.run();
+        }
+
+        Token token;
+        try {
+            token = entry.future.join();
+        } catch (RuntimeException e) {
+            // Forget the failed exchange so that the next caller tries again.
+            this.remove(key, entry);
+            throw e;
+        }
+
+        BoxTransactionalAPIConnection transactionConnection = new BoxTransactionalAPIConnection(token.accessToken);
+        transactionConnection.setLastRefresh(token.obtainedAt);
+        transactionConnection.setExpires(token.expires);
+        return transactionConnection;
+    }
+
+    /**
+     * Forgets the tokens that were exchanged for an access token, such as after the access token is revoked.
+     * @param accessToken the access token whose exchanged tokens should be forgotten.
+     */
+    public void invalidate(String accessToken) {
+        synchronized (this.entries) {
+            Iterator<Key> keys = this.entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().accessToken.equals(accessToken)) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every exchanged token.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Gets the URL used for exchanging tokens.
+     * @return the token URL.
+     */
+    public String getTokenURL() {
+        return this.tokenURL;
+    }
+
+    /**
+     * Sets the URL used for exchanging tokens.
+     * @param tokenURL the token URL.
+     */
+    public void setTokenURL(String tokenURL) {
+        this.tokenURL = tokenURL;
+    }
+
+    /**
+     * Removes the tokens that can't be reused anymore, so that the access tokens they were exchanged for aren't kept
+     * until the cache fills up. While the cache is being used, this runs at least once per
+     * {@link #MIN_REMAINING_LIFETIME}, so tokens are removed before they expire.
+     */
+    private void removeUnusableEntries(long now) {
+        Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.future.isDone() && !entry.isReusable(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        synchronized (this.entries) {
+            if (this.entries.get(key) == entry) {
+                this.entries.remove(key);
+            }
+        }
+    }
+
+    private Token exchange(Key key) {
+        long obtainedAt = System.currentTimeMillis();
+        BoxAPIConnection connection = BoxTransactionalAPIConnection.exchangeToken(
+            new BoxAPIConnection(key.accessToken), this.tokenURL, key.scope, key.resource);
+        return new Token(connection.getAccessToken(), obtainedAt, connection.getExpires());
+    }
+
+    /**
+     * The combination of access token, scope and resource that a token was exchanged for.
+     */
+    private static final class Key {
+        private final String accessToken;
+        private final String scope;
+        private final String resource;
+
+        Key(String accessToken, String scope, String resource) {
+            this.accessToken = accessToken;
+            this.scope = scope;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return this.accessToken.equals(other.accessToken) && this.scope.equals(other.scope)
+                && (this.resource == null ? other.resource == null : this.resource.equals(other.resource));
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = this.accessToken.hashCode();
+            hash = 31 * hash + this.scope.hashCode();
+            return 31 * hash + (this.resource == null ? 0 : this.resource.hashCode());
+        }
+    }
+
+    /**
+     * An exchanged token.
+     */
+    private static final class Token {
+        private final String accessToken;
+        private final long obtainedAt;
+        private final long expires;
+
+        Token(String accessToken, long obtainedAt, long expires) {
+            this.accessToken = accessToken;
+            this.obtainedAt = obtainedAt;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * A token that's being exchanged or has been exchanged. The token is exchanged by the first thread that requests
+     * it, and every other thread waits on the same future.
+     */
+    private final class Entry {
+        private final BoxFuture<Token> future;
+
+        Entry(final Key key) {
+            this.future = new BoxFuture<Token>(new Callable<Token>() {
+                @Override
+                public Token call() {
+                    return TransactionalTokenCache.this.exchange(key);
+                }
+            });
+        }
+
+        boolean isReusable(long now) {
+            Token token;
+            try {
+                token = this.future.join();
+            } catch (RuntimeException e) {
+                return false;
+            }
+
+            return now < token.obtainedAt + token.expires - MIN_REMAINING_LIFETIME;
+        }
+    }
+}
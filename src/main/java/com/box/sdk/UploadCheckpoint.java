@@ -0,0 +1,160 @@
+package com.box.sdk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+/**
+ * The state of a resumable upload that's saved to a small local file, so that the upload can be resumed by another
+ * process after a restart.
+ *
+ * <p>A checkpoint holds the ID of the upload session, the size of the file and of its parts, and the parts that have
+ * been uploaded so far. It's rewritten after every part by writing a temporary file next to it and renaming it over
+ * the checkpoint, so that a crash in the middle of a write leaves the previous checkpoint intact.</p>
+ */
+final class UploadCheckpoint {
+    private final File file;
+    private final String sessionID;
+    private final long fileSize;
+    private final int partSize;
+    private final Map<Long, BoxFileUploadSessionPart> parts;
+
+    UploadCheckpoint(File file, String sessionID, long fileSize, int partSize) {
+        this.file = file;
+        this.sessionID = sessionID;
+        this.fileSize = fileSize;
+        this.partSize = partSize;
+        this.parts = new TreeMap<Long, BoxFileUploadSessionPart>();
+    }
+
+    /**
+     * Reads a checkpoint from a file.
+     * @param  file the checkpoint file.
+     * @return      the checkpoint.
+     * @throws BoxAPIException if the file couldn't be read or isn't a checkpoint.
+     */
+    static UploadCheckpoint read(File file) {
+        String json;
+        try {
+            InputStream input = new FileInputStream(file);
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int n = input.read(buffer);
+                while (n != -1) {
+                    output.write(buffer, 0, n);
+                    n = input.read(buffer);
+                }
+                json = new String(output.toByteArray(), StandardCharsets.UTF_8);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't read the upload checkpoint " + file + ".", e);
+        }
+
+        try {
+            JsonObject checkpointJSON = JsonObject.readFrom(json);
+            UploadCheckpoint checkpoint = new UploadCheckpoint(file, checkpointJSON.get("session_id").asString(),
+                checkpointJSON.get("file_size").asLong(), checkpointJSON.get("part_size").asInt());
+            for (JsonValue partJSON : checkpointJSON.get("parts").asArray()) {
+                BoxFileUploadSessionPart part = new BoxFileUploadSessionPart(partJSON.asObject());
+                checkpoint.parts.put(part.getOffset(), part);
+            }
+            return checkpoint;
+        } catch (RuntimeException e) {
+            throw new BoxAPIException("The file " + file + " isn't a valid upload checkpoint.", e);
+        }
+    }
+
+    String getSessionID() {
+        return this.sessionID;
+    }
+
+    long getFileSize() {
+        return this.fileSize;
+    }
+
+    int getPartSize() {
+        return this.partSize;
+    }
+
+    /**
+     * Replaces the parts in this checkpoint with the parts that the server has, since parts that were uploaded right
+     * before a crash may not have been saved.
+     * @param serverParts the parts listed by the upload session.
+     */
+    synchronized void setParts(Iterable<BoxFileUploadSessionPart> serverParts) {
+        this.parts.clear();
+        for (BoxFileUploadSessionPart part : serverParts) {
+            this.parts.put(part.getOffset(), part);
+        }
+    }
+
+    /**
+     * Gets the uploaded parts, keyed by their offset.
+     * @return a copy of the uploaded parts.
+     */
+    synchronized Map<Long, BoxFileUploadSessionPart> getParts() {
+        return new TreeMap<Long, BoxFileUploadSessionPart>(this.parts);
+    }
+
+    /**
+     * Records an uploaded part and saves the checkpoint.
+     * @param part the uploaded part.
+     */
+    synchronized void addPart(BoxFileUploadSessionPart part) {
+        this.parts.put(part.getOffset(), part);
+        this.write();
+    }
+
+    /**
+     * Saves this checkpoint to its file.
+     * @throws BoxAPIException if the checkpoint couldn't be written.
+     */
+    synchronized void write() {
+        JsonArray partsJSON = new JsonArray();
+        for (BoxFileUploadSessionPart part : this.parts.values()) {
+            partsJSON.add(part.toCommitJSON());
+        }
+        JsonObject checkpointJSON = new JsonObject()
+            .add("session_id", this.sessionID)
+            .add("file_size", this.fileSize)
+            .add("part_size", this.partSize)
+            .add("parts", partsJSON);
+
+        File temporaryFile = new File(this.file.getPath() + ".tmp");
+        try {
+            FileOutputStream output = new FileOutputStream(temporaryFile);
+            try {
+                output.write(checkpointJSON.toString().getBytes(StandardCharsets.UTF_8));
+                output.getFD().sync();
+            } finally {
+                output.close();
+            }
+        } catch (IOException e) {
+            throw new BoxAPIException("Couldn't write the upload checkpoint " + this.file + ".", e);
+        }
+
+        // File.renameTo can't replace an existing file on every platform.
+        if (!temporaryFile.renameTo(this.file) && !(this.file.delete() && temporaryFile.renameTo(this.file))) {
+            throw new BoxAPIException("Couldn't write the upload checkpoint " + this.file + ".");
+        }
+    }
+
+    /**
+     * Deletes the checkpoint file once the upload has been committed.
+     */
+    void delete() {
+        this.file.delete();
+    }
+}
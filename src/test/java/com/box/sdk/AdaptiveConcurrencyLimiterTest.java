@@ -0,0 +1,135 @@
+package com.box.sdk;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+public class AdaptiveConcurrencyLimiterTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void limitShrinksWhenRequestsAreDroppedAndGrowsWhenHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 0.5, 2.0);
+
+        limiter.acquire();
+        limiter.onDropped();
+        assertThat(limiter.getLimit(), is(5));
+
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 5; j++) {
+                limiter.acquire();
+            }
+            for (int j = 0; j < 5; j++) {
+                limiter.onSuccess(100);
+            }
+        }
+        assertThat(limiter.getLimit(), is(greaterThan(5)));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void limitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 0.5, 2.0);
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.onSuccess(10);
+        }
+        assertThat(limiter.getLimit(), is(10));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.onSuccess(200);
+        }
+        assertThat(limiter.getLimit(), is(lessThan(10)));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestsWaitForASlot() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse()
+            .withFixedDelay(300)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+
+        final BoxAPIConnection api = new BoxAPIConnection("");
+        api.setConcurrencyLimiter(new AdaptiveConcurrencyLimiter(2, 2, 2, 0.5, 2.0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<BoxAPIResponse>> futures = new ArrayList<Future<BoxAPIResponse>>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 6; i++) {
+            futures.add(executor.submit(new Callable<BoxAPIResponse>() {
+                @Override
+                public BoxAPIResponse call() throws Exception {
+                    return new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET").send();
+                }
+            }));
+        }
+        for (Future<BoxAPIResponse> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(System.currentTimeMillis() - start, is(greaterThanOrEqualTo(900L)));
+        assertThat(api.getConcurrencyLimiter().getInFlight(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void limitAdaptsToQuotaExhaustionFromStubServer() throws Exception {
+        // The stub server rejects the first five requests as if the quota were exhausted, then recovers.
+        String state = Scenario.STARTED;
+        for (int i = 1; i <= 5; i++) {
+            String nextState = "rejected " + i;
+            stubFor(get(urlEqualTo("/")).inScenario("quota").whenScenarioStateIs(state)
+                .willReturn(aResponse().withStatus(429))
+                .willSetStateTo(nextState));
+            state = nextState;
+        }
+        stubFor(get(urlEqualTo("/")).inScenario("quota").whenScenarioStateIs(state)
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{}")));
+
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setMaxRequestAttempts(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 20, 0.75, 2.0);
+        api.setConcurrencyLimiter(limiter);
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET").send();
+                fail("Expected the stub server to reject the request.");
+            } catch (BoxAPIException e) {
+                assertThat(e.getResponseCode(), is(429));
+            }
+        }
+        int exhaustedLimit = limiter.getLimit();
+        assertThat(exhaustedLimit, is(1));
+
+        for (int i = 0; i < 10; i++) {
+            new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET").send();
+        }
+        assertThat(limiter.getLimit(), is(greaterThan(exhaustedLimit)));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+}
@@ -0,0 +1,144 @@
+package com.box.sdk;
+
+import java.io.StringWriter;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class AppUserConnectionManagerTest {
+    private static JWTEncryptionPreferences encryptionPref;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private AppUserConnectionManager manager;
+
+    @BeforeClass
+    public static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        StringWriter pem = new StringWriter();
+        JcaPEMWriter writer = new JcaPEMWriter(pem);
+        writer.writeObject(generator.generateKeyPair());
+        writer.close();
+
+        encryptionPref = new JWTEncryptionPreferences();
+        encryptionPref.setPrivateKey(pem.toString());
+        encryptionPref.setEncryptionAlgorithm(EncryptionAlgorithm.RSA_SHA_256);
+    }
+
+    @Before
+    public void createManager() {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse()
+            .withFixedDelay(200)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"access_token\": \"token\", \"expires_in\": 3600}")));
+
+        this.manager = new AppUserConnectionManager("clientID", "clientSecret", encryptionPref, null) {
+            @Override
+            protected void configureConnection(BoxDeveloperEditionAPIConnection api) {
+                api.setTokenURL("http://localhost:8080/oauth2/token");
+            }
+        };
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void concurrentRequestsForSameUserShareOneConnectionAndToken() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BoxDeveloperEditionAPIConnection>> futures =
+            new ArrayList<Future<BoxDeveloperEditionAPIConnection>>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(new Callable<BoxDeveloperEditionAPIConnection>() {
+                @Override
+                public BoxDeveloperEditionAPIConnection call() {
+                    return AppUserConnectionManagerTest.this.manager.getConnection("1");
+                }
+            }));
+        }
+
+        BoxDeveloperEditionAPIConnection first = futures.get(0).get();
+        for (Future<BoxDeveloperEditionAPIConnection> future : futures) {
+            assertThat(future.get(), is(sameInstance(first)));
+        }
+        executor.shutdown();
+
+        assertThat(first.getAccessToken(), is("token"));
+        verify(1, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void leastRecentlyUsedConnectionIsEvictedWhenFull() {
+        this.manager.setMaxConnections(2);
+
+        BoxDeveloperEditionAPIConnection first = this.manager.getConnection("1");
+        this.manager.getConnection("2");
+        this.manager.getConnection("1");
+        this.manager.getConnection("3");
+
+        assertThat(this.manager.getConnectionCount(), is(2));
+        assertThat(this.manager.getConnection("1"), is(sameInstance(first)));
+        verify(3, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void idleConnectionsAreEvicted() throws InterruptedException {
+        this.manager.setIdleTimeout(50);
+        BoxDeveloperEditionAPIConnection first = this.manager.getConnection("1");
+
+        Thread.sleep(100);
+        this.manager.evictIdleConnections();
+
+        assertThat(this.manager.getConnectionCount(), is(0));
+        assertThat(this.manager.getConnection("1"), is(not(sameInstance(first))));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failedConnectionIsForgotten() {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse().withStatus(400)));
+
+        try {
+            this.manager.getConnection("1");
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(400));
+        }
+
+        assertThat(this.manager.getConnectionCount(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void heldConnectionsAreRegisteredWithTokenRefreshScheduler() {
+        TokenRefreshScheduler scheduler = new TokenRefreshScheduler();
+        this.manager.setTokenRefreshScheduler(scheduler);
+
+        BoxDeveloperEditionAPIConnection api = this.manager.getConnection("1");
+        assertThat(scheduler.isRegistered(api), is(true));
+
+        this.manager.evict("1");
+        assertThat(scheduler.isRegistered(api), is(false));
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.box.sdk;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class AsUserAPIConnectionTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestsIncludeAsUserHeaderAndSharedToken() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse().withStatus(200)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection asUser = api.asUser("12345");
+        api.setAccessToken("newToken");
+        new BoxAPIRequest(asUser, new URL("http://localhost:8080/folders/0"), "GET").send();
+
+        verify(getRequestedFor(urlEqualTo("/folders/0"))
+            .withHeader("As-User", equalTo("12345"))
+            .withHeader("Authorization", equalTo("Bearer newToken")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestsWithoutAsUserDoNotIncludeHeader() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse().withStatus(200)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.asUser("12345");
+        new BoxAPIRequest(api, new URL("http://localhost:8080/folders/0"), "GET").send();
+
+        assertThat(findAll(getRequestedFor(urlEqualTo("/folders/0"))).get(0).containsHeader("As-User"), is(false));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void asUserConnectionSharesSettingsWithWrappedConnection() {
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection asUser = api.asUser("1").asUser("2");
+        asUser.setBaseURL("http://localhost:8080/");
+
+        assertThat(api.getBaseURL(), is("http://localhost:8080/"));
+        assertThat(asUser.getTransport(), is(sameInstance(api.getTransport())));
+        assertThat(asUser.getAsUserID(), is("2"));
+        assertThat(api.getAsUserID(), is(nullValue()));
+    }
+}
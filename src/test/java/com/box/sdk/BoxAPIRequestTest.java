@@ -2,6 +2,10 @@ package com.box.sdk;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -76,4 +80,400 @@ public class BoxAPIRequestTest {
             verify(expectedNumAttempts, getRequestedFor(urlEqualTo("/")));
         }
     }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestWaitsForRetryAfterHeaderBeforeRetrying() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(429).withHeader("Retry-After", "100")));
+        Time mockTime = mock(Time.class);
+
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setMaxRequestAttempts(2);
+
+        URL url = new URL("http://localhost:8080/");
+        BoxAPIRequest request = new BoxAPIRequest(api, url, "GET");
+        request.setBackoffCounter(new BackoffCounter(mockTime));
+
+        try {
+            request.send();
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(429));
+        }
+
+        verify(mockTime).waitDuration(100000L);
+        verify(2, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestIsNotRetriedWhenServerReturns500ForNonIdempotentMethod() throws MalformedURLException {
+        stubFor(post(urlEqualTo("/")).willReturn(aResponse().withStatus(500)));
+
+        URL url = new URL("http://localhost:8080/");
+        BoxAPIRequest request = new BoxAPIRequest(url, "POST");
+        request.setBackoffCounter(new BackoffCounter(mock(Time.class)));
+
+        try {
+            request.send();
+            fail("Expected the request to fail.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(500));
+        }
+
+        verify(1, postRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendAsyncReturnsTheResponseWhenJoined() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        BoxJSONResponse response = (BoxJSONResponse) request.sendAsync().join();
+
+        assertThat(response.getJSON(), is("{\"id\": \"0\"}"));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendAsyncNotifiesCallbackWhenRequestFails() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(404)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        BoxFuture<BoxAPIResponse> future = request.sendAsync();
+        future.addCallback(new BoxFutureCallback<BoxAPIResponse>() {
+            @Override
+            public void onSuccess(BoxAPIResponse result) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                error.set(e);
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(error.get(), is(instanceOf(BoxAPIException.class)));
+        assertThat(((BoxAPIException) error.get()).getResponseCode(), is(404));
+
+        try {
+            future.join();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(404));
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendAsyncRunsOnTheConfiguredExecutor() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(200)));
+
+        final AtomicReference<Runnable> submitted = new AtomicReference<Runnable>();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submitted.set(command);
+                command.run();
+            }
+        });
+
+        BoxFuture<BoxAPIResponse> future = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET")
+            .sendAsync();
+
+        assertThat(submitted.get(), is(notNullValue()));
+        assertThat(future.isDone(), is(true));
+        assertThat(future.join().getResponseCode(), is(200));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestIsRetriedOnceWithNewTokenWhenTokenIsReplacedWhileInFlight() throws MalformedURLException {
+        stubFor(post(urlEqualTo("/")).withHeader("Authorization", equalTo("Bearer old"))
+            .willReturn(aResponse().withStatus(401)));
+        stubFor(post(urlEqualTo("/")).withHeader("Authorization", equalTo("Bearer new"))
+            .willReturn(aResponse().withStatus(200)));
+
+        final BoxAPIConnection api = new BoxAPIConnection("old");
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "POST");
+        request.setBody("body");
+        request.setBackoffCounter(new BackoffCounter(mock(Time.class)));
+
+        // Replace the token after the request has already been authorized with the old one.
+        BoxAPIResponse response = request.send(new ProgressListener() {
+            @Override
+            public void onProgressChanged(long numBytes, long totalBytes) {
+                api.setAccessToken("new");
+            }
+        });
+
+        assertThat(response.getResponseCode(), is(200));
+        verify(1, postRequestedFor(urlEqualTo("/")).withHeader("Authorization", equalTo("Bearer old")));
+        verify(1, postRequestedFor(urlEqualTo("/")).withHeader("Authorization", equalTo("Bearer new"))
+            .withRequestBody(equalTo("body")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestIsNotRetriedWhenUnauthorizedAndTokenIsUnchanged() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(401)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(401));
+        }
+
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void refreshDoesNotWaitForRequestsInFlight() throws Exception {
+        BoxAPIConnection api = new BoxAPIConnection("clientID", "clientSecret", "old", "refresh");
+        api.setTokenURL("http://localhost:8080/oauth2/token");
+        api.setExpires(Long.MAX_VALUE);
+
+        // The interceptor answers both requests and holds the GET in flight until the refresh has finished.
+        final CountDownLatch inFlight = new CountDownLatch(1);
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        api.setRequestInterceptor(new RequestInterceptor() {
+            @Override
+            public BoxAPIResponse onRequest(BoxAPIRequest request) {
+                if (!request.getMethod().equals("GET")) {
+                    return new BoxJSONResponse(200,
+                        "{\"access_token\": \"new\", \"refresh_token\": \"refresh2\", \"expires_in\": 3600}");
+                }
+
+                inFlight.countDown();
+                try {
+                    refreshed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new BoxJSONResponse(200, "{}");
+            }
+        });
+
+        BoxFuture<BoxAPIResponse> future = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET")
+            .sendAsync();
+        assertThat(inFlight.await(5, TimeUnit.SECONDS), is(true));
+        api.refresh();
+
+        assertThat(future.isDone(), is(false));
+        assertThat(api.getAccessToken(), is("new"));
+        refreshed.countDown();
+        assertThat(future.join().getResponseCode(), is(200));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void slowAttemptIsAbortedWhenTotalTimeoutExpires() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(200).withFixedDelay(3000)));
+
+        BoxAPIRequest request = new BoxAPIRequest(new URL("http://localhost:8080/"), "GET");
+        request.setTotalTimeout(300);
+
+        long start = System.currentTimeMillis();
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), containsString("total timeout"));
+        }
+
+        assertThat(System.currentTimeMillis() - start, is(lessThan(2000L)));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void retryIsNotAttemptedWhenItsDelayWouldPassTheTotalTimeout() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(500)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setTotalTimeout(1000);
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), containsString("total timeout"));
+            assertThat(((BoxAPIException) e.getCause()).getResponseCode(), is(500));
+        }
+
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void waitForRatePermitCountsTowardsTheTotalTimeout() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(200)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setRateLimiter(new RateLimiter(0.25, 1));
+        new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET").send();
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        request.setTotalTimeout(500);
+
+        long start = System.currentTimeMillis();
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), containsString("total timeout"));
+        }
+
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1000L)));
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void waitForIdenticalRequestCountsTowardsTheTotalTimeout() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(200).withFixedDelay(3000)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setRequestCoalescer(new RequestCoalescer());
+        BoxAPIRequest inFlight = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        BoxFuture<BoxAPIResponse> future = inFlight.sendAsync();
+        Thread.sleep(200);
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        request.setTotalTimeout(300);
+
+        long start = System.currentTimeMillis();
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), containsString("total timeout"));
+        } finally {
+            future.cancel(true);
+        }
+
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1500L)));
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void cancellingRequestInterruptsWaitForConcurrencyLimiterSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, 2);
+        limiter.acquire();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setConcurrencyLimiter(limiter);
+
+        final BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        Thread canceller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                request.cancel();
+            }
+        };
+        canceller.start();
+
+        long start = System.currentTimeMillis();
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), is("The request was cancelled."));
+        }
+
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1500L)));
+        assertThat(Thread.currentThread().isInterrupted(), is(false));
+        assertThat(limiter.getWaiting(), is(0));
+        assertThat(limiter.getInFlight(), is(1));
+        verify(0, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void cancellingAsyncRequestAbortsItsAttemptInFlight() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(200).withFixedDelay(3000)));
+
+        final AtomicReference<Thread> worker = new AtomicReference<Thread>();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                Thread thread = new Thread(command);
+                worker.set(thread);
+                thread.start();
+            }
+        });
+
+        BoxAPIRequest request = new BoxAPIRequest(api, new URL("http://localhost:8080/"), "GET");
+        BoxFuture<BoxAPIResponse> future = request.sendAsync();
+        Thread.sleep(200);
+
+        long start = System.currentTimeMillis();
+        assertThat(future.cancel(true), is(true));
+        assertThat(request.isCancelled(), is(true));
+
+        // The worker only finishes before the 3 second delay if the attempt in flight was disconnected.
+        worker.get().join(3000);
+        assertThat(worker.get().isAlive(), is(false));
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1000L)));
+
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), is("The request was cancelled."));
+        }
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1000L)));
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void cancellingRequestInterruptsDelayBeforeRetry() throws Exception {
+        stubFor(get(urlEqualTo("/")).willReturn(aResponse().withStatus(500)));
+
+        final BoxAPIRequest request = new BoxAPIRequest(new URL("http://localhost:8080/"), "GET");
+        Thread canceller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                request.cancel();
+            }
+        };
+        canceller.start();
+
+        long start = System.currentTimeMillis();
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), is("The request was cancelled."));
+            assertThat(((BoxAPIException) e.getCause()).getResponseCode(), is(500));
+        }
+
+        assertThat(System.currentTimeMillis() - start, is(lessThan(1500L)));
+        assertThat(Thread.currentThread().isInterrupted(), is(false));
+        verify(1, getRequestedFor(urlEqualTo("/")));
+    }
 }
@@ -0,0 +1,160 @@
+package com.box.sdk;
+
+import java.net.URL;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+public class BoxBatchRequestTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private BoxAPIConnection api;
+
+    @Before
+    public void createConnection() {
+        this.api = new BoxAPIConnection("token");
+        this.api.setBaseURL("http://localhost:8080/2.0/");
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendsRequestsInOneEnvelopeAndSplitsResponses() throws Exception {
+        stubFor(post(urlEqualTo("/2.0/batch")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"responses\": ["
+                + "{\"status\": 200, \"headers\": {}, \"response\": {\"id\": \"1\", \"description\": \"Reviewed\"}},"
+                + "{\"status\": 200, \"headers\": {}, \"response\": {\"$template\": \"properties\"}},"
+                + "{\"status\": 404, \"headers\": {}, \"response\": {\"code\": \"not_found\"}}"
+                + "]}")));
+
+        BoxJSONRequest update = new BoxJSONRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "PUT");
+        update.setBody("{\"description\": \"Reviewed\"}");
+        BoxAPIRequest metadataUpdate = new BoxAPIRequest(this.api,
+            new URL("http://localhost:8080/2.0/files/2/metadata/global/properties"), "PUT");
+        metadataUpdate.addHeader("Content-Type", "application/json-patch+json");
+        metadataUpdate.setBody("[{\"op\": \"add\", \"path\": \"/reviewed\", \"value\": \"yes\"}]");
+        BoxAPIRequest delete = new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/3"), "DELETE");
+
+        BoxBatchRequest batch = new BoxBatchRequest(this.api);
+        batch.addRequest(update);
+        batch.addRequest(metadataUpdate);
+        batch.addRequest(delete);
+        BoxBatchResponse responses = batch.send();
+
+        assertThat(responses.size(), is(3));
+        assertThat(((BoxJSONResponse) responses.getResponse(0)).getJSON(),
+            is("{\"id\":\"1\",\"description\":\"Reviewed\"}"));
+        assertThat(responses.isSuccess(1), is(true));
+        assertThat(responses.isSuccess(2), is(false));
+        assertThat(responses.getError(2).getResponseCode(), is(404));
+        assertThat(responses.getError(2).getResponse(), is("{\"code\":\"not_found\"}"));
+
+        verify(1, postRequestedFor(urlEqualTo("/2.0/batch")).withRequestBody(equalToJson("{\"requests\": ["
+            + "{\"method\": \"PUT\", \"relative_url\": \"/files/1\", "
+            + "\"headers\": {\"Content-Type\": \"application/json\"}, \"body\": {\"description\": \"Reviewed\"}},"
+            + "{\"method\": \"PUT\", \"relative_url\": \"/files/2/metadata/global/properties\", "
+            + "\"headers\": {\"Content-Type\": \"application/json-patch+json\"}, "
+            + "\"body\": [{\"op\": \"add\", \"path\": \"/reviewed\", \"value\": \"yes\"}]},"
+            + "{\"method\": \"DELETE\", \"relative_url\": \"/files/3\"}"
+            + "]}")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void largeBatchesAreSplitIntoSeveralPosts() throws Exception {
+        stubFor(post(urlEqualTo("/2.0/batch")).inScenario("Batches").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"responses\": [{\"status\": 200, \"response\": {\"id\": \"1\"}}, "
+                    + "{\"status\": 200, \"response\": {\"id\": \"2\"}}]}"))
+            .willSetStateTo("Second"));
+        stubFor(post(urlEqualTo("/2.0/batch")).inScenario("Batches").whenScenarioStateIs("Second")
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"responses\": [{\"status\": 204}]}")));
+
+        BoxBatchRequest batch = new BoxBatchRequest(this.api);
+        batch.setMaxRequestsPerBatch(2);
+        for (int i = 1; i <= 3; i++) {
+            batch.addRequest(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/" + i), "GET"));
+        }
+        BoxBatchResponse responses = batch.send();
+
+        assertThat(responses.size(), is(3));
+        assertThat(((BoxJSONResponse) responses.getResponse(1)).getJSON(), is("{\"id\":\"2\"}"));
+        assertThat(responses.getResponse(2).getResponseCode(), is(204));
+        verify(2, postRequestedFor(urlEqualTo("/2.0/batch")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failedPostKeepsTheResponsesOfEarlierPosts() throws Exception {
+        stubFor(post(urlEqualTo("/2.0/batch")).inScenario("Batches").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"responses\": [{\"status\": 200, \"response\": {\"id\": \"1\"}}, "
+                    + "{\"status\": 204}]}"))
+            .willSetStateTo("Second"));
+        stubFor(post(urlEqualTo("/2.0/batch")).inScenario("Batches").whenScenarioStateIs("Second")
+            .willReturn(aResponse().withStatus(400).withBody("{\"code\":\"bad_request\"}")));
+
+        BoxBatchRequest batch = new BoxBatchRequest(this.api);
+        batch.setMaxRequestsPerBatch(2);
+        for (int i = 1; i <= 3; i++) {
+            batch.addRequest(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/" + i), "GET"));
+        }
+
+        try {
+            batch.send();
+            fail("Expected a BoxBatchException.");
+        } catch (BoxBatchException e) {
+            assertThat(e.getResponseCode(), is(400));
+            assertThat(e.getResponse(), is("{\"code\":\"bad_request\"}"));
+            assertThat(e.getPartialResponse().size(), is(2));
+            assertThat(((BoxJSONResponse) e.getPartialResponse().getResponse(0)).getJSON(), is("{\"id\":\"1\"}"));
+            assertThat(e.getPartialResponse().getResponse(1).getResponseCode(), is(204));
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void responsesCanBeReadAndPrintedWithoutAConnection() throws Exception {
+        stubFor(post(urlEqualTo("/2.0/batch")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"responses\": [{\"status\": 200, \"response\": {\"id\": \"1\"}}, {\"status\": 204}]}")));
+
+        BoxBatchRequest batch = new BoxBatchRequest(this.api);
+        batch.addRequest(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET"));
+        batch.addRequest(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/2"), "DELETE"));
+        BoxBatchResponse responses = batch.send();
+
+        BoxAPIResponse jsonResponse = responses.getResponse(0);
+        byte[] body = new byte[(int) jsonResponse.getContentLength()];
+        assertThat(jsonResponse.getBody().read(body), is(body.length));
+        assertThat(new String(body, StandardCharsets.UTF_8), is("{\"id\":\"1\"}"));
+        assertThat(jsonResponse.toString(), containsString("200"));
+
+        BoxAPIResponse emptyResponse = responses.getResponse(1);
+        assertThat(emptyResponse.getBody().read(), is(-1));
+        assertThat(emptyResponse.toString(), containsString("204"));
+        emptyResponse.disconnect();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @Category(UnitTest.class)
+    public void requestsToOtherHostsCannotBeBatched() throws Exception {
+        BoxBatchRequest batch = new BoxBatchRequest(this.api);
+        batch.addRequest(new BoxAPIRequest(this.api, new URL("http://localhost:8080/api/2.0/files/content"), "POST"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.box.sdk;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -32,6 +36,7 @@ import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 
 public class BoxFolderTest {
     @Rule
@@ -66,6 +71,93 @@ public class BoxFolderTest {
         rootFolder.createFolder(createdFolderName);
     }
 
+    @Test
+    @Category(UnitTest.class)
+    public void uploadFileFromFileSendsExactLengthAndRereadsFileOnRetry() throws IOException {
+        File file = File.createTempFile("box-upload", ".txt");
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream(file);
+        output.write("file contents".getBytes());
+        output.close();
+
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseUploadURL("http://localhost:8080/");
+        stubFor(post(urlEqualTo("/files/content")).inScenario("Upload").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "0"))
+            .willSetStateTo("Retried"));
+        stubFor(post(urlEqualTo("/files/content")).inScenario("Upload").whenScenarioStateIs("Retried")
+            .willReturn(aResponse()
+                .withStatus(201)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\"}]}")));
+
+        BoxFile.Info info = BoxFolder.getRootFolder(api).uploadFile(file, "file.txt");
+
+        assertThat(info.getID(), is(equalTo("1")));
+        verify(2, postRequestedFor(urlEqualTo("/files/content"))
+            .withHeader("Content-Length", matching("[0-9]+"))
+            .withRequestBody(containing("file contents")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void uploadFileWithSha1VerificationSendsContentMD5ForFileChannel() throws IOException {
+        File file = File.createTempFile("box-upload", ".txt");
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream(file);
+        output.write("file contents".getBytes());
+        output.close();
+        byte[] digest = FileTransfers.createSHA1Digest().digest("file contents".getBytes());
+        String sha1 = FileTransfers.toHexString(digest);
+
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseUploadURL("http://localhost:8080/");
+        stubFor(post(urlEqualTo("/files/content")).willReturn(aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\", \"sha1\": \"" + sha1 + "\"}]}")));
+
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            FileUploadParams uploadParams = new FileUploadParams()
+                .setFileChannel(stream.getChannel())
+                .setName("file.txt")
+                .setVerifySha1(true);
+            BoxFile.Info info = BoxFolder.getRootFolder(api).uploadFile(uploadParams);
+            assertThat(info.getSha1(), is(equalTo(sha1)));
+        } finally {
+            stream.close();
+        }
+
+        verify(postRequestedFor(urlEqualTo("/files/content"))
+            .withHeader("Content-MD5", WireMock.equalTo(sha1))
+            .withRequestBody(containing("file contents")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void uploadFileWithSha1VerificationFailsWhenStreamDoesNotMatchUploadedFile() {
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseUploadURL("http://localhost:8080/");
+        stubFor(post(urlEqualTo("/files/content")).willReturn(aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\", \"sha1\": \"0000\"}]}")));
+
+        FileUploadParams uploadParams = new FileUploadParams()
+            .setContent(new ByteArrayInputStream("file contents".getBytes()))
+            .setName("file.txt")
+            .setVerifySha1(true);
+        try {
+            BoxFolder.getRootFolder(api).uploadFile(uploadParams);
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), Matchers.containsString("SHA-1"));
+        }
+
+        verify(postRequestedFor(urlEqualTo("/files/content")).withoutHeader("Content-MD5"));
+    }
+
     @Test
     @Category(UnitTest.class)
     public void infoParsesMixedPermissionsCorrectly() {
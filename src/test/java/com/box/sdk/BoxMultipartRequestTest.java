@@ -2,6 +2,12 @@ package com.box.sdk;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
@@ -56,4 +62,80 @@ public class BoxMultipartRequestTest {
         String body = bodyOutputStream.toString();
         Assert.assertEquals(expectedBody, body);
     }
+
+    @Test
+    @Category(UnitTest.class)
+    public void fileChannelIsSentWithExactLengthAndRereadOnRetry() throws Exception {
+        File file = File.createTempFile("box-upload", ".txt");
+        file.deleteOnExit();
+        FileOutputStream fileOutput = new FileOutputStream(file);
+        fileOutput.write("test body".getBytes());
+        fileOutput.close();
+
+        String expectedBody =
+            "--da39a3ee5e6b4b0d3255bfef95601890afd80709\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"testfile\"\r\n"
+            + "Content-Type: application/octet-stream\r\n"
+            + "\r\n"
+            + "test body\r\n"
+            + "--da39a3ee5e6b4b0d3255bfef95601890afd80709--";
+
+        FileInputStream fileInput = new FileInputStream(file);
+        try {
+            BoxAPIConnection api = new BoxAPIConnection("");
+            TestBoxMultipartRequest request = new TestBoxMultipartRequest(api, new URL("http://localhost"));
+            request.setFile(fileInput.getChannel(), "testfile");
+
+            for (int attempt = 0; attempt < 2; attempt++) {
+                HttpURLConnection mockConnection = mock(HttpURLConnection.class);
+                ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+                when(mockConnection.getOutputStream()).thenReturn(bodyOutputStream);
+
+                request.resetBody();
+                request.testWriteBody(mockConnection, null);
+
+                verify(mockConnection).setFixedLengthStreamingMode(expectedBody.length());
+                verify(mockConnection, never()).setChunkedStreamingMode(anyInt());
+                Assert.assertEquals(expectedBody, bodyOutputStream.toString());
+            }
+        } finally {
+            fileInput.close();
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void fileChannelLargerThan2GBIsSentInChunks() throws Exception {
+        File file = File.createTempFile("box-upload", ".bin");
+        file.deleteOnExit();
+        RandomAccessFile sparseFile = new RandomAccessFile(file, "rw");
+        try {
+            sparseFile.setLength(Integer.MAX_VALUE + 1L);
+
+            BoxAPIConnection api = new BoxAPIConnection("");
+            TestBoxMultipartRequest request = new TestBoxMultipartRequest(api, new URL("http://localhost"));
+            request.setFile(sparseFile.getChannel(), "testfile");
+
+            // The body doesn't have to be sent to know how the connection was set up.
+            HttpURLConnection mockConnection = mock(HttpURLConnection.class);
+            when(mockConnection.getOutputStream()).thenReturn(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("Not connected.");
+                }
+            });
+            try {
+                request.testWriteBody(mockConnection, null);
+                Assert.fail("Expected a BoxAPIException.");
+            } catch (BoxAPIException e) {
+                Assert.assertEquals(0, e.getResponseCode());
+            }
+
+            verify(mockConnection).setChunkedStreamingMode(0);
+            verify(mockConnection, never()).setFixedLengthStreamingMode(anyInt());
+        } finally {
+            sparseFile.close();
+            file.delete();
+        }
+    }
 }
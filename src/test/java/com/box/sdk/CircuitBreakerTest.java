@@ -0,0 +1,134 @@
+package com.box.sdk;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class CircuitBreakerTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private final List<String> transitions = new ArrayList<String>();
+
+    private Time time;
+    private CircuitBreaker circuitBreaker;
+    private BoxAPIConnection api;
+
+    @Before
+    public void createCircuitBreaker() {
+        this.time = mock(Time.class);
+        when(this.time.currentTimeMillis()).thenReturn(0L);
+
+        this.circuitBreaker = new CircuitBreaker(2, 1000, this.time);
+        this.circuitBreaker.addListener(new CircuitBreakerListener() {
+            @Override
+            public void onStateChange(String circuit, CircuitBreaker.State oldState, CircuitBreaker.State newState) {
+                CircuitBreakerTest.this.transitions.add(circuit + " " + oldState + "->" + newState);
+            }
+        });
+
+        this.api = new BoxAPIConnection("");
+        this.api.setMaxRequestAttempts(1);
+        this.api.setCircuitBreaker(this.circuitBreaker);
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void opensAfterConsecutiveFailuresAndFailsFast() throws Exception {
+        stubFor(get(urlEqualTo("/2.0/files/1")).willReturn(aResponse().withStatus(500)));
+        stubFor(get(urlEqualTo("/2.0/folders/1")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+
+        this.sendFailing(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET"));
+        this.sendFailing(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET"));
+        BoxAPIException error = this.sendFailing(new BoxAPIRequest(this.api,
+            new URL("http://localhost:8080/2.0/files/1"), "GET"));
+        new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/folders/1"), "GET").send();
+
+        assertThat(error.getMessage(), containsString("circuit for localhost/files is open"));
+        assertThat(this.circuitBreaker.getState(new URL("http://localhost:8080/2.0/files/2")),
+            is(CircuitBreaker.State.OPEN));
+        assertThat(this.circuitBreaker.getState(new URL("http://localhost:8080/2.0/folders/1")),
+            is(CircuitBreaker.State.CLOSED));
+        assertThat(this.transitions, is(Arrays.asList("localhost/files CLOSED->OPEN")));
+        verify(2, getRequestedFor(urlEqualTo("/2.0/files/1")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void cheapRequestProbesHalfOpenCircuit() throws Exception {
+        stubFor(get(urlEqualTo("/2.0/files/1")).willReturn(aResponse().withStatus(500)));
+        this.sendFailing(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET"));
+        this.sendFailing(new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET"));
+
+        stubFor(get(urlEqualTo("/2.0/files/1")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+        when(this.time.currentTimeMillis()).thenReturn(1000L);
+        new BoxAPIRequest(this.api, new URL("http://localhost:8080/2.0/files/1"), "GET").send();
+
+        assertThat(this.transitions, is(Arrays.asList("localhost/files CLOSED->OPEN", "localhost/files OPEN->HALF_OPEN",
+            "localhost/files HALF_OPEN->CLOSED")));
+        verify(0, optionsRequestedFor(urlEqualTo("/2.0/files/1")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void uploadWaitsForCheapProbeBeforeStreamingItsBody() throws Exception {
+        URL uploadURL = new URL("http://localhost:8080/api/2.0/files/content");
+        stubFor(post(urlEqualTo("/api/2.0/files/content")).willReturn(aResponse().withStatus(500)));
+        this.sendFailing(this.createUpload(uploadURL));
+        this.sendFailing(this.createUpload(uploadURL));
+
+        stubFor(options(urlEqualTo("/api/2.0/files/content")).willReturn(aResponse().withStatus(503)));
+        when(this.time.currentTimeMillis()).thenReturn(1000L);
+        this.sendFailing(this.createUpload(uploadURL));
+        assertThat(this.circuitBreaker.getState(uploadURL), is(CircuitBreaker.State.OPEN));
+        verify(2, postRequestedFor(urlEqualTo("/api/2.0/files/content")));
+
+        stubFor(options(urlEqualTo("/api/2.0/files/content")).willReturn(aResponse().withStatus(401)));
+        stubFor(post(urlEqualTo("/api/2.0/files/content")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+        when(this.time.currentTimeMillis()).thenReturn(2000L);
+        this.createUpload(uploadURL).send();
+
+        assertThat(this.circuitBreaker.getState(uploadURL), is(CircuitBreaker.State.CLOSED));
+        verify(2, optionsRequestedFor(urlEqualTo("/api/2.0/files/content")));
+        verify(3, postRequestedFor(urlEqualTo("/api/2.0/files/content")));
+    }
+
+    private BoxMultipartRequest createUpload(URL url) {
+        BoxMultipartRequest request = new BoxMultipartRequest(this.api, url);
+        request.putField("parent_id", "0");
+        request.setFile(new ByteArrayInputStream("file contents".getBytes()), "file.txt");
+        return request;
+    }
+
+    private BoxAPIException sendFailing(BoxAPIRequest request) {
+        try {
+            request.send();
+        } catch (BoxAPIException e) {
+            return e;
+        }
+
+        fail("Expected the request to fail.");
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.box.sdk;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.eclipsesource.json.JsonObject;
+
+public class ConcurrentAccessTokenCacheTest {
+    @Test
+    @Category(UnitTest.class)
+    public void returnsStoredTokenInformationUntilItExpires() {
+        ConcurrentAccessTokenCache cache = new ConcurrentAccessTokenCache(10);
+        long now = System.currentTimeMillis();
+        String valid = tokenInfo("valid", now, 3600000);
+        String expired = tokenInfo("expired", now - 7200000, 3600000);
+
+        cache.put("valid", valid);
+        cache.put("expired", expired);
+
+        assertThat(cache.get("valid"), is(valid));
+        assertThat(cache.get("expired"), is(nullValue()));
+        assertThat(cache.get("missing"), is(nullValue()));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void evictsLeastRecentlyUsedEntryWhenFull() {
+        ConcurrentAccessTokenCache cache = new ConcurrentAccessTokenCache(2, 1);
+        long now = System.currentTimeMillis();
+
+        cache.put("a", tokenInfo("a", now, 3600000));
+        cache.put("b", tokenInfo("b", now, 3600000));
+        cache.get("a");
+        cache.put("c", tokenInfo("c", now, 3600000));
+
+        assertThat(cache.get("a"), is(notNullValue()));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("c"), is(notNullValue()));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void storesValuesThatAreNotTokenInformationAsIs() {
+        ConcurrentAccessTokenCache cache = new ConcurrentAccessTokenCache(10);
+
+        cache.put("text", "not json");
+        cache.put("json", "{\"foo\": \"bar\"}");
+
+        assertThat(cache.get("text"), is("not json"));
+        assertThat(cache.get("json"), is("{\"foo\": \"bar\"}"));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void storingTheSameTokenInformationAgainKeepsTheStoredEntry() {
+        ConcurrentAccessTokenCache cache = new ConcurrentAccessTokenCache(10);
+        String value = tokenInfo("token", System.currentTimeMillis(), 3600000);
+
+        cache.put("key", value);
+        cache.put("key", new String(value));
+
+        assertThat(cache.get("key"), is(sameInstance(value)));
+        assertThat(cache.size(), is(1));
+    }
+
+    private static String tokenInfo(String accessToken, long lastRefresh, long expires) {
+        return new JsonObject()
+            .add("accessToken", accessToken)
+            .add("lastRefresh", lastRefresh)
+            .add("expires", expires)
+            .toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.box.sdk;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class DefaultRetryPolicyTest {
+    private Time time;
+    private Random random;
+
+    @Before
+    public void mockTimeAndRandom() {
+        this.time = mock(Time.class);
+        when(this.time.currentTimeMillis()).thenReturn(0L);
+        this.random = mock(Random.class);
+        when(this.random.nextDouble()).thenReturn(0.5);
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void delaysGrowWithDecorrelatedJitterUpToTheMaximum() throws MalformedURLException {
+        DefaultRetryPolicy policy = new DefaultRetryPolicy(1000, 10000, 0.2, 10, 120000, this.time, this.random);
+        RetryContext context = this.failedContext("GET", 500, null);
+
+        assertThat(policy.getRetryDelay(context), is(2000L));
+        context.recordDelay(2000);
+        assertThat(policy.getRetryDelay(context), is(3500L));
+        context.recordDelay(9000);
+        assertThat(policy.getRetryDelay(context), is(5500L));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void waitsAtLeastAsLongAsRetryAfterHeader() throws MalformedURLException {
+        DefaultRetryPolicy policy = new DefaultRetryPolicy(1000, 10000, 0.2, 10, 120000, this.time, this.random);
+
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "30")), is(30000L));
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "1")), is(2000L));
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "Thu, 01 Jan 1970 00:01:00 GMT")),
+            is(60000L));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failsInsteadOfWaitingLongerThanTheMaximumRetryAfter() throws MalformedURLException {
+        DefaultRetryPolicy policy = new DefaultRetryPolicy(1000, 10000, 0.2, 10, 120000, this.time, this.random);
+
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "120")), is(120000L));
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "3600")), is(RetryPolicy.NO_RETRY));
+        when(this.time.currentTimeMillis()).thenReturn(3000000L);
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "Thu, 01 Jan 1970 01:00:00 GMT")),
+            is(RetryPolicy.NO_RETRY));
+        when(this.time.currentTimeMillis()).thenReturn(3540000L);
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 429, "Thu, 01 Jan 1970 01:00:00 GMT")),
+            is(60000L));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void onlyRetriesServerErrorsForIdempotentMethods() throws MalformedURLException {
+        DefaultRetryPolicy policy = new DefaultRetryPolicy(1000, 10000, 0.2, 10, 120000, this.time, this.random);
+
+        assertThat(policy.getRetryDelay(this.failedContext("PUT", 500, null)), is(2000L));
+        assertThat(policy.getRetryDelay(this.failedContext("POST", 500, null)), is(RetryPolicy.NO_RETRY));
+        assertThat(policy.getRetryDelay(this.failedContext("POST", 503, null)), is(RetryPolicy.NO_RETRY));
+        assertThat(policy.getRetryDelay(this.failedContext("POST", 503, "5")), is(5000L));
+        assertThat(policy.getRetryDelay(this.failedContext("POST", 429, null)), is(2000L));
+        assertThat(policy.getRetryDelay(this.failedContext("GET", 404, null)), is(RetryPolicy.NO_RETRY));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void stopsRetryingWhenTheRetryBudgetIsExhausted() throws MalformedURLException {
+        DefaultRetryPolicy policy = new DefaultRetryPolicy(1000, 10000, 0.5, 1, 120000, this.time, this.random);
+        RetryContext context = this.failedContext("GET", 500, null);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(policy.getRetryDelay(context), is(not(RetryPolicy.NO_RETRY)));
+        }
+        assertThat(policy.getRetryDelay(context), is(RetryPolicy.NO_RETRY));
+
+        policy.onRequest(context);
+        policy.onRequest(context);
+        assertThat(policy.getRetryDelay(context), is(not(RetryPolicy.NO_RETRY)));
+        assertThat(policy.getRetryDelay(context), is(RetryPolicy.NO_RETRY));
+
+        when(this.time.currentTimeMillis()).thenReturn(1000L);
+        assertThat(policy.getRetryDelay(context), is(not(RetryPolicy.NO_RETRY)));
+        assertThat(policy.getRetryDelay(context), is(RetryPolicy.NO_RETRY));
+    }
+
+    private RetryContext failedContext(String method, int responseCode, String retryAfter)
+        throws MalformedURLException {
+
+        BoxAPIRequest request = new BoxAPIRequest(new URL("http://localhost:8080/"), method);
+        BoxAPIException error = new BoxAPIException("The API returned an error code: " + responseCode, responseCode,
+            "");
+        if (retryAfter != null) {
+            Map<String, List<String>> headers = Collections.singletonMap("retry-after",
+                Collections.singletonList(retryAfter));
+            error.setHeaders(headers);
+        }
+
+        RetryContext context = new RetryContext(request, 5, this.time);
+        context.recordFailure(error);
+        return context;
+    }
+}
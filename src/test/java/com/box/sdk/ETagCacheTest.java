@@ -0,0 +1,95 @@
+package com.box.sdk;
+
+import java.net.URL;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class ETagCacheTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void unchangedResponseIsServedFromCacheOnNotModified() throws Exception {
+        stubFor(get(urlEqualTo("/files/1")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withHeader("ETag", "\"1\"")
+            .withBody("{\"id\": \"1\"}")));
+        stubFor(get(urlEqualTo("/files/1")).withHeader("If-None-Match", equalTo("\"1\""))
+            .willReturn(aResponse().withStatus(304)));
+
+        ETagCache cache = new ETagCache();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setETagCache(cache);
+
+        URL url = new URL("http://localhost:8080/files/1");
+        BoxJSONResponse first = (BoxJSONResponse) new BoxAPIRequest(api, url, "GET").send();
+        BoxJSONResponse second = (BoxJSONResponse) new BoxAPIRequest(api, url, "GET").send();
+
+        assertThat(first.getJSON(), is("{\"id\": \"1\"}"));
+        assertThat(second.getJSON(), is("{\"id\": \"1\"}"));
+        assertThat(second.getResponseCode(), is(200));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+        verify(1, getRequestedFor(urlEqualTo("/files/1")).withHeader("If-None-Match", equalTo("\"1\"")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void itemInfoIsRevalidatedWithEtagFromBody() throws Exception {
+        stubFor(get(urlMatching("/files/1.*")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"type\": \"file\", \"id\": \"1\", \"etag\": \"3\", \"name\": \"Old Name.txt\"}")));
+        stubFor(get(urlMatching("/files/1.*")).withHeader("If-None-Match", equalTo("3"))
+            .willReturn(aResponse().withStatus(304)));
+
+        ETagCache cache = new ETagCache();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setBaseURL("http://localhost:8080/");
+        api.setETagCache(cache);
+
+        BoxFile file = new BoxFile(api, "1");
+        file.getInfo();
+        BoxFile.Info info = file.getInfo();
+
+        assertThat(info.getName(), is("Old Name.txt"));
+        assertThat(info.getEtag(), is("3"));
+        assertThat(cache.getHits(), is(1L));
+
+        stubFor(get(urlMatching("/files/1.*")).withHeader("If-None-Match", equalTo("3")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"type\": \"file\", \"id\": \"1\", \"etag\": \"4\", \"name\": \"New Name.txt\"}")));
+
+        assertThat(file.getInfo().getName(), is("New Name.txt"));
+        assertThat(cache.getMisses(), is(2L));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void responsesWithoutEtagAreNotCached() throws Exception {
+        stubFor(get(urlEqualTo("/users/me")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"1\"}")));
+
+        ETagCache cache = new ETagCache();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setETagCache(cache);
+
+        URL url = new URL("http://localhost:8080/users/me");
+        ((BoxJSONResponse) new BoxAPIRequest(api, url, "GET").send()).getJSON();
+        ((BoxJSONResponse) new BoxAPIRequest(api, url, "GET").send()).getJSON();
+
+        assertThat(cache.size(), is(0));
+        verify(0, getRequestedFor(urlEqualTo("/users/me")).withHeader("If-None-Match", matching(".*")));
+    }
+}
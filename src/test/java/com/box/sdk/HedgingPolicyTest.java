@@ -0,0 +1,119 @@
+package com.box.sdk;
+
+import java.net.URL;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+public class HedgingPolicyTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void computesDelayFromPercentileOfRecordedLatencies() {
+        HedgingPolicy policy = new HedgingPolicy(0.9, 0.05);
+        assertThat(policy.getHedgeDelay(), is(-1L));
+
+        for (int i = 1; i <= 20; i++) {
+            policy.recordLatency(i * 10);
+        }
+
+        assertThat(policy.getHedgeDelay(), is(180L));
+        policy.setMinDelay(500);
+        assertThat(policy.getHedgeDelay(), is(500L));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void slowRequestIsHedgedAndFasterResponseIsUsed() throws Exception {
+        stubFor(get(urlEqualTo("/files/1")).inScenario("Hedge").whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withFixedDelay(3000).withBody("slow"))
+            .willSetStateTo("Hedged"));
+        stubFor(get(urlEqualTo("/files/1")).inScenario("Hedge").whenScenarioStateIs("Hedged")
+            .willReturn(aResponse().withBody("fast")));
+
+        HedgingPolicy policy = this.createWarmPolicy(1.0);
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setHedgingPolicy(policy);
+
+        long start = System.currentTimeMillis();
+        BoxAPIResponse response = new BoxAPIRequest(api, new URL("http://localhost:8080/files/1"), "GET").send();
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertThat(response.getResponseCode(), is(200));
+        assertThat(elapsed, is(lessThan(2000L)));
+        assertThat(policy.getHedgesSent(), is(1L));
+        assertThat(policy.getHedgesWon(), is(1L));
+        response.disconnect();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void hedgesAreLimitedByBudget() throws Exception {
+        stubFor(get(urlEqualTo("/files/1")).willReturn(aResponse().withFixedDelay(200).withBody("slow")));
+        stubFor(post(urlEqualTo("/files/1")).willReturn(aResponse().withFixedDelay(200).withBody("slow")));
+
+        HedgingPolicy policy = this.createWarmPolicy(0.05);
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setHedgingPolicy(policy);
+
+        new BoxAPIRequest(api, new URL("http://localhost:8080/files/1"), "GET").send().disconnect();
+        new BoxAPIRequest(api, new URL("http://localhost:8080/files/1"), "POST").send().disconnect();
+
+        assertThat(policy.getHedgesSent(), is(0L));
+        verify(1, getRequestedFor(urlEqualTo("/files/1")));
+        verify(1, postRequestedFor(urlEqualTo("/files/1")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failedRequestDoesNotWaitForHedgeQueuedOnSaturatedExecutor() throws Exception {
+        stubFor(get(urlEqualTo("/files/1")).willReturn(aResponse().withFixedDelay(500).withStatus(500)));
+
+        HedgingPolicy policy = this.createWarmPolicy(1.0);
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setHedgingPolicy(policy);
+        api.setMaxRequestAttempts(1);
+        api.setAsyncExecutor(executor);
+
+        try {
+            BoxFuture<BoxAPIResponse> future = new BoxAPIRequest(api, new URL("http://localhost:8080/files/1"), "GET")
+                .sendAsync();
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected the request to fail.");
+            } catch (ExecutionException e) {
+                assertThat(((BoxAPIException) e.getCause()).getResponseCode(), is(500));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(policy.getHedgesSent(), is(0L));
+        verify(1, getRequestedFor(urlEqualTo("/files/1")));
+    }
+
+    private HedgingPolicy createWarmPolicy(double budgetRatio) {
+        HedgingPolicy policy = new HedgingPolicy(0.95, budgetRatio);
+        for (int i = 0; i < 20; i++) {
+            policy.recordLatency(50);
+        }
+        return policy;
+    }
+}
@@ -0,0 +1,89 @@
+package com.box.sdk;
+
+import java.io.StringWriter;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.bouncycastle.openssl.jcajce.JcaMiscPEMGenerator;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.openssl.jcajce.JcePEMEncryptorBuilder;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class JWTAssertionBuilderTest {
+    private static KeyPair keyPair;
+    private static String encryptedPrivateKey;
+
+    @BeforeClass
+    public static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        StringWriter pem = new StringWriter();
+        JcaPEMWriter writer = new JcaPEMWriter(pem);
+        writer.writeObject(new JcaMiscPEMGenerator(keyPair,
+            new JcePEMEncryptorBuilder("AES-128-CBC").build("password".toCharArray())));
+        writer.close();
+        encryptedPrivateKey = pem.toString();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void buildsAssertionSignedWithDecryptedPrivateKey() throws Exception {
+        JWTAssertionBuilder builder = new JWTAssertionBuilder(this.createPreferences());
+
+        String assertion = builder.buildAssertion("client", "12345", DeveloperEditionEntityType.USER);
+        JsonWebSignature jws = new JsonWebSignature();
+        jws.setCompactSerialization(assertion);
+        jws.setKey(keyPair.getPublic());
+
+        assertThat(jws.verifySignature(), is(true));
+        assertThat(jws.getAlgorithmHeaderValue(), is("RS384"));
+        assertThat(jws.getKeyIdHeaderValue(), is("key"));
+        JwtClaims claims = JwtClaims.parse(jws.getPayload());
+        assertThat(claims.getIssuer(), is("client"));
+        assertThat(claims.getSubject(), is("12345"));
+        assertThat(claims.getClaimValue("box_sub_type"), is((Object) "user"));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void builderDecryptsPrivateKeyOnlyOnce() {
+        JWTAssertionBuilder builder = new JWTAssertionBuilder(this.createPreferences());
+
+        builder.buildAssertion("client", "1", DeveloperEditionEntityType.USER);
+        PrivateKey key = builder.getDecryptedPrivateKey();
+        builder.buildAssertion("client", "2", DeveloperEditionEntityType.ENTERPRISE);
+
+        assertThat(builder.getDecryptedPrivateKey(), is(sameInstance(key)));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void preferencesShareBuilderUntilTheyChange() {
+        JWTEncryptionPreferences encryptionPref = this.createPreferences();
+        JWTAssertionBuilder builder = encryptionPref.getAssertionBuilder();
+
+        assertThat(encryptionPref.getAssertionBuilder(), is(sameInstance(builder)));
+
+        encryptionPref.setPublicKeyID("newKey");
+        assertThat(encryptionPref.getAssertionBuilder(), is(not(sameInstance(builder))));
+    }
+
+    private JWTEncryptionPreferences createPreferences() {
+        JWTEncryptionPreferences encryptionPref = new JWTEncryptionPreferences();
+        encryptionPref.setPublicKeyID("key");
+        encryptionPref.setPrivateKey(encryptedPrivateKey);
+        encryptionPref.setPrivateKeyPassword("password");
+        encryptionPref.setEncryptionAlgorithm(EncryptionAlgorithm.RSA_SHA_384);
+        return encryptionPref;
+    }
+}
@@ -0,0 +1,137 @@
+package com.box.sdk;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+public class LargeFileDownloadTest {
+    private static final String CONTENTS = "abcdefghij";
+
+    @Rule
+    public final WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void downloadLargeFileWritesSegmentsIntoPreallocatedFile() throws IOException {
+        stubInfo(sha1(CONTENTS));
+        stubSegment("bytes=0-3", "abcd");
+        stubSegment("bytes=4-7", "efgh");
+        stubSegment("bytes=8-9", "ij");
+        File target = File.createTempFile("box-download", ".txt");
+        target.deleteOnExit();
+
+        RandomAccessFile file = new RandomAccessFile(target, "rw");
+        file.write("previous contents that are longer".getBytes());
+        BoxFile.Info info;
+        try {
+            info = new BoxFile(createAPI(), "1").downloadLargeFile(file.getChannel(), createDownload());
+        } finally {
+            file.close();
+        }
+
+        assertThat(info.getSize(), is(10L));
+        assertThat(read(target), is(CONTENTS));
+        verify(3, getRequestedFor(urlEqualTo("/files/1/content")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void segmentThatEndsEarlyIsRequestedAgainFromWhereItStopped() throws IOException {
+        stubInfo(sha1(CONTENTS));
+        stubSegment("bytes=0-3", "abcd");
+        stubSegment("bytes=8-9", "ij");
+        stubFor(get(urlEqualTo("/files/1/content")).inScenario("Segment").whenScenarioStateIs(Scenario.STARTED)
+            .withHeader("Range", equalTo("bytes=4-7"))
+            .willReturn(aResponse().withBody("ef"))
+            .willSetStateTo("Ended early"));
+        stubSegment("bytes=6-7", "gh");
+        File target = File.createTempFile("box-download", ".txt");
+        target.deleteOnExit();
+
+        RandomAccessFile file = new RandomAccessFile(target, "rw");
+        try {
+            new BoxFile(createAPI(), "1").downloadLargeFile(file.getChannel(), createDownload());
+        } finally {
+            file.close();
+        }
+
+        assertThat(read(target), is(CONTENTS));
+        verify(1, getRequestedFor(urlEqualTo("/files/1/content")).withHeader("Range", equalTo("bytes=6-7")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void downloadLargeFileFailsWhenSha1DoesNotMatch() throws IOException {
+        stubInfo(sha1("something else"));
+        stubSegment("bytes=0-3", "abcd");
+        stubSegment("bytes=4-7", "efgh");
+        stubSegment("bytes=8-9", "ij");
+        File target = File.createTempFile("box-download", ".txt");
+        target.deleteOnExit();
+
+        RandomAccessFile file = new RandomAccessFile(target, "rw");
+        try {
+            new BoxFile(createAPI(), "1").downloadLargeFile(file.getChannel(), createDownload());
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage().contains("SHA-1"), is(true));
+        } finally {
+            file.close();
+        }
+    }
+
+    private static BoxAPIConnection createAPI() {
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseURL("http://localhost:8080/");
+        return api;
+    }
+
+    private static LargeFileDownload createDownload() {
+        return new LargeFileDownload(2, 4, 1, TimeUnit.MINUTES);
+    }
+
+    private static void stubInfo(String sha1) {
+        stubFor(get(urlMatching("/files/1\\?fields=.*")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"type\": \"file\", \"id\": \"1\", \"size\": 10, \"sha1\": \"" + sha1 + "\"}")));
+    }
+
+    private static void stubSegment(String range, String contents) {
+        stubFor(get(urlEqualTo("/files/1/content"))
+            .withHeader("Range", equalTo(range))
+            .willReturn(aResponse().withBody(contents)));
+    }
+
+    private static String read(File file) throws IOException {
+        FileInputStream input = new FileInputStream(file);
+        try {
+            byte[] contents = new byte[(int) file.length()];
+            int read = 0;
+            while (read < contents.length) {
+                read += input.read(contents, read, contents.length - read);
+            }
+            return new String(contents, StandardCharsets.UTF_8);
+        } finally {
+            input.close();
+        }
+    }
+
+    private static String sha1(String contents) {
+        return FileTransfers.toHexString(FileTransfers.createSHA1Digest().digest(contents.getBytes()));
+    }
+}
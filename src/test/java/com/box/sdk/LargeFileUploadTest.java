@@ -0,0 +1,219 @@
+package com.box.sdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+public class LargeFileUploadTest {
+    private static final String CONTENTS = "abcdefghij";
+
+    @Rule
+    public final WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void uploadLargeFileUploadsPartsInParallelAndCommits() {
+        BoxAPIConnection api = createAPI();
+        stubFor(post(urlEqualTo("/files/upload_sessions"))
+            .withRequestBody(equalToJson("{\"folder_id\": \"0\", \"file_name\": \"file.txt\", \"file_size\": 10}"))
+            .willReturn(sessionResponse()));
+        stubParts();
+        stubFor(post(urlEqualTo("/files/upload_sessions/session1/commit")).willReturn(aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\", \"name\": \"file.txt\"}]}")));
+
+        BoxFolder folder = new BoxFolder(api, "0");
+        BoxFile.Info info = folder.uploadLargeFile(new ByteArrayInputStream(CONTENTS.getBytes()), "file.txt", 10,
+            new LargeFileUpload(2, 1, TimeUnit.MINUTES));
+
+        assertThat(info.getID(), is("1"));
+        assertThat(info.getName(), is("file.txt"));
+        verifyPart("bytes 0-3/10", "abcd");
+        verifyPart("bytes 4-7/10", "efgh");
+        verifyPart("bytes 8-9/10", "ij");
+        verify(postRequestedFor(urlEqualTo("/files/upload_sessions/session1/commit"))
+            .withHeader("Digest", equalTo("sha=" + sha1(CONTENTS)))
+            .withRequestBody(equalToJson("{\"parts\": ["
+                + "{\"part_id\": \"p0\", \"offset\": 0, \"size\": 4, \"sha1\": \"s0\"},"
+                + "{\"part_id\": \"p4\", \"offset\": 4, \"size\": 4, \"sha1\": \"s4\"},"
+                + "{\"part_id\": \"p8\", \"offset\": 8, \"size\": 2, \"sha1\": \"s8\"}]}")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void uploadLargeFileCreatesSessionForNewVersion() {
+        BoxAPIConnection api = createAPI();
+        stubFor(post(urlEqualTo("/files/1/upload_sessions"))
+            .withRequestBody(equalToJson("{\"file_size\": 10}"))
+            .willReturn(sessionResponse()));
+        stubParts();
+        stubFor(post(urlEqualTo("/files/upload_sessions/session1/commit")).willReturn(aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\"}]}")));
+
+        BoxFile file = new BoxFile(api, "1");
+        BoxFile.Info info = file.uploadLargeFile(new ByteArrayInputStream(CONTENTS.getBytes()), 10);
+
+        assertThat(info.getID(), is("1"));
+        verify(3, putRequestedFor(urlEqualTo("/files/upload_sessions/session1")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void commitIsRetriedWhileServerIsStillProcessingParts() {
+        BoxAPIConnection api = createAPI();
+        stubFor(post(urlEqualTo("/files/upload_sessions")).willReturn(sessionResponse()));
+        stubParts();
+        stubFor(post(urlEqualTo("/files/upload_sessions/session1/commit")).inScenario("Commit")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(202).withHeader("Retry-After", "0"))
+            .willSetStateTo("Processed"));
+        stubFor(post(urlEqualTo("/files/upload_sessions/session1/commit")).inScenario("Commit")
+            .whenScenarioStateIs("Processed")
+            .willReturn(aResponse()
+                .withStatus(201)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\"}]}")));
+
+        BoxFolder folder = new BoxFolder(api, "0");
+        BoxFile.Info info = folder.uploadLargeFile(new ByteArrayInputStream(CONTENTS.getBytes()), "file.txt", 10);
+
+        assertThat(info.getID(), is("1"));
+        verify(2, postRequestedFor(urlEqualTo("/files/upload_sessions/session1/commit")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failedPartAbortsSession() {
+        BoxAPIConnection api = createAPI();
+        stubFor(post(urlEqualTo("/files/upload_sessions")).willReturn(sessionResponse()));
+        stubParts();
+        stubFor(put(urlEqualTo("/files/upload_sessions/session1"))
+            .withHeader("Content-Range", equalTo("bytes 8-9/10"))
+            .willReturn(aResponse()
+                .withStatus(416)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"code\": \"range_not_satisfiable\"}")));
+        stubFor(delete(urlEqualTo("/files/upload_sessions/session1")).willReturn(aResponse().withStatus(204)));
+
+        BoxFolder folder = new BoxFolder(api, "0");
+        try {
+            folder.uploadLargeFile(new ByteArrayInputStream(CONTENTS.getBytes()), "file.txt", 10,
+                new LargeFileUpload(1));
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(416));
+        }
+
+        verify(deleteRequestedFor(urlEqualTo("/files/upload_sessions/session1")));
+        verify(0, postRequestedFor(urlEqualTo("/files/upload_sessions/session1/commit")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void resumeUploadsOnlyMissingParts() throws IOException {
+        File checkpointFile = File.createTempFile("box-upload", ".checkpoint");
+        checkpointFile.delete();
+        BoxAPIConnection api = createAPI();
+        stubFor(post(urlEqualTo("/files/upload_sessions")).willReturn(sessionResponse()));
+        stubParts();
+        stubFor(put(urlEqualTo("/files/upload_sessions/session1"))
+            .withHeader("Content-Range", equalTo("bytes 8-9/10"))
+            .willReturn(aResponse().withStatus(416)));
+
+        BoxFolder folder = new BoxFolder(api, "0");
+        LargeFileUpload upload = new LargeFileUpload(1);
+        try {
+            folder.uploadLargeFile(new ByteArrayInputStream(CONTENTS.getBytes()), "file.txt", 10, upload,
+                checkpointFile);
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(416));
+        }
+
+        verify(0, deleteRequestedFor(urlEqualTo("/files/upload_sessions/session1")));
+        UploadCheckpoint checkpoint = UploadCheckpoint.read(checkpointFile);
+        assertThat(checkpoint.getSessionID(), is("session1"));
+        assertThat(checkpoint.getPartSize(), is(4));
+        assertThat(checkpoint.getParts().keySet().toString(), is("[0, 4]"));
+
+        // The server has both parts even if the checkpoint were missing one.
+        stubFor(get(urlMatching("/files/upload_sessions/session1/parts.*")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"part_id\": \"p0\", \"offset\": 0, \"size\": 4, \"sha1\": \"s0\"},"
+                + "{\"part_id\": \"p4\", \"offset\": 4, \"size\": 4, \"sha1\": \"s4\"}], \"total_count\": 2}")));
+        stubParts();
+        stubFor(post(urlEqualTo("/files/upload_sessions/session1/commit")).willReturn(aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"entries\": [{\"type\": \"file\", \"id\": \"1\"}]}")));
+
+        BoxFile.Info info = upload.resume(api, new ByteArrayInputStream(CONTENTS.getBytes()), checkpointFile);
+
+        assertThat(info.getID(), is("1"));
+        verify(1, putRequestedFor(urlEqualTo("/files/upload_sessions/session1"))
+            .withHeader("Content-Range", equalTo("bytes 0-3/10")));
+        verify(2, putRequestedFor(urlEqualTo("/files/upload_sessions/session1"))
+            .withHeader("Content-Range", equalTo("bytes 8-9/10")));
+        verify(postRequestedFor(urlEqualTo("/files/upload_sessions/session1/commit"))
+            .withHeader("Digest", equalTo("sha=" + sha1(CONTENTS))));
+        assertFalse(checkpointFile.exists());
+    }
+
+    private static BoxAPIConnection createAPI() {
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseURL("http://localhost:8080/");
+        api.setBaseUploadURL("http://localhost:8080/");
+        return api;
+    }
+
+    private static ResponseDefinitionBuilder sessionResponse() {
+        return aResponse()
+            .withStatus(201)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"type\": \"upload_session\", \"id\": \"session1\", \"part_size\": 4, \"total_parts\": 3}");
+    }
+
+    private static void stubParts() {
+        String[] ranges = {"bytes 0-3/10", "bytes 4-7/10", "bytes 8-9/10"};
+        long[] offsets = {0, 4, 8};
+        for (int i = 0; i < ranges.length; i++) {
+            long size = Math.min(4, 10 - offsets[i]);
+            stubFor(put(urlEqualTo("/files/upload_sessions/session1"))
+                .withHeader("Content-Range", equalTo(ranges[i]))
+                .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"part\": {\"part_id\": \"p" + offsets[i] + "\", \"offset\": " + offsets[i]
+                        + ", \"size\": " + size + ", \"sha1\": \"s" + offsets[i] + "\"}}")));
+        }
+    }
+
+    private static void verifyPart(String range, String contents) {
+        verify(putRequestedFor(urlEqualTo("/files/upload_sessions/session1"))
+            .withHeader("Content-Range", equalTo(range))
+            .withHeader("Digest", equalTo("sha=" + sha1(contents)))
+            .withRequestBody(equalTo(contents)));
+    }
+
+    private static String sha1(String contents) {
+        return Base64.encode(FileTransfers.createSHA1Digest().digest(contents.getBytes()));
+    }
+}
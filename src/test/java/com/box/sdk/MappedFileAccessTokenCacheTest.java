@@ -0,0 +1,102 @@
+package com.box.sdk;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.eclipsesource.json.JsonObject;
+
+public class MappedFileAccessTokenCacheTest {
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        this.file = File.createTempFile("box-tokens", ".cache");
+        this.file.delete();
+    }
+
+    @After
+    public void deleteFile() {
+        this.file.delete();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void storedTokensAreReturnedAfterReopeningTheFile() throws IOException {
+        String value = tokenInfo("token", System.currentTimeMillis(), 3600000);
+
+        MappedFileAccessTokenCache cache = new MappedFileAccessTokenCache(this.file);
+        cache.put("key", value);
+        cache.close();
+
+        MappedFileAccessTokenCache reopenedCache = new MappedFileAccessTokenCache(this.file);
+        try {
+            assertThat(reopenedCache.get("key"), is(value));
+            assertThat(reopenedCache.get("missing"), is(nullValue()));
+        } finally {
+            reopenedCache.close();
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void expiredAndOversizedEntriesAreNotReturned() throws IOException {
+        MappedFileAccessTokenCache cache = new MappedFileAccessTokenCache(this.file, 16, 100);
+        try {
+            cache.put("expired", tokenInfo("token", System.currentTimeMillis() - 7200000, 3600000));
+            cache.put("oversized", tokenInfo("a very long access token that doesn't fit in a single slot",
+                System.currentTimeMillis(), 3600000));
+
+            assertThat(cache.get("expired"), is(nullValue()));
+            assertThat(cache.get("oversized"), is(nullValue()));
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void replacesOldestEntryWhenFull() throws IOException {
+        MappedFileAccessTokenCache cache = new MappedFileAccessTokenCache(this.file, 8, 200);
+        try {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 9; i++) {
+                cache.put("key" + i, tokenInfo("token" + i, now + i, 3600000));
+            }
+
+            assertThat(cache.get("key0"), is(nullValue()));
+            assertThat(cache.get("key1"), is(notNullValue()));
+            assertThat(cache.get("key8"), is(notNullValue()));
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void existingFileKeepsItsSize() throws IOException {
+        new MappedFileAccessTokenCache(this.file, 64, 200).close();
+
+        MappedFileAccessTokenCache cache = new MappedFileAccessTokenCache(this.file, 8, 100);
+        try {
+            assertThat(cache.getMaxEntries(), is(64));
+        } finally {
+            cache.close();
+        }
+    }
+
+    private static String tokenInfo(String accessToken, long lastRefresh, long expires) {
+        return new JsonObject()
+            .add("accessToken", accessToken)
+            .add("lastRefresh", lastRefresh)
+            .add("expires", expires)
+            .toString();
+    }
+}
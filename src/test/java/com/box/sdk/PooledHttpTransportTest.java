@@ -0,0 +1,218 @@
+package com.box.sdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class PooledHttpTransportTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private PooledHttpTransport transport;
+    private BoxAPIConnection api;
+
+    @Before
+    public void setUpTransport() {
+        this.transport = new PooledHttpTransport(2);
+        this.api = new BoxAPIConnection("token");
+        this.api.setTransport(this.transport);
+    }
+
+    @After
+    public void closeTransport() {
+        this.transport.closeIdleConnections();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sequentialRequestsReuseASingleConnection() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        URL url = new URL("http://localhost:8080/folders/0");
+        for (int i = 0; i < 3; i++) {
+            BoxJSONResponse response = (BoxJSONResponse) new BoxAPIRequest(this.api, url, "GET").send();
+            assertThat(response.getJSON(), is("{\"id\": \"0\"}"));
+        }
+
+        assertThat(this.transport.getLeasedConnectionCount(), is(0));
+        assertThat(this.transport.getIdleConnectionCount(), is(1));
+        verify(3, getRequestedFor(urlEqualTo("/folders/0")).withHeader("Authorization", equalTo("Bearer token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendsFixedLengthBody() throws MalformedURLException {
+        stubFor(put(urlEqualTo("/files/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+
+        BoxJSONRequest request = new BoxJSONRequest(this.api, new URL("http://localhost:8080/files/0"), "PUT");
+        request.setBody("{\"name\": \"new name\"}");
+        ((BoxJSONResponse) request.send()).getJSON();
+
+        verify(putRequestedFor(urlEqualTo("/files/0"))
+            .withHeader("Content-Length", equalTo("20"))
+            .withRequestBody(equalTo("{\"name\": \"new name\"}")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sendsChunkedMultipartBody() throws MalformedURLException {
+        stubFor(post(urlEqualTo("/files/content")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+
+        BoxMultipartRequest request = new BoxMultipartRequest(this.api,
+            new URL("http://localhost:8080/files/content"));
+        request.putField("parent_id", "0");
+        request.setFile(new ByteArrayInputStream("file contents".getBytes()), "file.txt");
+        ((BoxJSONResponse) request.send()).getJSON();
+
+        verify(postRequestedFor(urlEqualTo("/files/content"))
+            .withHeader("Transfer-Encoding", equalTo("chunked"))
+            .withRequestBody(containing("file contents")));
+        assertThat(this.transport.getIdleConnectionCount(), is(1));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void errorResponseIsReadFromPooledConnection() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/files/0")).willReturn(aResponse()
+            .withStatus(404)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"code\": \"not_found\"}")));
+
+        try {
+            new BoxAPIRequest(this.api, new URL("http://localhost:8080/files/0"), "GET").send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(404));
+            assertThat(e.getResponse(), is("{\"code\": \"not_found\"}"));
+        }
+
+        assertThat(this.transport.getLeasedConnectionCount(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestWhoseBodyFailsReleasesItsConnection() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+        PooledHttpTransport singleConnectionTransport = new PooledHttpTransport(1);
+        this.api.setTransport(singleConnectionTransport);
+        this.api.setMaxRequestAttempts(1);
+
+        BoxAPIRequest request = new BoxAPIRequest(this.api, new URL("http://localhost:8080/files/0"), "POST");
+        request.setBody(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("The body couldn't be read.");
+            }
+        }, 20);
+        try {
+            request.send();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+
+        assertThat(singleConnectionTransport.getLeasedConnectionCount(), is(0));
+        BoxAPIRequest nextRequest = new BoxAPIRequest(this.api, new URL("http://localhost:8080/folders/0"), "GET");
+        nextRequest.setTimeout(1000);
+        assertThat(((BoxJSONResponse) nextRequest.send()).getJSON(), is("{\"id\": \"0\"}"));
+        singleConnectionTransport.closeIdleConnections();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void abandonedResponseBodyClosesConnection() throws Exception {
+        stubFor(get(urlEqualTo("/files/0/content")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/octet-stream")
+            .withBody(new String(new char[100000]).replace('\0', 'a'))));
+
+        BoxAPIResponse response = new BoxAPIRequest(this.api, new URL("http://localhost:8080/files/0/content"),
+            "GET").send();
+        assertThat(this.transport.getLeasedConnectionCount(), is(1));
+
+        response.getBody().read();
+        response.getBody().close();
+
+        assertThat(this.transport.getLeasedConnectionCount(), is(0));
+        assertThat(this.transport.getIdleConnectionCount(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void warmUpOpensConnectionsThatRequestsReuse() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        this.api.setBaseURL("http://localhost:8080/");
+        this.api.setBaseUploadURL("http://localhost:8080/");
+        assertThat(this.api.warmUp(2), is(2));
+        assertThat(this.transport.getIdleConnectionCount(), is(2));
+        assertThat(this.transport.getCreatedConnectionCount(), is(2L));
+
+        ((BoxJSONResponse) new BoxAPIRequest(this.api, new URL("http://localhost:8080/folders/0"), "GET").send())
+            .getJSON();
+
+        assertThat(this.transport.getCreatedConnectionCount(), is(2L));
+        assertThat(this.transport.getReusedConnectionCount(), is(1L));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void connectionIsClosedAfterMaxRequests() throws MalformedURLException {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        this.transport.setMaxRequestsPerConnection(2);
+        URL url = new URL("http://localhost:8080/folders/0");
+        for (int i = 0; i < 4; i++) {
+            ((BoxJSONResponse) new BoxAPIRequest(this.api, url, "GET").send()).getJSON();
+        }
+
+        assertThat(this.transport.getCreatedConnectionCount(), is(2L));
+        assertThat(this.transport.getReusedConnectionCount(), is(2L));
+        assertThat(this.transport.getIdleConnectionCount(), is(0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void evictsConnectionsIdleLongerThanKeepAliveTimeout() throws Exception {
+        this.transport.warmUp(new URL("http://localhost:8080/"), 1, 0);
+        assertThat(this.transport.getIdleConnectionCount(), is(1));
+
+        this.transport.evictIdleConnections();
+        assertThat(this.transport.getIdleConnectionCount(), is(1));
+
+        this.transport.setKeepAliveTimeout(10);
+        this.transport.setIdleEvictionInterval(10);
+        try {
+            Thread.sleep(200);
+            assertThat(this.transport.getIdleConnectionCount(), is(0));
+        } finally {
+            this.transport.setIdleEvictionInterval(0);
+        }
+    }
+}
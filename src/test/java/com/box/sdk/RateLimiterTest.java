@@ -0,0 +1,108 @@
+package com.box.sdk;
+
+import java.net.URL;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class RateLimiterTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private Time time;
+
+    @Before
+    public void mockTime() {
+        this.time = mock(Time.class);
+        when(this.time.currentTimeMillis()).thenReturn(0L);
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void waitsForPermitsOnceBurstIsUsedUp() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(2, 2, this.time);
+
+        limiter.acquire();
+        limiter.acquire();
+        verify(this.time, never()).waitDuration(anyLong());
+
+        limiter.acquire();
+        verify(this.time).waitDuration(500L);
+        limiter.acquire();
+        verify(this.time).waitDuration(1000L);
+        assertThat(limiter.getAvailablePermits(), is(-2.0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void refillsUpToTheBurstSize() {
+        RateLimiter limiter = new RateLimiter(2, 2, this.time);
+        limiter.acquire();
+        limiter.acquire();
+
+        when(this.time.currentTimeMillis()).thenReturn(500L);
+        assertThat(limiter.getAvailablePermits(), is(1.0));
+
+        when(this.time.currentTimeMillis()).thenReturn(60000L);
+        assertThat(limiter.getAvailablePermits(), is(2.0));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void failsFastWhenPermitWouldTakeLongerThanTheDeadline() {
+        RateLimiter limiter = new RateLimiter(1, 1, this.time);
+        limiter.setMaxWait(500);
+        limiter.acquire();
+
+        assertThat(limiter.tryAcquire(999), is(false));
+        try {
+            limiter.acquire();
+            fail("Expected the rate limiter to fail fast.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(0));
+        }
+
+        assertThat(limiter.tryAcquire(1000), is(true));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void connectionPacesApiAndUploadRequestsSeparately() throws Exception {
+        stubFor(get(urlEqualTo("/files/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+        stubFor(get(urlEqualTo("/upload/files/0")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{}")));
+
+        BoxAPIConnection api = new BoxAPIConnection("");
+        api.setBaseURL("http://localhost:8080/");
+        api.setBaseUploadURL("http://localhost:8080/upload/");
+        RateLimiter rateLimiter = new RateLimiter(0.001, 1);
+        rateLimiter.setMaxWait(0);
+        api.setRateLimiter(rateLimiter);
+        api.setUploadRateLimiter(new RateLimiter(0.001, 1));
+
+        new BoxAPIRequest(api, new URL("http://localhost:8080/files/0"), "GET").send();
+        new BoxAPIRequest(api, new URL("http://localhost:8080/upload/files/0"), "GET").send();
+        try {
+            new BoxAPIRequest(api, new URL("http://localhost:8080/files/0"), "GET").send();
+            fail("Expected the rate limiter to fail fast.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), containsString("rate limiter"));
+        }
+
+        verify(1, getRequestedFor(urlEqualTo("/files/0")));
+        verify(1, getRequestedFor(urlEqualTo("/upload/files/0")));
+    }
+}
@@ -0,0 +1,148 @@
+package com.box.sdk;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class RequestCoalescerTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    @Test
+    @Category(UnitTest.class)
+    public void concurrentIdenticalGetsShareOneRequest() throws Exception {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withFixedDelay(500)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        RequestCoalescer coalescer = new RequestCoalescer();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection sameUserAPI = new BoxAPIConnection("token");
+        api.setRequestCoalescer(coalescer);
+        sameUserAPI.setRequestCoalescer(coalescer);
+
+        List<String> bodies = this.sendConcurrently(api, sameUserAPI, 4);
+
+        assertThat(bodies, everyItem(is("{\"id\": \"0\"}")));
+        assertThat(coalescer.getCoalescedRequests(), is(3L));
+        assertThat(coalescer.getInFlightRequests(), is(0));
+        verify(1, getRequestedFor(urlEqualTo("/folders/0")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void requestsWithDifferentAuthenticationAreNotCombined() throws Exception {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withFixedDelay(500)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        RequestCoalescer coalescer = new RequestCoalescer();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection otherAPI = new BoxAPIConnection("other token");
+        api.setRequestCoalescer(coalescer);
+        otherAPI.setRequestCoalescer(coalescer);
+
+        this.sendConcurrently(api, otherAPI, 2);
+
+        assertThat(coalescer.getCoalescedRequests(), is(0L));
+        verify(2, getRequestedFor(urlEqualTo("/folders/0")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void errorsAreSharedWithWaitingRequests() throws Exception {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse().withFixedDelay(500).withStatus(404)));
+
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setRequestCoalescer(new RequestCoalescer());
+
+        List<String> bodies = this.sendConcurrently(api, api, 3);
+
+        assertThat(bodies, everyItem(is("404")));
+        verify(1, getRequestedFor(urlEqualTo("/folders/0")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void waitingRequestSendsItsOwnWhenRequestInFlightIsCancelled() throws Exception {
+        stubFor(get(urlEqualTo("/folders/0")).willReturn(aResponse()
+            .withFixedDelay(1000)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"id\": \"0\"}")));
+
+        RequestCoalescer coalescer = new RequestCoalescer();
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        api.setRequestCoalescer(coalescer);
+        URL url = new URL("http://localhost:8080/folders/0");
+        BoxAPIRequest leader = new BoxAPIRequest(api, url, "GET");
+        BoxAPIRequest follower = new BoxAPIRequest(api, url, "GET");
+
+        BoxFuture<BoxAPIResponse> leaderFuture = leader.sendAsync();
+        while (coalescer.getInFlightRequests() == 0) {
+            Thread.sleep(10);
+        }
+        BoxFuture<BoxAPIResponse> followerFuture = follower.sendAsync();
+        Thread.sleep(200);
+        leader.cancel();
+
+        try {
+            leaderFuture.join();
+            fail("Expected a BoxAPIException.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getMessage(), is("The request was cancelled."));
+        }
+        assertThat(((BoxJSONResponse) followerFuture.join()).getJSON(), is("{\"id\": \"0\"}"));
+        assertThat(coalescer.getCoalescedRequests(), is(0L));
+        verify(2, getRequestedFor(urlEqualTo("/folders/0")));
+    }
+
+    private List<String> sendConcurrently(BoxAPIConnection api, BoxAPIConnection otherAPI, int count)
+        throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < count; i++) {
+                final BoxAPIConnection connection = (i % 2 == 0) ? api : otherAPI;
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        BoxAPIRequest request = new BoxAPIRequest(connection,
+                            new URL("http://localhost:8080/folders/0"), "GET");
+                        try {
+                            return ((BoxJSONResponse) request.send()).getJSON();
+                        } catch (BoxAPIException e) {
+                            return String.valueOf(e.getResponseCode());
+                        }
+                    }
+                }));
+                Thread.sleep(50);
+            }
+
+            List<String> bodies = new ArrayList<String>();
+            for (Future<String> future : futures) {
+                bodies.add(future.get());
+            }
+            return bodies;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.box.sdk;
+
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class SharedLinkAPIConnectionTest {
+    @Test
+    @Category(UnitTest.class)
+    public void sharedLinkConnectionUsesTransportOfWrappedConnection() {
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection sharedLinkAPI = new SharedLinkAPIConnection(api, "https://app.box.com/s/link");
+        HttpTransport transport = new PooledHttpTransport();
+
+        sharedLinkAPI.setTransport(transport);
+
+        assertThat(api.getTransport(), is(sameInstance(transport)));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void sharedLinkConnectionUsesAsyncExecutorOfWrappedConnection() {
+        BoxAPIConnection api = new BoxAPIConnection("token");
+        BoxAPIConnection sharedLinkAPI = new SharedLinkAPIConnection(api, "https://app.box.com/s/link");
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+
+        api.setAsyncExecutor(executor);
+
+        assertThat(sharedLinkAPI.getAsyncExecutor(), is(sameInstance(executor)));
+    }
+}
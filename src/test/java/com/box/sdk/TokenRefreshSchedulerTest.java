@@ -0,0 +1,99 @@
+package com.box.sdk;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class TokenRefreshSchedulerTest {
+    private static final long TOKEN_LIFETIME = 3600000;
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private final TokenRefreshScheduler scheduler = new TokenRefreshScheduler(TOKEN_LIFETIME - 200, 100);
+
+    @After
+    public void shutdownScheduler() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void refreshesRegisteredConnectionBeforeTokenExpires() throws InterruptedException {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"access_token\": \"new\", \"refresh_token\": \"refresh2\", \"expires_in\": 3600}")));
+
+        BoxAPIConnection api = this.createConnection();
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        api.addListener(new BoxAPIConnectionListener() {
+            @Override
+            public void onRefresh(BoxAPIConnection api) {
+                refreshed.countDown();
+            }
+
+            @Override
+            public void onError(BoxAPIConnection api, BoxAPIException error) { }
+        });
+
+        this.scheduler.register(api);
+        assertThat(api.getAccessToken(), is("old"));
+        assertThat(refreshed.await(10, TimeUnit.SECONDS), is(true));
+
+        assertThat(api.getAccessToken(), is("new"));
+        assertThat(api.getRefreshToken(), is("refresh2"));
+        verify(1, postRequestedFor(urlEqualTo("/oauth2/token"))
+            .withRequestBody(containing("refresh_token=refresh&")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void reportsFailedRefreshToListenersAndRetries() throws InterruptedException {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse()
+            .withStatus(400)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"error\": \"invalid_grant\"}")));
+
+        BoxAPIConnection api = this.createConnection();
+        final AtomicReference<BoxAPIException> error = new AtomicReference<BoxAPIException>();
+        final CountDownLatch failed = new CountDownLatch(2);
+        api.addListener(new BoxAPIConnectionListener() {
+            @Override
+            public void onRefresh(BoxAPIConnection api) { }
+
+            @Override
+            public void onError(BoxAPIConnection api, BoxAPIException e) {
+                error.set(e);
+                failed.countDown();
+            }
+        });
+
+        this.scheduler.register(api);
+        assertThat(failed.await(10, TimeUnit.SECONDS), is(true));
+        this.scheduler.unregister(api);
+
+        assertThat(error.get().getResponseCode(), is(400));
+        assertThat(this.scheduler.isRegistered(api), is(false));
+        assertThat(api.getAccessToken(), is("old"));
+    }
+
+    private BoxAPIConnection createConnection() {
+        BoxAPIConnection api = new BoxAPIConnection("clientID", "clientSecret", "old", "refresh");
+        api.setTokenURL("http://localhost:8080/oauth2/token");
+        api.setLastRefresh(System.currentTimeMillis());
+        api.setExpires(TOKEN_LIFETIME);
+        return api;
+    }
+}
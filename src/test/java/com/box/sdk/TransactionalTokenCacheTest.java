@@ -0,0 +1,127 @@
+package com.box.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class TransactionalTokenCacheTest {
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8080);
+
+    private TransactionalTokenCache cache;
+
+    @Before
+    public void createCache() {
+        this.cache = new TransactionalTokenCache(10);
+        this.cache.setTokenURL("http://localhost:8080/oauth2/token");
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void reusesExchangedTokenForSameScopeAndResource() {
+        stubTokenExchange(3600);
+
+        BoxAPIConnection first = this.cache.getTransactionConnection("token", "item_preview", null);
+        BoxAPIConnection second = this.cache.getTransactionConnection("token", "item_preview", null);
+        this.cache.getTransactionConnection("token", "item_preview", "https://api.box.com/2.0/files/1");
+        this.cache.getTransactionConnection("token", "item_download", null);
+
+        assertThat(first.getAccessToken(), is("transactional-token"));
+        assertThat(second.getAccessToken(), is("transactional-token"));
+        assertThat(second.getExpires(), is(3600000L));
+        verify(3, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void concurrentRequestsShareOneExchange() throws Exception {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse()
+            .withFixedDelay(200)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"access_token\": \"transactional-token\", \"expires_in\": 3600}")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BoxAPIConnection>> futures = new ArrayList<Future<BoxAPIConnection>>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(new Callable<BoxAPIConnection>() {
+                @Override
+                public BoxAPIConnection call() {
+                    return TransactionalTokenCacheTest.this.cache.getTransactionConnection("token", "item_preview",
+                        null);
+                }
+            }));
+        }
+
+        for (Future<BoxAPIConnection> future : futures) {
+            assertThat(future.get().getAccessToken(), is("transactional-token"));
+        }
+        executor.shutdown();
+
+        verify(1, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void doesNotReuseTokensThatAreAboutToExpire() {
+        stubTokenExchange(30);
+
+        this.cache.getTransactionConnection("token", "item_preview", null);
+        this.cache.getTransactionConnection("token", "item_preview", null);
+
+        verify(2, postRequestedFor(urlEqualTo("/oauth2/token")));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void doesNotRememberFailedExchanges() {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse().withStatus(400)));
+
+        try {
+            this.cache.getTransactionConnection("token", "item_preview", null);
+            fail("Expected the token exchange to fail.");
+        } catch (BoxAPIException e) {
+            assertThat(e.getResponseCode(), is(400));
+        }
+
+        stubTokenExchange(3600);
+        BoxAPIConnection api = this.cache.getTransactionConnection("token", "item_preview", null);
+
+        assertThat(api.getAccessToken(), is("transactional-token"));
+    }
+
+    @Test
+    @Category(UnitTest.class)
+    public void invalidatedAccessTokenIsExchangedAgain() {
+        stubTokenExchange(3600);
+
+        this.cache.getTransactionConnection("token", "item_preview", null);
+        this.cache.getTransactionConnection("other token", "item_preview", null);
+        this.cache.invalidate("token");
+        this.cache.getTransactionConnection("token", "item_preview", null);
+        this.cache.getTransactionConnection("other token", "item_preview", null);
+
+        verify(2, postRequestedFor(urlEqualTo("/oauth2/token")).withRequestBody(containing("subject_token=token")));
+        verify(1, postRequestedFor(urlEqualTo("/oauth2/token")).withRequestBody(containing("subject_token=other")));
+    }
+
+    private static void stubTokenExchange(int expiresIn) {
+        stubFor(post(urlEqualTo("/oauth2/token")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"access_token\": \"transactional-token\", \"expires_in\": " + expiresIn + "}")));
+    }
+}